@@ -0,0 +1,121 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.claims.storage;
+
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.*;
+import xaero.pac.client.claims.ClientRegionClaims;
+import xaero.pac.common.benchmark.AbstractBenchmark;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the region storage scans on their own: finding the claimed chunks (like the region claim diffs on the client
+ * and the syncable storage copies on the server do), finding the chunks of a single claim state and counting the chunks of
+ * each palette index. Each scan reads the bit storage a word at a time and is paired with the chunk-by-chunk
+ * loop it replaced. Regions are filled with a varying share of claimed chunks and number of claim states.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionClaimsPaletteStorageBenchmark extends AbstractBenchmark {
+
+	@Param({"0.02", "0.25", "1.0"})
+	private double claimedRatio;
+
+	@Param({"2", "12"})
+	private int stateCount;
+
+	private RegionClaimsPaletteStorage storage;
+	private boolean[] matchingPaletteIndices;
+	private PlayerChunkClaim matchedState;
+	private short[] counts;
+
+	@Setup
+	public void setup(){
+		ClientRegionClaims region = ClientRegionClaims.Builder.begin().setDimension(new ResourceLocation("overworld")).build();
+		storage = region.getStorage();
+		PlayerChunkClaim[] states = new PlayerChunkClaim[stateCount];
+		for(int i = 0; i < states.length; i++)
+			states[i] = new PlayerChunkClaim(new UUID(0, i), -1, false, i);
+		Random random = new Random(0);
+		for(int x = 0; x < 32; x++)
+			for(int z = 0; z < 32; z++)
+				if(random.nextDouble() < claimedRatio)
+					storage.set(x, z, states[random.nextInt(states.length)], region);
+		matchedState = states[0];
+		int[] paletteArray = storage.getPaletteArray();
+		matchingPaletteIndices = new boolean[paletteArray.length + 1];
+		for(int i = 0; i < paletteArray.length; i++)
+			matchingPaletteIndices[i + 1] = paletteArray[i] == matchedState.getSyncIndex();
+		counts = new short[paletteArray.length + 1];
+	}
+
+	@Benchmark
+	public int findNextNonEmptyByWords(){
+		int found = 0;
+		for(int index = storage.findNextNonEmpty(0); index != -1; index = storage.findNextNonEmpty(index + 1))
+			found++;
+		return found;
+	}
+
+	@Benchmark
+	public int findNonEmptyPerChunk(){
+		int found = 0;
+		for(int index = 0; index < 1024; index++)
+			if(storage.get(index >> 5, index & 31) != null)
+				found++;
+		return found;
+	}
+
+	@Benchmark
+	public int findStateByWords(){
+		int found = 0;
+		for(int index = storage.findNext(0, matchingPaletteIndices); index != -1; index = storage.findNext(index + 1, matchingPaletteIndices))
+			found++;
+		return found;
+	}
+
+	@Benchmark
+	public int findStatePerChunk(){
+		int found = 0;
+		for(int index = 0; index < 1024; index++)
+			if(storage.get(index >> 5, index & 31) == matchedState)
+				found++;
+		return found;
+	}
+
+	@Benchmark
+	public short[] countPaletteIndicesByWords(){
+		Arrays.fill(counts, (short) 0);
+		storage.countPaletteIndices(counts);
+		return counts;
+	}
+
+	@Benchmark
+	public short[] countPaletteIndicesPerChunk(){
+		Arrays.fill(counts, (short) 0);
+		for(int index = 0; index < 1024; index++)
+			counts[storage.storage.get(index)]++;
+		return counts;
+	}
+
+}
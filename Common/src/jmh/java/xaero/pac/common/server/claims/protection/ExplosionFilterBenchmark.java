@@ -0,0 +1,182 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+import xaero.pac.client.claims.ClientRegionClaims;
+import xaero.pac.client.claims.player.ClientPlayerClaimInfoManager;
+import xaero.pac.common.benchmark.AbstractBenchmark;
+import xaero.pac.common.claims.DimensionClaimsManager;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
+import xaero.pac.common.server.claims.IServerDimensionClaimsLookup;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+import xaero.pac.common.server.player.config.api.PlayerConfigOptions;
+import xaero.pac.common.util.linked.LinkedChain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the block filtering step of {@link ChunkProtection#onExplosionDetonate}, which resolves the claim and
+ * the protection profile of each chunk once, against resolving them for every block like before.
+ * The claims are kept in real region claims, behind the same dimension claims manager lookup that the server uses.
+ * The explosion chunks are a mix of claims protected from explosions, claims that aren't, and wilderness.
+ * With {@link #regionMemo} off, the claims are looked up directly in the region map instead, like before the recent region memo
+ * of {@link DimensionClaimsManager}, which matters most for the per-block baseline.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExplosionFilterBenchmark extends AbstractBenchmark {
+
+	@Param({"10000", "50000"})
+	public int blockCount;
+
+	@Param({"2", "8"})
+	public int chunkSpan;
+
+	@Param({"true", "false"})
+	public boolean regionMemo;
+
+	private List<BlockPos> blocks;
+	private IServerDimensionClaimsLookup<PlayerChunkClaim> claimsLookup;
+	private ChunkProtection.ClaimProfileGetter profileGetter;
+	private Long2ByteMap chunkResults;
+
+	@Setup
+	public void setup(){
+		Random random = new Random(0);
+		int blockSpan = chunkSpan * 16;
+		blocks = new ArrayList<>(blockCount);
+		for(int i = 0; i < blockCount; i++)
+			blocks.add(new BlockPos(random.nextInt(blockSpan) - blockSpan / 2, random.nextInt(64), random.nextInt(blockSpan) - blockSpan / 2));
+
+		//the explosion is centered on a region corner, so that it spans 4 regions
+		BenchmarkClaims claims = new BenchmarkClaims(new ResourceLocation("overworld"));
+		PlayerChunkClaim protectedClaim = new PlayerChunkClaim(new UUID(0, 1), -1, false, 0);
+		PlayerChunkClaim unprotectedClaim = new PlayerChunkClaim(new UUID(0, 2), -1, false, 1);
+		for(int chunkX = -chunkSpan / 2; chunkX < chunkSpan / 2; chunkX++)
+			for(int chunkZ = -chunkSpan / 2; chunkZ < chunkSpan / 2; chunkZ++) {
+				if(((chunkX + chunkZ) & 1) == 0)
+					claims.set(chunkX, chunkZ, protectedClaim);
+				else if((chunkX & 1) == 0)
+					claims.set(chunkX, chunkZ, unprotectedClaim);
+			}
+		claimsLookup = regionMemo ? claims : new RegionMapLookup(claims);
+
+		Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> slots = new Reference2IntOpenHashMap<>();
+		slots.defaultReturnValue(-1);
+		slots.put(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS, 0);
+		slots.put(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_EXPLOSIONS, 1);
+		//stands in for the loaded player configs, which are also looked up by the claim owner ID
+		Map<UUID, ChunkProtectionProfile> ownerProfiles = new HashMap<>();
+		ownerProfiles.put(protectedClaim.getPlayerId(), new ChunkProtectionProfile(null, slots, new int[]{1, 1}, 0));
+		ownerProfiles.put(unprotectedClaim.getPlayerId(), new ChunkProtectionProfile(null, slots, new int[]{1, 0}, 0));
+		ChunkProtectionProfile wildernessProfile = new ChunkProtectionProfile(null, slots, new int[]{0, 0}, 0);
+		profileGetter = claim -> claim == null ? wildernessProfile : ownerProfiles.get(claim.getPlayerId());
+		chunkResults = new Long2ByteOpenHashMap();
+	}
+
+	@Benchmark
+	public List<BlockPos> perChunkFilter(){
+		List<BlockPos> affectedBlocks = new ArrayList<>(blocks);
+		ChunkProtection.removeExplosionProtectedBlocks(affectedBlocks, chunkResults, claimsLookup, profileGetter);
+		return affectedBlocks;
+	}
+
+	@Benchmark
+	public List<BlockPos> perBlockFilter(){
+		List<BlockPos> affectedBlocks = new ArrayList<>(blocks);
+		Iterator<BlockPos> iterator = affectedBlocks.iterator();
+		while(iterator.hasNext()) {
+			ChunkProtectionProfile profile = profileGetter.get(claimsLookup.get(iterator.next()));
+			if(profile != null && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_EXPLOSIONS))
+				iterator.remove();
+		}
+		return affectedBlocks;
+	}
+
+	private static final class BenchmarkClaims extends DimensionClaimsManager<ClientPlayerClaimInfoManager, ClientRegionClaims> implements IServerDimensionClaimsLookup<PlayerChunkClaim> {
+
+		private final Long2ObjectMap<ClientRegionClaims> regions;
+
+		private BenchmarkClaims(ResourceLocation dimension) {
+			this(dimension, new Long2ObjectOpenHashMap<>());
+		}
+
+		private BenchmarkClaims(ResourceLocation dimension, Long2ObjectMap<ClientRegionClaims> regions) {
+			super(dimension, regions, new LinkedChain<>());
+			this.regions = regions;
+		}
+
+		@Override
+		protected ClientRegionClaims create(ResourceLocation dimension, int x, int z, RegionClaimsPaletteStorage storage) {
+			return ClientRegionClaims.Builder.begin().setDimension(dimension).setX(x).setZ(z).setStorage(storage).build();
+		}
+
+		private void set(int chunkX, int chunkZ, PlayerChunkClaim claim) {
+			ClientRegionClaims region = getRegion(chunkX >> 5, chunkZ >> 5);
+			if(region == null)
+				setRegion(chunkX >> 5, chunkZ >> 5, region = create(getDimension(), chunkX >> 5, chunkZ >> 5, null));
+			region.getStorage().set(chunkX & 31, chunkZ & 31, claim, region);
+		}
+
+	}
+
+	private static final class RegionMapLookup implements IServerDimensionClaimsLookup<PlayerChunkClaim> {
+
+		private final BenchmarkClaims claims;
+
+		private RegionMapLookup(BenchmarkClaims claims) {
+			this.claims = claims;
+		}
+
+		@Override
+		public PlayerChunkClaim get(int x, int z) {
+			ClientRegionClaims region = claims.regions.get(claims.getKey(x >> 5, z >> 5));
+			return region == null ? null : region.get(x & 31, z & 31);
+		}
+
+		@Override
+		public PlayerChunkClaim get(ChunkPos chunkPos) {
+			return get(chunkPos.x, chunkPos.z);
+		}
+
+		@Override
+		public PlayerChunkClaim get(BlockPos blockPos) {
+			return get(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+		}
+
+	}
+
+}
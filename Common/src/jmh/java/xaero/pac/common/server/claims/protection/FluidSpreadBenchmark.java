@@ -0,0 +1,124 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xaero.pac.common.benchmark.AbstractBenchmark;
+import xaero.pac.common.claims.player.IPlayerChunkClaim;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how much of the claim barrier work of one fluid spread tick {@link ClaimBarrierFilter} skips, by counting
+ * on the flows within the same chunk and the repeated claim pairs of the tick. Every block of a square lake flows to its
+ * 4 neighbours, with the lake spanning the claims of two players, one of which has a sub-claim, and unclaimed chunks.
+ * <p>
+ * The claim lookup and the config comparison cost the same for both benchmarks, so they are cheap stand-ins
+ * (a chunk map and a few values per owner) rather than the claims manager and the player configs.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FluidSpreadBenchmark extends AbstractBenchmark {
+
+	private static final int[][] DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+	@Param({"4", "16"})
+	public int lakeChunks;
+
+	private Long2ObjectMap<IPlayerChunkClaim> claims;
+	private Map<UUID, int[]> configs;
+	private ClaimPairResultCache tickCache;
+	private ClaimBarrierFilter.ChunkClaimGetter<Long2ObjectMap<IPlayerChunkClaim>> claimGetter;
+	private ClaimBarrierFilter.ClaimPairCheck claimCheck;
+	private int lakeBlocks;
+
+	@Setup
+	public void setup(){
+		UUID firstPlayer = new UUID(0, 1);
+		UUID secondPlayer = new UUID(0, 2);
+		IPlayerChunkClaim firstClaim = new PlayerChunkClaim(firstPlayer, -1, false, 0);
+		IPlayerChunkClaim firstSubClaim = new PlayerChunkClaim(firstPlayer, 0, false, 1);
+		IPlayerChunkClaim secondClaim = new PlayerChunkClaim(secondPlayer, -1, false, 2);
+		claims = new Long2ObjectOpenHashMap<>();
+		int half = lakeChunks / 2;
+		for(int chunkX = 0; chunkX < lakeChunks; chunkX++)
+			for(int chunkZ = 0; chunkZ < lakeChunks; chunkZ++) {
+				IPlayerChunkClaim claim;
+				if(chunkX < half)
+					claim = chunkZ < half ? firstClaim : firstSubClaim;
+				else
+					claim = chunkZ < half ? secondClaim : null;
+				if(claim != null)
+					claims.put(ChunkPos.asLong(chunkX, chunkZ), claim);
+			}
+		configs = new HashMap<>();
+		configs.put(firstPlayer, new int[]{1, 1, 0});
+		configs.put(secondPlayer, new int[]{1, 2, 1});
+		tickCache = new ClaimPairResultCache();
+		claimGetter = this::getClaim;
+		claimCheck = this::hitsAnotherClaim;
+		lakeBlocks = lakeChunks * 16;
+	}
+
+	private IPlayerChunkClaim getClaim(Long2ObjectMap<IPlayerChunkClaim> claims, int chunkX, int chunkZ){
+		return claims.get(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	private boolean hitsAnotherClaim(IPlayerChunkClaim fromClaim, IPlayerChunkClaim toClaim){
+		if(toClaim == null || fromClaim == toClaim)
+			return false;
+		int[] toConfig = configs.get(toClaim.getPlayerId());
+		if(fromClaim == null)
+			return toConfig[0] > 0;
+		int[] fromConfig = configs.get(fromClaim.getPlayerId());
+		for(int i = 0; i < toConfig.length; i++)
+			if(fromConfig[i] < toConfig[i])
+				return true;
+		return false;
+	}
+
+	@Benchmark
+	public void filteredSpread(Blackhole blackhole){
+		tickCache.clear();
+		for(int x = 0; x < lakeBlocks; x++)
+			for(int z = 0; z < lakeBlocks; z++)
+				for(int[] direction : DIRECTIONS)
+					blackhole.consume(ClaimBarrierFilter.hitsAnotherClaimInTick(claims, x >> 4, z >> 4, (x + direction[0]) >> 4, (z + direction[1]) >> 4,
+							claimGetter, tickCache, 0, claimCheck));
+	}
+
+	@Benchmark
+	public void perFlowSpread(Blackhole blackhole){
+		for(int x = 0; x < lakeBlocks; x++)
+			for(int z = 0; z < lakeBlocks; z++)
+				for(int[] direction : DIRECTIONS) {
+					IPlayerChunkClaim toClaim = getClaim(claims, (x + direction[0]) >> 4, (z + direction[1]) >> 4);
+					IPlayerChunkClaim fromClaim = getClaim(claims, x >> 4, z >> 4);
+					blackhole.consume(hitsAnotherClaim(fromClaim, toClaim));
+				}
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.player.config.io.serialization.nbt;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.toml.TomlParser;
+import com.electronwill.nightconfig.toml.TomlWriter;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xaero.pac.common.benchmark.AbstractBenchmark;
+import xaero.pac.common.server.io.serialization.SerializedDataFileIO;
+import xaero.pac.common.server.io.serialization.human.HumanReadableSerializedDataFileIO;
+import xaero.pac.common.server.io.serialization.human.SimpleHumanReadableStringConverter;
+import xaero.pac.common.server.io.serialization.nbt.SimpleNBTSerializedDataFileIO;
+import xaero.pac.common.server.player.config.PlayerConfigOptionSpec;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+import xaero.pac.common.server.player.config.api.PlayerConfigOptions;
+import xaero.pac.common.server.player.config.io.serialization.PlayerConfigSerializer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Saves and loads the player config files of a large server in the TOML and the NBT formats, the same way the player config IO does:
+ * the files are written (without the temporary file swap) and read with the serialized data file IO of the format and the configs are (de)serialized with the
+ * static options and the config spec built from them, including the spec correction of TOML files and the spec check of NBT values.
+ * Each config turns a few of the boolean options away from their defaults, like most real player configs do.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PlayerConfigFormatBenchmark extends AbstractBenchmark {
+
+	private static final int CHANGED_OPTIONS = 4;
+
+	@Param({"50000"})
+	public int configCount;
+
+	private List<IPlayerConfigOptionSpecAPI<?>> options;
+	private ForgeConfigSpec spec;
+	private Config defaults;
+	private Path folder;
+	private Path[] tomlFiles;
+	private Path[] nbtFiles;
+	private Config[] configs;
+	private TomlParser parser;
+	private TomlWriter writer;
+	private SerializedDataFileIO<String, Object> tomlFileIO;
+	private SerializedDataFileIO<CompoundTag, Object> nbtFileIO;
+
+	@Setup
+	public void setup() throws IOException {
+		options = new ArrayList<>(PlayerConfigOptions.OPTIONS.values());
+		ForgeConfigSpec.Builder specBuilder = new ForgeConfigSpec.Builder();
+		options.forEach(o -> ((PlayerConfigOptionSpec<?>) o).applyToForgeSpec(specBuilder));//same as the config manager, minus the dynamic options
+		spec = specBuilder.build();
+		defaults = PlayerConfigNbtSerializer.createDefaults(spec);//built once per config manager
+		List<IPlayerConfigOptionSpecAPI<?>> booleanOptions = options.stream().filter(o -> o.getType() == Boolean.class).toList();
+
+		parser = new TomlParser();
+		tomlFileIO = new HumanReadableSerializedDataFileIO<>(new SimpleHumanReadableStringConverter<>());
+		nbtFileIO = new SimpleNBTSerializedDataFileIO<>();
+		writer = new TomlWriter();
+		folder = Files.createTempDirectory("player-configs");
+		Random random = new Random(0);
+		configs = new Config[configCount];
+		tomlFiles = new Path[configCount];
+		nbtFiles = new Path[configCount];
+		for(int i = 0; i < configCount; i++) {
+			Config config = PlayerConfigNbtSerializer.createDefaults(spec);
+			for(int j = 0; j < CHANGED_OPTIONS; j++) {
+				IPlayerConfigOptionSpecAPI<?> option = booleanOptions.get(random.nextInt(booleanOptions.size()));
+				config.set(option.getPath(), !(Boolean) option.getDefaultValue());
+			}
+			configs[i] = config;
+			String fileName = new UUID(0, i).toString();
+			tomlFiles[i] = folder.resolve(fileName + ".toml");
+			nbtFiles[i] = folder.resolve(fileName + ".nbt");
+			write(tomlFiles[i], tomlFileIO, writer.writeToString(config));
+			write(nbtFiles[i], nbtFileIO, PlayerConfigNbtSerializer.writeStorage(config, options.stream(), false));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try(Stream<Path> contents = Files.list(folder)) {
+			for(Path file : contents.toList())
+				Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	private static <S> void write(Path file, SerializedDataFileIO<S, Object> fileIO, S data) throws IOException {
+		try(BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(file.toFile()))) {
+			fileIO.write(output, data);
+		}
+	}
+
+	private static <S> S read(Path file, SerializedDataFileIO<S, Object> fileIO) throws IOException {
+		try(BufferedInputStream input = new BufferedInputStream(new FileInputStream(file.toFile()))) {
+			return fileIO.read(null, input);
+		}
+	}
+
+	@Benchmark
+	public void saveToml() throws IOException {
+		for(int i = 0; i < configCount; i++)
+			write(tomlFiles[i], tomlFileIO, writer.writeToString(configs[i]));
+	}
+
+	@Benchmark
+	public void saveNbt() throws IOException {
+		for(int i = 0; i < configCount; i++)
+			write(nbtFiles[i], nbtFileIO, PlayerConfigNbtSerializer.writeStorage(configs[i], options.stream(), false));
+	}
+
+	@Benchmark
+	public void loadToml(Blackhole blackhole) throws IOException {
+		for(Path file : tomlFiles)
+			blackhole.consume(PlayerConfigSerializer.readStorage(parser, read(file, tomlFileIO), spec, options.stream(), IPlayerConfigOptionSpecAPI::getDefaultValue, true));
+	}
+
+	@Benchmark
+	public void loadNbt(Blackhole blackhole) throws IOException {
+		for(Path file : nbtFiles)
+			blackhole.consume(PlayerConfigNbtSerializer.readStorage(read(file, nbtFileIO), options.stream(), spec, defaults));
+	}
+
+}
@@ -18,12 +18,9 @@
 
 package xaero.pac.client.claims;
 
-import com.google.common.collect.Lists;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.SimpleBitStorage;
 import xaero.pac.client.claims.player.ClientPlayerClaimInfoManager;
-import xaero.pac.common.claims.PlayerChunkClaimHolder;
 import xaero.pac.common.claims.RegionClaims;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
@@ -40,12 +37,22 @@ public final class ClientRegionClaims extends RegionClaims<ClientPlayerClaimInfo
 		ClientRegionClaims newRegion = reverse ? this : otherRegion;
 		int x = getX();
 		int z = getZ();
-		for(int i = 0; i < 32; i++){
-			for(int j = 0; j < 32; j++){
-				PlayerChunkClaim claim = oldRegion == null ? null : oldRegion.get(i, j);
-				PlayerChunkClaim newClaim = newRegion == null ? null : newRegion.get(i, j);
-				onClaimSet((x << 5) | i, (z << 5) | j, claim, newClaim, playerClaimsManager, configManager);
-			}
+		RegionClaimsPaletteStorage oldStorage = oldRegion == null ? null : oldRegion.getStorage();
+		RegionClaimsPaletteStorage newStorage = newRegion == null ? null : newRegion.getStorage();
+		//chunks that are empty in both regions don't change anything
+		int nextOld = oldStorage == null ? -1 : oldStorage.findNextNonEmpty(0);
+		int nextNew = newStorage == null ? -1 : newStorage.findNextNonEmpty(0);
+		while(nextOld != -1 || nextNew != -1){
+			int index = nextOld == -1 ? nextNew : nextNew == -1 ? nextOld : Math.min(nextOld, nextNew);
+			int i = index >> 5;
+			int j = index & 31;
+			PlayerChunkClaim claim = oldStorage == null ? null : oldStorage.get(i, j);
+			PlayerChunkClaim newClaim = newStorage == null ? null : newStorage.get(i, j);
+			onClaimSet((x << 5) | i, (z << 5) | j, claim, newClaim, playerClaimsManager, configManager);
+			if(nextOld == index)
+				nextOld = oldStorage.findNextNonEmpty(index + 1);
+			if(nextNew == index)
+				nextNew = newStorage.findNextNonEmpty(index + 1);
 		}
 	}
 
@@ -69,7 +76,7 @@ public final class ClientRegionClaims extends RegionClaims<ClientPlayerClaimInfo
 		@Override
 		public ClientRegionClaims build() {
 			if(storage == null)
-				setStorage(new RegionClaimsPaletteStorage(new Object2IntOpenHashMap<>(), null, Lists.newArrayList((PlayerChunkClaimHolder)null), new SimpleBitStorage(1, 1024), false));
+				setStorage(new RegionClaimsPaletteStorage(new PlayerChunkClaim[1], new SimpleBitStorage(1, 1024), false));
 			return (ClientRegionClaims) super.build();
 		}
 
@@ -18,18 +18,13 @@
 
 package xaero.pac.client.claims.sync;
 
-import com.google.common.collect.Lists;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.BitStorage;
 import xaero.pac.client.claims.ClientClaimsManager;
-import xaero.pac.common.claims.PlayerChunkClaimHolder;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.claims.result.api.AreaClaimResult;
 import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
 
-import java.util.ArrayList;
 import java.util.UUID;
 
 public class ClientClaimsSyncHandler {
@@ -98,6 +93,24 @@ public class ClientClaimsSyncHandler {
 		lastClaimUpdateZ = z;
 	}
 
+	public void onRegionClaimUpdate(ResourceLocation dimension, int regionX, int regionZ, UUID playerId, int subConfigIndex, boolean forceload, int claimSyncIndex, long[] chunks) {
+		if(playerId != null && claimsManager.getClaimStateBySyncIndex(claimSyncIndex) == null)
+			claimsManager.addClaimState(new PlayerChunkClaim(playerId, subConfigIndex, forceload, claimSyncIndex));
+		for(int i = 0; i < chunks.length; i++) {
+			long bits = chunks[i];
+			while(bits != 0) {
+				int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				int x = (regionX << 5) | (index >> 5);
+				int z = (regionZ << 5) | (index & 31);
+				if(playerId != null)
+					claimsManager.claim(dimension, playerId, subConfigIndex, x, z, forceload);
+				else
+					claimsManager.unclaim(dimension, x, z);
+			}
+		}
+	}
+
 	public void onClaimUpdatePos(int x, int z) {
 		if(lastClaimUpdateDimension == null)
 			throw new IllegalStateException();
@@ -118,15 +131,10 @@ public class ClientClaimsSyncHandler {
 	}
 	
 	public void onRegion(int x, int z, int[] paletteInts, BitStorage storage) {
-		Object2IntMap<PlayerChunkClaim> paletteHelper = new Object2IntOpenHashMap<>();
-		ArrayList<PlayerChunkClaimHolder> palette = Lists.newArrayList((PlayerChunkClaimHolder)null);
-		for(int i = 0; i < paletteInts.length; i++){
-			PlayerChunkClaim claim = claimsManager.getClaimStateBySyncIndex(paletteInts[i]);
-			if(claim != null)//can be null
-				paletteHelper.put(claim, palette.size()/*not i*/);
-			palette.add(new PlayerChunkClaimHolder(claim));//possible that the storage still points at a null (based on sync mode)
-		}
-		RegionClaimsPaletteStorage newRegionStorage = new RegionClaimsPaletteStorage(paletteHelper, null, palette, storage, false);
+		PlayerChunkClaim[] palette = new PlayerChunkClaim[paletteInts.length + 1];
+		for(int i = 0; i < paletteInts.length; i++)
+			palette[i + 1] = claimsManager.getClaimStateBySyncIndex(paletteInts[i]);//can be null, possible that the storage still points at it (based on sync mode)
+		RegionClaimsPaletteStorage newRegionStorage = new RegionClaimsPaletteStorage(palette, storage, false);
 		newRegionStorage.setNeedsHolderRecalculation(true);//will calculate holder data when there is an attempt to modify the region
 		claimsManager.claimRegion(dimensionSyncing, x, z, newRegionStorage);
 	}
@@ -36,6 +36,7 @@ public class LoadCommon {
 	public void loadCommon() {
 		OpenPartiesAndClaims.LOGGER.info("Loading Open Parties and Claims!");
 		modMain.getForgeConfigHelper().registerServerConfig(ServerConfig.SPEC);
+		modMain.getForgeConfigHelper().addReloadListener(ServerConfig.SPEC, () -> modMain.getCommonEvents().onServerConfigReload());
 
 		new PacketRegister().register(this);
 	}
@@ -140,6 +140,16 @@ public abstract class ClaimsManager
 		dimensionClaims.unclaim(x, z, playerClaimInfoManager, configManager);
 	}
 
+	/**
+	 * Sets the same claim for every chunk of a 1024-bit chunk mask of a region.
+	 *
+	 * @param claim  a claim state from {@link #getClaimState}, or null to unclaim
+	 */
+	public void claimChunksInRegion(ResourceLocation dimension, int regionX, int regionZ, long[] chunkMask, PlayerChunkClaim claim) {
+		WCM dimensionClaims = ensureDimension(dimension);
+		dimensionClaims.claimChunksInRegion(regionX, regionZ, chunkMask, claim, playerClaimInfoManager, configManager);
+	}
+
 	@Override
 	public boolean hasPlayerInfo(@Nonnull UUID playerId) {
 		return playerClaimInfoManager.hasInfo(playerId);
@@ -164,7 +174,9 @@ public abstract class ClaimsManager
 	@Nullable
 	@Override
 	public PlayerChunkClaim get(@Nonnull ResourceLocation dimension, int x, int z) {
-		WCM dimensionClaims = ensureDimension(dimension);
+		WCM dimensionClaims = getDimension(dimension);
+		if(dimensionClaims == null)
+			return null;
 		return dimensionClaims.get(x, z);
 	}
 
@@ -38,15 +38,19 @@ public abstract class DimensionClaimsManager
 	M extends PlayerClaimInfoManager<?, M>,
 	WRC extends RegionClaims<M, WRC>
 > implements IDimensionClaimsManager<WRC> {
+
+	private static final int RECENT_REGION_CACHE_SIZE = 4;//must be a power of 2
 	
 	private final ResourceLocation dimension;
 	private final Long2ObjectMap<WRC> regions;
 	private final LinkedChain<WRC> linkedRegions;
+	private final Object[] recentRegions;//direct-mapped, each slot only holds a region that is actually in the map
 	
 	public DimensionClaimsManager(ResourceLocation dimension, Long2ObjectMap<WRC> regions, LinkedChain<WRC> linkedRegions) {
 		this.dimension = dimension;
 		this.regions = regions;
 		this.linkedRegions = linkedRegions;
+		this.recentRegions = new Object[RECENT_REGION_CACHE_SIZE];
 	}
 	
 	@Override
@@ -64,16 +68,30 @@ public abstract class DimensionClaimsManager
 		return PlayerChunkClaim.getLongCoordinatesFor(x, z);
 	}
 
+	private int getRecentRegionSlot(int x, int z) {
+		return (x ^ (z << 1)) & (RECENT_REGION_CACHE_SIZE - 1);
+	}
+
 	@Nullable
 	@Override
+	@SuppressWarnings("unchecked")
 	public WRC getRegion(int x, int z) {
+		int slot = getRecentRegionSlot(x, z);
+		//a single reference read, so the region's own coordinates can't get out of sync with it
+		WRC recent = (WRC) recentRegions[slot];
+		if(recent != null && recent.getX() == x && recent.getZ() == z)
+			return recent;
 		long key = getKey(x, z);
-		return regions.get(key);
+		WRC region = regions.get(key);
+		if(region != null)
+			recentRegions[slot] = region;
+		return region;
 	}
 	
 	protected void setRegion(int x, int z, WRC region) {
 		long key = getKey(x, z);
 		WRC current = regions.get(key);
+		recentRegions[getRecentRegionSlot(x, z)] = null;
 		regions.put(key, region);
 		if(current != null)
 			onRegionRemoved(current);
@@ -83,6 +101,7 @@ public abstract class DimensionClaimsManager
 
 	protected void removeRegion(int x, int z) {
 		long key = getKey(x, z);
+		recentRegions[getRecentRegionSlot(x, z)] = null;
 		onRegionRemoved(regions.remove(key));
 	}
 	
@@ -133,6 +152,23 @@ public abstract class DimensionClaimsManager
 		}
 	}
 
+	/**
+	 * Sets the same claim for every chunk of a 1024-bit chunk mask of a region.
+	 *
+	 * @param claim  the new claim state, or null to unclaim
+	 */
+	public void claimChunksInRegion(int regionX, int regionZ, long[] chunkMask, PlayerChunkClaim claim, M playerClaimInfoManager, IPlayerConfigManager configManager) {
+		WRC region = getRegion(regionX, regionZ);
+		if(region == null) {
+			if(claim == null)
+				return;
+			setRegion(regionX, regionZ, region = create(dimension, regionX, regionZ, null));
+		}
+		region.claimChunks(chunkMask, claim, playerClaimInfoManager, configManager);
+		if(region.isEmpty())
+			removeRegion(regionX, regionZ);
+	}
+
 	protected void onRegionRemoved(WRC region){
 		linkedRegions.remove(region);
 	}
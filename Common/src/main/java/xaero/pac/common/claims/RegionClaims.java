@@ -27,6 +27,7 @@ import xaero.pac.common.server.player.config.IPlayerConfigManager;
 import xaero.pac.common.util.linked.ILinkedChainNode;
 
 import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.Objects;
 
 public abstract class RegionClaims
@@ -122,6 +123,44 @@ public abstract class RegionClaims
 		return false;
 	}
 	
+	/**
+	 * Sets the same claim for every chunk of a 1024-bit chunk mask of this region, with a single pass over the
+	 * storage and a single claim info update for each affected claim state.
+	 *
+	 * @param claim  the new claim state, or null to unclaim
+	 */
+	public void claimChunks(long[] chunkMask, PlayerChunkClaim claim, M playerClaimsManager, IPlayerConfigManager configManager) {
+		Map<PlayerChunkClaim, long[]> currentClaimMasks = storage.groupChunks(chunkMask);
+		currentClaimMasks.remove(claim);
+		if(currentClaimMasks.isEmpty())
+			return;
+		long[] changedMask = new long[chunkMask.length];
+		for(Map.Entry<PlayerChunkClaim, long[]> entry : currentClaimMasks.entrySet()) {
+			long[] mask = entry.getValue();
+			for(int i = 0; i < mask.length; i++)
+				changedMask[i] |= mask[i];
+			onClaimsSet(entry.getKey(), claim, mask, playerClaimsManager, configManager);
+		}
+		setChunks(changedMask, claim, currentClaimMasks);
+	}
+
+	protected void onClaimsSet(PlayerChunkClaim currentClaim, PlayerChunkClaim newClaim, long[] chunkMask, M playerClaimsManager, IPlayerConfigManager configManager){
+		PlayerClaimInfo<?,?> currentPlayerInfo = currentClaim == null ? null : playerClaimsManager.getInfo(currentClaim.getPlayerId());
+		PlayerClaimInfo<?,?> newPlayerInfo = newClaim == null ? null : playerClaimsManager.getInfo(newClaim.getPlayerId());
+
+		if (currentPlayerInfo != null)
+			currentPlayerInfo.onUnclaimChunks(configManager, dimension, currentClaim, x, z, chunkMask);
+		if (newPlayerInfo != null)
+			newPlayerInfo.onClaimChunks(configManager, dimension, newClaim, x, z, chunkMask);
+	}
+
+	/**
+	 * @param currentClaimMasks  the chunks being changed, grouped by their current claim
+	 */
+	protected void setChunks(long[] chunkMask, PlayerChunkClaim value, Map<PlayerChunkClaim, long[]> currentClaimMasks) {
+		storage.setChunks(chunkMask, value, this);
+	}
+	
 	@Override
 	public int getX() {
 		return x;
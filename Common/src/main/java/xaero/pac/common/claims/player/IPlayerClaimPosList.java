@@ -18,8 +18,12 @@
 
 package xaero.pac.common.claims.player;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import xaero.pac.common.claims.player.api.IPlayerClaimPosListAPI;
 
+import javax.annotation.Nonnull;
+import java.util.function.LongConsumer;
+
 public interface IPlayerClaimPosList extends IPlayerClaimPosListAPI {
 	
 	//internal api
@@ -27,4 +31,10 @@ public interface IPlayerClaimPosList extends IPlayerClaimPosListAPI {
 	@Override
 	public IPlayerChunkClaim getClaimState();
 
+	//positions are packed with PlayerChunkClaim.getLongCoordinatesFor, so that nothing has to be allocated per position
+	public void forEach(@Nonnull LongConsumer action);
+
+	@Nonnull
+	public LongIterator iterator();
+
 }
@@ -19,6 +19,7 @@
 package xaero.pac.common.claims.player;
 
 import net.minecraft.resources.ResourceLocation;
+import xaero.pac.OpenPartiesAndClaims;
 import xaero.pac.common.server.player.config.IPlayerConfigManager;
 import xaero.pac.common.util.linked.ILinkedChainNode;
 
@@ -36,11 +37,16 @@ public abstract class PlayerClaimInfo
 	M extends PlayerClaimInfoManager<PCI, M>
 > implements IPlayerClaimInfo<PlayerDimensionClaims>, ILinkedChainNode<PCI> {
 
+	//cross-checks the tracked counts against the ones calculated from the dimension claims, for debugging
+	private static final boolean AUDIT_COUNTS = Boolean.getBoolean("xaero.pac.auditClaimCounts");
+
 	protected final PCI self;
 	protected final M manager;
 	private String playerUsername;
 	protected final UUID playerId;
 	protected final Map<ResourceLocation, PlayerDimensionClaims> claims;
+	private int claimCount;//in all dimensions
+	private int forceloadCount;//in all dimensions
 
 	private boolean destroyed;
 	private PCI nextInChain;
@@ -53,6 +59,10 @@ public abstract class PlayerClaimInfo
 		this.playerId = playerId;
 		this.manager = manager;
 		this.claims = claims;
+		for(PlayerDimensionClaims dimensionClaims : claims.values()) {
+			claimCount += dimensionClaims.getCount();
+			forceloadCount += dimensionClaims.getForceloadableCount();
+		}
 	}
 	
 	private PlayerDimensionClaims ensureDimension(ResourceLocation dimension) {
@@ -72,28 +82,87 @@ public abstract class PlayerClaimInfo
 	public void onClaim(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int x, int z) {
 		PlayerDimensionClaims dimensionClaims = ensureDimension(dimension);
 		dimensionClaims.addClaim(x, z, claim);
+		claimCount++;
+		if(claim.isForceloadable())
+			forceloadCount++;
 	}
 	
 	public void onUnclaim(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int x, int z) {
 		PlayerDimensionClaims dimensionClaims = ensureDimension(dimension);
 		if(!dimensionClaims.removeClaim(x, z, claim))
 			throw new IllegalStateException();
+		claimCount--;
+		if(claim.isForceloadable())
+			forceloadCount--;
 		if(dimensionClaims.getCount() <= 0)
 			removeDimension(dimension);
 	}
 	
+	/**
+	 * Same as {@link #onClaim} for every chunk of a 1024-bit chunk mask of a region, with the owner's counts
+	 * and claim position list updated once.
+	 *
+	 * @return the number of chunks that were actually added, excluding the ones that already had the claim
+	 */
+	public int onClaimChunks(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int regionX, int regionZ, long[] chunkMask) {
+		PlayerDimensionClaims dimensionClaims = ensureDimension(dimension);
+		int added = dimensionClaims.addClaims(regionX, regionZ, chunkMask, claim);
+		claimCount += added;
+		if(claim.isForceloadable())
+			forceloadCount += added;
+		if(dimensionClaims.getCount() <= 0)
+			removeDimension(dimension);
+		return added;
+	}
+
+	/**
+	 * Same as {@link #onUnclaim} for every chunk of a 1024-bit chunk mask of a region, with the owner's counts
+	 * and claim position list updated once.
+	 *
+	 * @return the number of chunks that were actually removed, excluding the ones that didn't have the claim
+	 */
+	public int onUnclaimChunks(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int regionX, int regionZ, long[] chunkMask) {
+		PlayerDimensionClaims dimensionClaims = ensureDimension(dimension);
+		int removed = dimensionClaims.removeClaims(regionX, regionZ, chunkMask, claim);
+		claimCount -= removed;
+		if(claim.isForceloadable())
+			forceloadCount -= removed;
+		if(dimensionClaims.getCount() <= 0)
+			removeDimension(dimension);
+		return removed;
+	}
+	
 	protected abstract Stream<Entry<ResourceLocation, PlayerDimensionClaims>> getDimensionClaimCountStream();
 
 	protected abstract Stream<Entry<ResourceLocation, PlayerDimensionClaims>> getDimensionForceloadCountStream();
 
+	protected int getTrackedClaimCount() {
+		return claimCount;
+	}
+
+	protected int getTrackedForceloadCount() {
+		return forceloadCount;
+	}
+
 	@Override
 	public int getClaimCount() {
-		return getDimensionClaimCountStream().mapToInt(e -> e.getValue().getCount()).sum();
+		int result = getTrackedClaimCount();
+		if(AUDIT_COUNTS)
+			auditCount("claim", result, getDimensionClaimCountStream().mapToInt(e -> e.getValue().getCount()).sum());
+		return result;
 	}
 
 	@Override
 	public int getForceloadCount() {
-		return getDimensionForceloadCountStream().mapToInt(e -> e.getValue().getForceloadableCount()).sum();
+		int result = getTrackedForceloadCount();
+		if(AUDIT_COUNTS)
+			auditCount("forceload", result, getDimensionForceloadCountStream().mapToInt(e -> e.getValue().getForceloadableCount()).sum());
+		return result;
+	}
+
+	private void auditCount(String type, int tracked, int calculated) {
+		if(tracked != calculated)
+			OpenPartiesAndClaims.LOGGER.error("Tracked {} count {} doesn't match the calculated {} for {}", type, tracked, calculated, playerId);
 	}
 
 	@Nonnull
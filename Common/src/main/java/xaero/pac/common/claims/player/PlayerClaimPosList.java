@@ -18,22 +18,33 @@
 
 package xaero.pac.common.claims.player;
 
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.world.level.ChunkPos;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class PlayerClaimPosList implements IPlayerClaimPosList {
 	
 	private final PlayerChunkClaim claimState;
-	private final LongSet positions;
+	private final Long2ObjectMap<long[]> regions;//1024-bit chunk masks for each 32x32 region
+	private int count;
 	
-	private PlayerClaimPosList(PlayerChunkClaim claimState, LongSet positions) {
+	private PlayerClaimPosList(PlayerChunkClaim claimState, Long2ObjectMap<long[]> regions) {
 		super();
 		this.claimState = claimState;
-		this.positions = positions;
+		this.regions = regions;
 	}
 	
 	@Nonnull
@@ -45,22 +56,174 @@ public final class PlayerClaimPosList implements IPlayerClaimPosList {
 	@Nonnull
 	@Override
 	public Stream<ChunkPos> getStream(){
-		return positions.longStream().mapToObj(key -> new ChunkPos(PlayerChunkClaim.getXFromLongCoordinates(key), PlayerChunkClaim.getZFromLongCoordinates(key)));
+		Spliterator.OfLong spliterator = Spliterators.spliterator(iterator(), count, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SIZED);
+		return StreamSupport.longStream(spliterator, false).mapToObj(key -> new ChunkPos(PlayerChunkClaim.getXFromLongCoordinates(key), PlayerChunkClaim.getZFromLongCoordinates(key)));
+	}
+
+	@Override
+	public void forEach(@Nonnull LongConsumer action) {
+		for(Long2ObjectMap.Entry<long[]> entry : Long2ObjectMaps.fastIterable(regions)) {
+			long regionKey = entry.getLongKey();
+			int chunkXOffset = PlayerChunkClaim.getXFromLongCoordinates(regionKey) << 5;
+			int chunkZOffset = PlayerChunkClaim.getZFromLongCoordinates(regionKey) << 5;
+			long[] mask = entry.getValue();
+			for(int i = 0; i < mask.length; i++) {
+				long bits = mask[i];
+				while(bits != 0) {
+					int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					action.accept(PlayerChunkClaim.getLongCoordinatesFor(chunkXOffset | (index >> 5), chunkZOffset | (index & 31)));
+				}
+			}
+		}
+	}
+
+	@Nonnull
+	@Override
+	public LongIterator iterator() {
+		return new PositionIterator(Long2ObjectMaps.fastIterator(regions));
 	}
 
 	@Override
 	public int getCount() {
-		return positions.size();
+		return count;
 	}
 	
 	public boolean remove(int x, int z) {
-		long key = PlayerChunkClaim.getLongCoordinatesFor(x, z);
-		return positions.remove(key);
+		long regionKey = PlayerChunkClaim.getLongCoordinatesFor(x >> 5, z >> 5);
+		long[] mask = regions.get(regionKey);
+		if(mask == null)
+			return false;
+		int index = ((x & 31) << 5) | (z & 31);
+		long bit = 1L << (index & 63);
+		if((mask[index >> 6] & bit) == 0)
+			return false;
+		mask[index >> 6] &= ~bit;
+		count--;
+		if(isEmpty(mask))
+			regions.remove(regionKey);
+		return true;
 	}
 	
 	public void add(int x, int z) {
-		long key = PlayerChunkClaim.getLongCoordinatesFor(x, z);
-		positions.add(key);
+		long regionKey = PlayerChunkClaim.getLongCoordinatesFor(x >> 5, z >> 5);
+		long[] mask = regions.get(regionKey);
+		if(mask == null)
+			regions.put(regionKey, mask = new long[16]);
+		int index = ((x & 31) << 5) | (z & 31);
+		long bit = 1L << (index & 63);
+		if((mask[index >> 6] & bit) == 0) {
+			mask[index >> 6] |= bit;
+			count++;
+		}
+	}
+
+	/**
+	 * Adds every chunk of a 1024-bit chunk mask of a region.
+	 *
+	 * @return the number of chunks that weren't in the list yet
+	 */
+	public int addAll(int regionX, int regionZ, long[] chunkMask) {
+		long regionKey = PlayerChunkClaim.getLongCoordinatesFor(regionX, regionZ);
+		long[] mask = regions.get(regionKey);
+		if(mask == null)
+			regions.put(regionKey, mask = new long[16]);
+		int added = 0;
+		for(int i = 0; i < mask.length; i++) {
+			long newBits = chunkMask[i] & ~mask[i];
+			mask[i] |= newBits;
+			added += Long.bitCount(newBits);
+		}
+		count += added;
+		if(added == 0 && isEmpty(mask))
+			regions.remove(regionKey);
+		return added;
+	}
+
+	/**
+	 * Removes every chunk of a 1024-bit chunk mask of a region.
+	 *
+	 * @return the number of chunks that were actually in the list
+	 */
+	public int removeAll(int regionX, int regionZ, long[] chunkMask) {
+		long regionKey = PlayerChunkClaim.getLongCoordinatesFor(regionX, regionZ);
+		long[] mask = regions.get(regionKey);
+		if(mask == null)
+			return 0;
+		int removed = 0;
+		for(int i = 0; i < mask.length; i++) {
+			long removedBits = chunkMask[i] & mask[i];
+			mask[i] &= ~removedBits;
+			removed += Long.bitCount(removedBits);
+		}
+		count -= removed;
+		if(isEmpty(mask))
+			regions.remove(regionKey);
+		return removed;
+	}
+
+	public LongSet getRegionKeys() {
+		return regions.keySet();
+	}
+
+	@Nullable
+	public long[] getRegionMask(long regionKey) {//must not be modified
+		return regions.get(regionKey);
+	}
+
+	private static boolean isEmpty(long[] mask) {
+		for(long l : mask)
+			if(l != 0)
+				return false;
+		return true;
+	}
+
+	private static final class PositionIterator implements LongIterator {
+
+		private final ObjectIterator<Long2ObjectMap.Entry<long[]>> regionIterator;
+		private long[] mask;
+		private int chunkXOffset;
+		private int chunkZOffset;
+		private int wordIndex;
+		private long bits;
+
+		private PositionIterator(ObjectIterator<Long2ObjectMap.Entry<long[]>> regionIterator) {
+			this.regionIterator = regionIterator;
+		}
+
+		private boolean advance() {
+			while(bits == 0) {
+				if(mask != null && wordIndex < mask.length - 1) {
+					bits = mask[++wordIndex];
+					continue;
+				}
+				if(!regionIterator.hasNext())
+					return false;
+				Long2ObjectMap.Entry<long[]> entry = regionIterator.next();
+				long regionKey = entry.getLongKey();
+				chunkXOffset = PlayerChunkClaim.getXFromLongCoordinates(regionKey) << 5;
+				chunkZOffset = PlayerChunkClaim.getZFromLongCoordinates(regionKey) << 5;
+				mask = entry.getValue();
+				wordIndex = 0;
+				bits = mask[0];
+			}
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return advance();
+		}
+
+		@Override
+		public long nextLong() {
+			if(!advance())
+				throw new NoSuchElementException();
+			int index = (wordIndex << 6) | Long.numberOfTrailingZeros(bits);
+			bits &= bits - 1;
+			return PlayerChunkClaim.getLongCoordinatesFor(chunkXOffset | (index >> 5), chunkZOffset | (index & 31));
+		}
+
 	}
 	
 	public static final class Builder {
@@ -82,7 +245,7 @@ public final class PlayerClaimPosList implements IPlayerClaimPosList {
 		public PlayerClaimPosList build() {
 			if (claim == null)
 				throw new IllegalStateException();
-			return new PlayerClaimPosList(claim, new LongOpenHashSet());
+			return new PlayerClaimPosList(claim, new Long2ObjectOpenHashMap<>());
 		}
 
 		public static Builder begin() {
@@ -107,6 +107,36 @@ public class PlayerDimensionClaims implements IPlayerDimensionClaims<PlayerClaim
 			forceloadableCount++;
 	}
 	
+	/**
+	 * @return the number of chunks that were actually removed
+	 */
+	public int removeClaims(int regionX, int regionZ, long[] chunkMask, PlayerChunkClaim claim) {
+		PlayerClaimPosList list = claimLists.get(claim);
+		if(list == null)
+			return 0;
+		int removed = list.removeAll(regionX, regionZ, chunkMask);
+		count -= removed;
+		if(claim.isForceloadable())
+			forceloadableCount -= removed;
+		if(list.getCount() <= 0)
+			removeList(list);
+		return removed;
+	}
+
+	/**
+	 * @return the number of chunks that were actually added
+	 */
+	public int addClaims(int regionX, int regionZ, long[] chunkMask, PlayerChunkClaim claim) {
+		PlayerClaimPosList dest = getOrCreateList(claim);
+		int added = dest.addAll(regionX, regionZ, chunkMask);
+		count += added;
+		if(claim.isForceloadable())
+			forceloadableCount += added;
+		if(dest.getCount() <= 0)
+			removeList(dest);
+		return added;
+	}
+	
 	public ResourceLocation getDimension() {
 		return dimension;
 	}
@@ -18,146 +18,284 @@
 
 package xaero.pac.common.claims.storage;
 
-import it.unimi.dsi.fastutil.ints.IntList;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import net.minecraft.util.BitStorage;
 import net.minecraft.util.Mth;
 import net.minecraft.util.SimpleBitStorage;
-import xaero.pac.common.claims.PlayerChunkClaimHolder;
 import xaero.pac.common.claims.RegionClaims;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 public class RegionClaimsPaletteStorage {
-	
-	protected final Object2IntMap<PlayerChunkClaim> paletteHelper;
-	private final IntList paletteInts;
-	protected final ArrayList<PlayerChunkClaimHolder> palette;
+
+	//claim states are interned by the claims manager, so palette entries are compared by identity
+	protected PlayerChunkClaim[] palette;
+	protected short[] paletteCounts;//how many chunks use each palette entry
+	protected int paletteSize;
 	protected BitStorage storage;
 	private boolean constantBits;
 	private boolean needsHolderRecalculation;
 	
-	public RegionClaimsPaletteStorage(Object2IntMap<PlayerChunkClaim> paletteHelper, IntList paletteInts,
-									  ArrayList<PlayerChunkClaimHolder> palette, BitStorage storage, boolean constantBits) {
+	public RegionClaimsPaletteStorage(PlayerChunkClaim[] palette, BitStorage storage, boolean constantBits) {
 		super();
-		if(storage.getSize() != 1024 || constantBits && storage.getBits() != 11 || palette.isEmpty() || palette.get(0) != null)
+		if(storage.getSize() != 1024 || constantBits && storage.getBits() != 11 || palette.length == 0 || palette[0] != null)
 			throw new IllegalArgumentException();
-		this.paletteHelper = paletteHelper;
-		this.paletteInts = paletteInts;
 		this.palette = palette;
+		this.paletteCounts = new short[palette.length];
+		this.paletteSize = palette.length;
 		this.storage = storage;
 		this.constantBits = constantBits;
 	}
 	
-	private PlayerChunkClaimHolder getHolder(int x, int z) {
-		return palette.get(storage.get(getIndex(x, z)));
-	}
-	
 	public PlayerChunkClaim get(int x, int z) {
-		PlayerChunkClaimHolder claimHolder = getHolder(x, z);
-		return claimHolder == null ? null : claimHolder.getClaim();
+		return palette[storage.get(getIndex(x, z))];
+	}
+
+	private int getPaletteIndex(PlayerChunkClaim value) {
+		for(int i = 1; i < paletteSize; i++)
+			if(palette[i] == value)
+				return i;
+		return 0;
+	}
+
+	private int addPaletteElement(PlayerChunkClaim value, RegionClaims<?,?> region) {
+		int newPaletteIndex = paletteSize;
+		for(int i = 1; i < paletteSize; i++){
+			if(palette[i] == null && paletteCounts[i] == 0) {
+				newPaletteIndex = i;
+				break;
+			}
+		}
+		if(newPaletteIndex == paletteSize) {
+			if(paletteSize == palette.length) {
+				int newCapacity = paletteSize + Math.max(2, paletteSize >> 1);
+				palette = Arrays.copyOf(palette, newCapacity);
+				paletteCounts = Arrays.copyOf(paletteCounts, newCapacity);
+			}
+			paletteSize++;
+		}
+		palette[newPaletteIndex] = value;
+		region.onAddedToPalette(this, value);
+		return newPaletteIndex;
 	}
 
 	public void set(int x, int z, PlayerChunkClaim value, RegionClaims<?,?> region) {
 		if(needsHolderRecalculation)
 			recalculateHolders();
-		PlayerChunkClaimHolder currentHolder = getHolder(x, z);
-		PlayerChunkClaimHolder newHolder;
+		int index = getIndex(x, z);
+		int currentPaletteIndex = storage.get(index);
 		int newPaletteIndex;
-		if(value == null) {
-			newHolder = null;
+		if(value == null)
 			newPaletteIndex = 0;
-		} else {
-			newPaletteIndex = paletteHelper.getInt(value);
-			if(newPaletteIndex == 0) {
-				newPaletteIndex = palette.size();
-				boolean add = true;
-				for(int i = 1; i < palette.size(); i++){
-					if(palette.get(i) == null) {
-						newPaletteIndex = i;
-						add = false;
-						break;
-					}
-				}
-				paletteHelper.put(value, newPaletteIndex);
-				newHolder = new PlayerChunkClaimHolder(value);
-				if(add)
-					palette.add(newHolder);
-				else
-					palette.set(newPaletteIndex, newHolder);
-				region.onAddedToPalette(this, value);
-				if(paletteInts != null) {
-					if(add)
-						paletteInts.add(value.getSyncIndex());
-					else
-						paletteInts.set(newPaletteIndex - 1, value.getSyncIndex());
-				}
-			} else
-				newHolder = palette.get(newPaletteIndex);
+		else {
+			newPaletteIndex = getPaletteIndex(value);
+			if(newPaletteIndex == 0)
+				newPaletteIndex = addPaletteElement(value, region);
 		}
-		if(newHolder != currentHolder) {
-			int index = getIndex(x, z);
-			if(currentHolder != null) {
-				currentHolder.decrement();
-				if(currentHolder.getCount() == 0) {
-					int currentPaletteIndex = storage.get(index);
+		if(newPaletteIndex != currentPaletteIndex) {
+			if(currentPaletteIndex != 0) {
+				paletteCounts[currentPaletteIndex]--;
+				if(paletteCounts[currentPaletteIndex] == 0)
 					removePaletteElement(currentPaletteIndex, region);
-				}
 			}
-			if(newHolder != null)
-				newHolder.increment();
+			if(newPaletteIndex != 0)
+				paletteCounts[newPaletteIndex]++;
 			
 			ensureSyncableStorageBits();
 			storage.set(index, newPaletteIndex);
 		}
 	}
 
-	private void recalculateHolders() {
-		for(int i = 0; i < storage.getSize(); i++) {
-			int storageValue = storage.get(i);
-			if(storageValue > 0)
-				palette.get(storageValue).increment();
+	/**
+	 * Sets the same value for every chunk of a 1024-bit chunk mask in a single pass over the storage.
+	 * The palette index of the value is resolved once and the palette elements that are no longer used are
+	 * removed after all writes.
+	 */
+	public void setChunks(long[] chunkMask, PlayerChunkClaim value, RegionClaims<?,?> region) {
+		if(needsHolderRecalculation)
+			recalculateHolders();
+		int newPaletteIndex = 0;
+		if(value != null) {
+			newPaletteIndex = getPaletteIndex(value);
+			if(newPaletteIndex == 0)
+				newPaletteIndex = addPaletteElement(value, region);
 		}
+		ensureSyncableStorageBits();
+		BitStorage bitStorage = storage;
+		boolean[] emptiedPaletteIndices = null;
+		for(int i = 0; i < chunkMask.length; i++)
+			for(long bits = chunkMask[i]; bits != 0; bits &= bits - 1) {
+				int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+				int currentPaletteIndex = bitStorage.get(index);
+				if(currentPaletteIndex == newPaletteIndex)
+					continue;
+				if(currentPaletteIndex != 0 && --paletteCounts[currentPaletteIndex] == 0) {
+					if(emptiedPaletteIndices == null)
+						emptiedPaletteIndices = new boolean[paletteSize];
+					emptiedPaletteIndices[currentPaletteIndex] = true;
+				}
+				if(newPaletteIndex != 0)
+					paletteCounts[newPaletteIndex]++;
+				bitStorage.set(index, newPaletteIndex);
+			}
+		if(newPaletteIndex != 0 && paletteCounts[newPaletteIndex] == 0)//nothing changed
+			removePaletteElement(newPaletteIndex, region);
+		if(emptiedPaletteIndices != null) {
+			for(int i = emptiedPaletteIndices.length - 1; i > 0; i--)
+				if(emptiedPaletteIndices[i])
+					removePaletteElement(i, region);
+			ensureSyncableStorageBits();
+		}
+	}
+
+	/**
+	 * Splits a 1024-bit chunk mask by the current values of the chunks.
+	 *
+	 * @return a 1024-bit chunk mask for each current value, including null for unclaimed chunks
+	 */
+	public Map<PlayerChunkClaim, long[]> groupChunks(long[] chunkMask) {
+		long[][] paletteIndexMasks = new long[paletteSize][];
+		for(int i = 0; i < chunkMask.length; i++)
+			for(long bits = chunkMask[i]; bits != 0; bits &= bits - 1) {
+				int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+				int paletteIndex = storage.get(index);
+				long[] mask = paletteIndexMasks[paletteIndex];
+				if(mask == null)
+					mask = paletteIndexMasks[paletteIndex] = new long[chunkMask.length];
+				mask[i] |= 1L << (index & 63);
+			}
+		Map<PlayerChunkClaim, long[]> result = new LinkedHashMap<>();
+		for(int paletteIndex = 0; paletteIndex < paletteIndexMasks.length; paletteIndex++)
+			if(paletteIndexMasks[paletteIndex] != null)
+				result.put(palette[paletteIndex], paletteIndexMasks[paletteIndex]);
+		return result;
+	}
+
+	private void recalculateHolders() {
+		Arrays.fill(paletteCounts, (short) 0);
+		countPaletteIndices(paletteCounts);
 		needsHolderRecalculation = false;
 	}
 
+	//SimpleBitStorage packs 64 / bits values into each long, starting at the lowest bits, and no value spans two longs
+
+	/**
+	 * Adds the number of chunks using each non-zero palette index to the corresponding element of the array.
+	 */
+	public void countPaletteIndices(short[] dest) {
+		long[] data = storage.getRaw();
+		int bits = storage.getBits();
+		if(bits == 1) {
+			int count = 0;
+			for(long word : data)
+				count += Long.bitCount(word);
+			if(count != 0)
+				dest[1] += count;
+			return;
+		}
+		int valuesPerWord = 64 / bits;
+		long valueMask = (1L << bits) - 1;
+		int size = storage.getSize();
+		for(int wordIndex = 0; wordIndex < data.length; wordIndex++) {
+			long word = data[wordIndex];
+			if(word == 0)
+				continue;
+			int end = Math.min(valuesPerWord, size - wordIndex * valuesPerWord);
+			for(int v = 0; v < end; v++) {
+				int value = (int) (word >>> (v * bits) & valueMask);
+				if(value != 0)
+					dest[value]++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the next chunk index, starting at {@code fromIndex}, that uses one of the matching palette indices.
+	 *
+	 * @param fromIndex  the first chunk index to check
+	 * @param paletteIndexMatches  whether each palette index matches, or null to match any non-empty chunk
+	 * @return the chunk index, -1 if there is none
+	 */
+	public int findNext(int fromIndex, boolean[] paletteIndexMatches) {
+		long[] data = storage.getRaw();
+		int bits = storage.getBits();
+		int valuesPerWord = 64 / bits;
+		long valueMask = (1L << bits) - 1;
+		int size = storage.getSize();
+		boolean zeroMatches = paletteIndexMatches != null && paletteIndexMatches.length > 0 && paletteIndexMatches[0];
+		for(int wordIndex = Math.max(fromIndex, 0) / valuesPerWord; wordIndex < data.length; wordIndex++) {
+			long word = data[wordIndex];
+			if(word == 0 && !zeroMatches)
+				continue;
+			int firstIndex = wordIndex * valuesPerWord;
+			int end = Math.min(valuesPerWord, size - firstIndex);
+			for(int v = Math.max(fromIndex - firstIndex, 0); v < end; v++) {
+				int value = (int) (word >>> (v * bits) & valueMask);
+				if(paletteIndexMatches == null ? value != 0 : value < paletteIndexMatches.length && paletteIndexMatches[value])
+					return firstIndex + v;
+			}
+		}
+		return -1;
+	}
+
+	public int findNextNonEmpty(int fromIndex) {
+		return findNext(fromIndex, null);
+	}
+
 	private void ensureSyncableStorageBits() {
 		if(constantBits)
 			return;
-		int neededBits = Mth.ceillog2(palette.size());
+		int neededBits = Mth.ceillog2(paletteSize);
 		if(neededBits <= 1)
 			neededBits = 1;
 		else if(neededBits < 11)
 			neededBits = (neededBits + 1) / 2 * 2;//always a multiple of 2 except 1 and 11
-		if(storage.getBits() < neededBits || storage.getBits() >= 6 && storage.getBits() / neededBits >= 2 /*used bits are at least 2 times too much*/) {
-			BitStorage newStorage = new SimpleBitStorage(neededBits, 1024);
-			int allowedValueLimit = 1 << neededBits;
-			BitStorage oldStorage = this.storage;
-			for (int i = 0; i < 1024; i++) {
-				int oldValue = oldStorage.get(i);
-				if(oldValue < allowedValueLimit)
-					newStorage.set(i, oldValue);
+		if(storage.getBits() < neededBits || storage.getBits() >= 6 && storage.getBits() / neededBits >= 2 /*used bits are at least 2 times too much*/)
+			storage = new SimpleBitStorage(neededBits, 1024, remapWords(storage, neededBits));
+	}
+
+	private static long[] remapWords(BitStorage oldStorage, int newBits) {
+		long[] oldData = oldStorage.getRaw();
+		int oldBits = oldStorage.getBits();
+		int oldValuesPerWord = 64 / oldBits;
+		long oldValueMask = (1L << oldBits) - 1;
+		int newValuesPerWord = 64 / newBits;
+		int allowedValueLimit = 1 << newBits;
+		int size = oldStorage.getSize();
+		long[] result = new long[(size + newValuesPerWord - 1) / newValuesPerWord];
+		int targetWord = 0;
+		int targetSlot = 0;
+		for(int i = 0, wordIndex = 0; wordIndex < oldData.length && i < size; wordIndex++) {
+			long word = oldData[wordIndex];
+			for(int v = 0; v < oldValuesPerWord && i < size; v++, i++) {
+				if(word != 0) {
+					int value = (int) (word >>> (v * oldBits) & oldValueMask);
+					if(value != 0 && value < allowedValueLimit)
+						result[targetWord] |= (long) value << (targetSlot * newBits);
+				}
+				if(++targetSlot == newValuesPerWord) {
+					targetSlot = 0;
+					targetWord++;
+				}
 			}
-			storage = newStorage;
 		}
+		return result;
 	}
 	
 	private void removePaletteElement(int paletteIndex, RegionClaims<?,?> region) {
 		if(paletteIndex == 0)
 			return;
 
-		PlayerChunkClaim removedState = palette.set(paletteIndex, null).getClaim();
-		paletteHelper.removeInt(removedState);
-		region.onRemovedFromPalette(this, removedState);
-		if(paletteInts != null)
-			paletteInts.set(paletteIndex - 1, -1);
-		if(paletteIndex == palette.size() - 1){
-			while(palette.size() > 1 && palette.get(palette.size() - 1) == null) {
-				palette.remove(palette.size() - 1);
-				if(paletteInts != null)
-					paletteInts.removeInt(paletteInts.size() - 1);
-			}
+		PlayerChunkClaim removedState = palette[paletteIndex];
+		palette[paletteIndex] = null;
+		if(removedState != null)//can be an unknown state on the client side
+			region.onRemovedFromPalette(this, removedState);
+		if(paletteIndex == paletteSize - 1){
+			while(paletteSize > 1 && palette[paletteSize - 1] == null && paletteCounts[paletteSize - 1] == 0)
+				paletteSize--;
 		}
 	}
 	
@@ -166,7 +304,10 @@ public class RegionClaimsPaletteStorage {
 	}
 	
 	public int[] getPaletteArray(){
-		return paletteInts == null ? null : paletteInts.toIntArray();
+		int[] result = new int[paletteSize - 1];
+		for(int i = 1; i < paletteSize; i++)
+			result[i - 1] = palette[i] == null ? -1 : palette[i].getSyncIndex();
+		return result;
 	}
 	
 	public int getStorageBits() {
@@ -178,11 +319,27 @@ public class RegionClaimsPaletteStorage {
 	}
 	
 	public boolean isEmpty() {
-		return palette.size() <= 1;
+		return paletteSize <= 1;
+	}
+
+	public RegionClaimsSnapshot createSnapshot() {
+		return new RegionClaimsSnapshot(Arrays.copyOf(palette, paletteSize), storage.copy());
 	}
 
 	public boolean containsState(PlayerChunkClaim state) {
-		return paletteHelper.containsKey(state);
+		return getPaletteIndex(state) != 0;
+	}
+
+	public boolean containsStateOwner(UUID ownerId) {
+		for(int i = 1; i < paletteSize; i++)
+			if(palette[i] != null && palette[i].getPlayerId().equals(ownerId))
+				return true;
+		return false;
+	}
+
+	public long getEstimatedMemoryUsage() {
+		//rough object layout estimate: headers, references and array contents
+		return 40 + (16 + 4L * palette.length) + (16 + 2L * paletteCounts.length) + (32 + 16 + 8L * storage.getRaw().length);
 	}
 
 	public void setNeedsHolderRecalculation(boolean needsHolderRecalculation) {
@@ -0,0 +1,49 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.claims.storage;
+
+import net.minecraft.util.BitStorage;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+import java.util.function.Consumer;
+
+/**
+ * An immutable copy of the claim states of a region, safe to read from any thread.
+ */
+public final class RegionClaimsSnapshot {
+
+	private final PlayerChunkClaim[] palette;
+	private final BitStorage storage;
+
+	RegionClaimsSnapshot(PlayerChunkClaim[] palette, BitStorage storage) {
+		this.palette = palette;
+		this.storage = storage;
+	}
+
+	public PlayerChunkClaim get(int x, int z) {
+		return palette[storage.get(RegionClaimsPaletteStorage.getIndex(x, z))];
+	}
+
+	public void forEachState(Consumer<PlayerChunkClaim> consumer) {
+		for(int i = 1; i < palette.length; i++)
+			if(palette[i] != null)
+				consumer.accept(palette[i]);
+	}
+
+}
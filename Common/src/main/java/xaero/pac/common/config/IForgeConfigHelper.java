@@ -25,5 +25,6 @@ public interface IForgeConfigHelper {
 	public void registerServerConfig(ForgeConfigSpec spec);
 	public void registerClientConfig(ForgeConfigSpec spec);
 	public void registerCommonConfig(ForgeConfigSpec spec);
+	public void addReloadListener(ForgeConfigSpec spec, Runnable listener);
 
 }
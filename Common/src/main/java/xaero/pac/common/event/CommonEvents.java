@@ -496,6 +496,17 @@ public abstract class CommonEvents {
 		return serverData.getChunkProtection().onMobSpawn(serverData, entity, x, y, z, spawnReason);
 	}
 
+	public void onServerConfigReload(){
+		//called on the config file watcher thread
+		MinecraftServer server = lastServerStarted;
+		if(server == null)
+			return;
+		IServerData<IServerClaimsManager<IPlayerChunkClaim, IServerPlayerClaimInfo<IPlayerDimensionClaims<IPlayerClaimPosList>>, IServerDimensionClaimsManager<IServerRegionClaims>>, IServerParty<IPartyMember, IPartyPlayerInfo, IPartyAlly>>
+				serverData = ServerData.from(server);
+		if(serverData != null)
+			serverData.getPlayerConfigs().onServerConfigReload();
+	}
+
 	public void onServerDataReload(ResourceManager resourceManager){
 		//TODO should properly get the server instance that data is reloaded for
 		if(lastServerStarted != null && lastServerStarted.isSameThread()){
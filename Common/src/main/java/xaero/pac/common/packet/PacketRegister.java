@@ -119,6 +119,8 @@ public class PacketRegister {
 
 		packetHandler.register(36, ClientboundClaimsClaimUpdateNextZPosPacket.class, ClientboundClaimsClaimUpdateNextZPosPacket.ENCODER, ClientboundClaimsClaimUpdateNextZPosPacket.DECODER, null, new ClientboundClaimsClaimUpdateNextZPosPacket.ClientHandler());
 
+		packetHandler.register(37, ClientboundClaimsRegionUpdatePacket.class, ClientboundClaimsRegionUpdatePacket.ENCODER, ClientboundClaimsRegionUpdatePacket.DECODER, null, new ClientboundClaimsRegionUpdatePacket.ClientHandler());
+
 	}
 
 }
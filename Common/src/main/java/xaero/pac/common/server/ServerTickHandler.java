@@ -52,6 +52,7 @@ public final class ServerTickHandler {
 	public void onTick(IServerData<IServerClaimsManager<IPlayerChunkClaim, IServerPlayerClaimInfo<IPlayerDimensionClaims<IPlayerClaimPosList>>, IServerDimensionClaimsManager<IServerRegionClaims>>, IServerParty<IPartyMember, IPartyPlayerInfo, IPartyAlly>> serverData) throws Throwable {
 		serverData.getIoThreadWorker().checkCrashes();
 		serverData.getChunkProtection().onServerTick();
+		serverData.getPlayerPartySystemManager().onServerTick();
 		serverData.getPartyManagerIO().onServerTick();
 		serverData.getPlayerConfigsIO().onServerTick();
 
@@ -66,6 +67,7 @@ public final class ServerTickHandler {
 
 		serverData.getPartyManager().getPartySynchronizer().onServerTick();
 		serverData.getServerClaimsManager().getClaimsManagerSynchronizer().onServerTick();
+		serverData.getServerClaimsManager().onServerTick();//publishing the claims snapshot after the tick's changes
 		
 		long time = System.currentTimeMillis();
 		if(time - lastUseTimeUpdate > 600000/*10 minutes*/) {
@@ -18,6 +18,7 @@
 
 package xaero.pac.common.server.claims;
 
+import net.minecraft.world.level.Level;
 import xaero.pac.common.claims.IClaimsManager;
 import xaero.pac.common.claims.player.IPlayerChunkClaim;
 import xaero.pac.common.server.claims.api.IServerClaimsManagerAPI;
@@ -26,6 +27,8 @@ import xaero.pac.common.server.claims.player.task.PlayerClaimReplaceSpreadoutTas
 import xaero.pac.common.server.claims.sync.IClaimsManagerSynchronizer;
 import xaero.pac.common.server.task.ServerSpreadoutQueuedTaskHandler;
 
+import javax.annotation.Nonnull;
+
 public interface IServerClaimsManager
 <
 	C extends IPlayerChunkClaim, 
@@ -37,5 +40,8 @@ public interface IServerClaimsManager
 	public IClaimsManagerSynchronizer getClaimsManagerSynchronizer();
 	public ServerSpreadoutQueuedTaskHandler<PlayerClaimReplaceSpreadoutTask> getClaimReplaceTaskHandler();
 	public ServerClaimsPermissionHandler getPermissionHandler();
+	@Nonnull
+	public IServerDimensionClaimsLookup<C> getDimensionLookup(@Nonnull Level level);
+	public void onServerTick();
 
 }
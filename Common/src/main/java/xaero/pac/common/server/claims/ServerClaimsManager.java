@@ -20,11 +20,15 @@ package xaero.pac.common.server.claims;
 
 import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
 import xaero.pac.common.claims.ClaimsManager;
+import xaero.pac.common.claims.RegionClaims;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.claims.result.api.AreaClaimResult;
 import xaero.pac.common.claims.result.api.ClaimResult;
@@ -42,6 +46,7 @@ import xaero.pac.common.server.player.config.PlayerConfig;
 import xaero.pac.common.server.player.config.api.PlayerConfigOptions;
 import xaero.pac.common.server.player.permission.api.UsedPermissionNodes;
 import xaero.pac.common.server.task.ServerSpreadoutQueuedTaskHandler;
+import xaero.pac.common.server.world.IOpenPACServerLevel;
 import xaero.pac.common.util.linked.LinkedChain;
 
 import javax.annotation.Nonnull;
@@ -55,17 +60,22 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 	private final ServerSpreadoutQueuedTaskHandler<PlayerClaimReplaceSpreadoutTask> claimReplaceTaskHandler;
 	private final ServerClaimsPermissionHandler permissionHandler;
 	private final LinkedChain<ServerClaimStateHolder> linkedClaimStates;
+	private final Map<ResourceLocation, ServerDimensionClaimsLookup> dimensionLookups;
+	private final ServerClaimsSnapshotPublisher snapshotPublisher;
+	private Set<PlayerChunkClaim> pendingStateRemovals;//only during an area claim action
 	private boolean loaded;
 	
 	protected ServerClaimsManager(MinecraftServer server, ServerPlayerClaimInfoManager playerClaimInfoManager,
 								  IPlayerConfigManager configManager, Map<ResourceLocation, ServerDimensionClaimsManager> dimensions,
 								  ClaimsManagerSynchronizer claimsManagerSynchronizer, Int2ObjectMap<PlayerChunkClaim> indexToClaimState,
-								  Map<PlayerChunkClaim, ServerClaimStateHolder> claimStates, ClaimsManagerTracker claimsManagerTracker, ServerSpreadoutQueuedTaskHandler<PlayerClaimReplaceSpreadoutTask> claimReplaceTaskHandler, ServerClaimsPermissionHandler permissionHandler, LinkedChain<ServerClaimStateHolder> linkedClaimStates) {
+								  Map<PlayerChunkClaim, ServerClaimStateHolder> claimStates, ClaimsManagerTracker claimsManagerTracker, ServerSpreadoutQueuedTaskHandler<PlayerClaimReplaceSpreadoutTask> claimReplaceTaskHandler, ServerClaimsPermissionHandler permissionHandler, LinkedChain<ServerClaimStateHolder> linkedClaimStates, Map<ResourceLocation, ServerDimensionClaimsLookup> dimensionLookups, ServerClaimsSnapshotPublisher snapshotPublisher) {
 		super(playerClaimInfoManager, configManager, dimensions, indexToClaimState, claimStates, claimsManagerTracker);
 		this.claimsManagerSynchronizer = claimsManagerSynchronizer;
 		this.claimReplaceTaskHandler = claimReplaceTaskHandler;
 		this.permissionHandler = permissionHandler;
 		this.linkedClaimStates = linkedClaimStates;
+		this.dimensionLookups = dimensionLookups;
+		this.snapshotPublisher = snapshotPublisher;
 	}
 	
 	public void setIo(PlayerClaimInfoManagerIO<?> io) {
@@ -84,7 +94,35 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 	protected ServerDimensionClaimsManager create(ResourceLocation dimension,
 												  Long2ObjectMap<ServerRegionClaims> claims) {
 		boolean playerClaimsSyncAllowed = ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get() || isClaimable(dimension);
-		return new ServerDimensionClaimsManager(dimension, claims, new LinkedChain<>(), this, playerClaimsSyncAllowed);
+		ServerDimensionClaimsManager result = new ServerDimensionClaimsManager(dimension, claims, new LinkedChain<>(), this, playerClaimsSyncAllowed, new ServerDimensionRegionIndex());
+		ServerDimensionClaimsLookup lookup = dimensionLookups.get(dimension);
+		if(lookup != null)
+			lookup.setDimensionClaims(result);
+		return result;
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		dimensionLookups.values().forEach(lookup -> lookup.setDimensionClaims(null));
+	}
+
+	@Nonnull
+	@Override
+	public ServerDimensionClaimsLookup getDimensionLookup(@Nonnull Level level) {
+		if(level instanceof IOpenPACServerLevel serverLevel) {
+			ServerDimensionClaimsLookup cached = serverLevel.getXaero_OPAC_claimsLookup();
+			if(cached != null && cached.getManager() == this)
+				return cached;
+			ServerDimensionClaimsLookup result = ensureDimensionLookup(level.dimension().location());
+			serverLevel.setXaero_OPAC_claimsLookup(result);
+			return result;
+		}
+		return ensureDimensionLookup(level.dimension().location());
+	}
+
+	private ServerDimensionClaimsLookup ensureDimensionLookup(ResourceLocation dimension) {
+		return dimensionLookups.computeIfAbsent(dimension, d -> new ServerDimensionClaimsLookup(this, d, getDimension(d)));
 	}
 
 	@Override
@@ -95,11 +133,26 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 	public long countStateRegions(PlayerChunkClaim state, int direction) {
 		ServerClaimStateHolder stateHolder = claimStateHolders.get(state);
 		stateHolder.countRegions(direction);
-		if (stateHolder.getRegionCount() <= 0)
-			removeClaimState(state);
+		if (stateHolder.getRegionCount() <= 0) {
+			if(pendingStateRemovals != null)
+				pendingStateRemovals.add(state);//can still be reused by a later region of the same area action
+			else
+				removeClaimState(state);
+		}
 		return stateHolder.getRegionCount();
 	}
 
+	private void removePendingClaimStates() {
+		Set<PlayerChunkClaim> states = pendingStateRemovals;
+		pendingStateRemovals = null;
+		for(PlayerChunkClaim state : states) {
+			ServerClaimStateHolder stateHolder = claimStateHolders.get(state);
+			//only the states that are still unused at the end of the action
+			if(stateHolder != null && stateHolder.getState() == state && stateHolder.getRegionCount() <= 0)
+				removeClaimState(state);
+		}
+	}
+
 	private boolean withinDistance(int fromX, int fromZ, int x, int z) {
 		int maxClaimDistance = ServerConfig.CONFIG.maxClaimDistance.get();
 		return Math.abs(x - fromX) <= maxClaimDistance && Math.abs(z - fromZ) <= maxClaimDistance;
@@ -143,6 +196,19 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 			claimsManagerTracker.onChunkChange(dimension, x, z, null);
 	}
 
+	@Override
+	public void claimChunksInRegion(@Nonnull ResourceLocation dimension, int regionX, int regionZ, long[] chunkMask, PlayerChunkClaim claim) {
+		if(!ServerConfig.CONFIG.claimsEnabled.get())
+			return;
+		super.claimChunksInRegion(dimension, regionX, regionZ, chunkMask, claim);
+		if(loaded)
+			for(int i = 0; i < chunkMask.length; i++)
+				for(long bits = chunkMask[i]; bits != 0; bits &= bits - 1) {
+					int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+					claimsManagerTracker.onChunkChange(dimension, (regionX << 5) | (index >> 5), (regionZ << 5) | (index & 31), claim);
+				}
+	}
+
 	private ClaimResult<PlayerChunkClaim> tryToClaimHelper(ResourceLocation dimension, UUID playerId, int subConfigIndex, int fromX, int fromZ, int x, int z, boolean forceLoaded, boolean replace, boolean isServer) {
 		PlayerChunkClaim currentClaim = get(dimension, x, z);
 		boolean claimCountUnaffected = false;
@@ -284,34 +350,98 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 		int toAffect = total;
 		if(total > MAX_REQUEST_SIZE)
 			toAffect = MAX_REQUEST_SIZE;
+
+		//the limits are checked against the counts that the whole action would reach, before anything is written
+		int claimsAllowed = Integer.MAX_VALUE;
+		int forceloadsAllowed = Integer.MAX_VALUE;
+		if(!isServer) {
+			if(action == Action.CLAIM)
+				claimsAllowed = getPlayerBaseClaimLimit(playerId) + configManager.getLoadedConfig(playerId).getEffective(PlayerConfigOptions.BONUS_CHUNK_CLAIMS) - getPlayerInfo(playerId).getClaimCount();
+			else if(action == Action.FORCELOAD)
+				forceloadsAllowed = getPlayerBaseForceloadLimit(playerId) + configManager.getLoadedConfig(playerId).getEffective(PlayerConfigOptions.BONUS_CHUNK_FORCELOADS) - getPlayerInfo(playerId).getForceloadCount();
+		}
+		//1024-bit chunk masks for each region and new claim (null for unclaiming)
+		Long2ObjectMap<Map<PlayerChunkClaim, long[]>> regionChanges = new Long2ObjectLinkedOpenHashMap<>();
 		outer:
 		for(int x = effectiveLeft; x <= effectiveRight; x++)
 			for(int z = effectiveTop; z <= effectiveBottom; z++) {
-				ClaimResult<PlayerChunkClaim> result = null;
-				if(action == Action.CLAIM)
-					result = tryToClaimHelper(dimension, playerId, subConfigIndex, fromX, fromZ, x, z, false, replace, isServer);
-				else if(action == Action.UNCLAIM)
-					result = tryToUnclaimHelper(dimension, playerId, fromX, fromZ, x, z, replace);
-				else if(action == Action.FORCELOAD)
-					result = tryToForceloadHelper(dimension, playerId, fromX, fromZ, x, z, true, replace, isServer);
-				else if(action == Action.UNFORCELOAD)
-					result = tryToForceloadHelper(dimension, playerId, fromX, fromZ, x, z, false, replace, isServer);
-				else
-					break outer;
-				resultTypes.add(result.getResultType());
-				if(result.getResultType().success) {
+				PlayerChunkClaim currentClaim = get(dimension, x, z);
+				PlayerChunkClaim newClaim = null;//not an interned state yet
+				ClaimResult.Type resultType;
+				if(action == Action.CLAIM) {
+					boolean claimCountUnaffected = currentClaim != null && Objects.equals(currentClaim.getPlayerId(), playerId);
+					newClaim = new PlayerChunkClaim(playerId, subConfigIndex, false, 0);
+					if(currentClaim != null && !replace && !claimCountUnaffected)
+						resultType = ClaimResult.Type.ALREADY_CLAIMED;
+					else if(!claimCountUnaffected && claimsAllowed <= 0)
+						resultType = ClaimResult.Type.CLAIM_LIMIT_REACHED;
+					else if(Objects.equals(newClaim, currentClaim))
+						resultType = ClaimResult.Type.ALREADY_CLAIMED;
+					else {
+						resultType = ClaimResult.Type.SUCCESSFUL_CLAIM;
+						if(!claimCountUnaffected)
+							claimsAllowed--;
+					}
+				} else if(action == Action.UNCLAIM) {
+					if(currentClaim == null || !replace && !Objects.equals(playerId, currentClaim.getPlayerId()))
+						resultType = ClaimResult.Type.NOT_CLAIMED_BY_USER;
+					else
+						resultType = ClaimResult.Type.SUCCESSFUL_UNCLAIM;
+				} else {
+					boolean enable = action == Action.FORCELOAD;
+					if(currentClaim == null || !replace && !Objects.equals(currentClaim.getPlayerId(), playerId))
+						resultType = ClaimResult.Type.NOT_CLAIMED_BY_USER_FORCELOAD;
+					else if(currentClaim.isForceloadable() == enable)
+						resultType = enable ? ClaimResult.Type.ALREADY_FORCELOADABLE : ClaimResult.Type.ALREADY_UNFORCELOADED;
+					else if(enable && forceloadsAllowed <= 0)
+						resultType = ClaimResult.Type.FORCELOAD_LIMIT_REACHED;
+					else {
+						newClaim = new PlayerChunkClaim(currentClaim.getPlayerId(), currentClaim.getSubConfigIndex(), enable, 0);
+						resultType = enable ? ClaimResult.Type.SUCCESSFUL_FORCELOAD : ClaimResult.Type.SUCCESSFUL_UNFORCELOAD;
+						//the limit is of the acting player, like in tryToForceload
+						if(enable && Objects.equals(currentClaim.getPlayerId(), playerId))
+							forceloadsAllowed--;
+					}
+				}
+				resultTypes.add(resultType);
+				if(resultType.success) {
+					long regionKey = PlayerChunkClaim.getLongCoordinatesFor(x >> 5, z >> 5);
+					Map<PlayerChunkClaim, long[]> claimMasks = regionChanges.get(regionKey);
+					if(claimMasks == null)
+						regionChanges.put(regionKey, claimMasks = new LinkedHashMap<>());
+					long[] mask = claimMasks.computeIfAbsent(newClaim, c -> new long[16]);
+					int index = RegionClaims.getIndex(x & 31, z & 31);
+					mask[index >> 6] |= 1L << (index & 63);
 					if(toAffect <= 0) {
 						resultTypes.add(ClaimResult.Type.TOO_MANY_CHUNKS);
 						break outer;
 					} else
 						toAffect--;
 				}
-				if(result.getResultType() == ClaimResult.Type.CLAIM_LIMIT_REACHED ||
-						result.getResultType() == ClaimResult.Type.FORCELOAD_LIMIT_REACHED ||
-						result.getResultType() == ClaimResult.Type.REPLACEMENT_IN_PROGRESS
-				)
+				if(resultType == ClaimResult.Type.CLAIM_LIMIT_REACHED || resultType == ClaimResult.Type.FORCELOAD_LIMIT_REACHED)
 					break outer;
 			}
+		if(regionChanges.isEmpty())
+			return new AreaClaimResult(resultTypes, left, top, right, bottom);
+
+		//syncs a single update per region and claim state instead of one per chunk
+		claimsManagerSynchronizer.startClaimUpdateBatch();
+		pendingStateRemovals = new LinkedHashSet<>();
+		try {
+			for(Long2ObjectMap.Entry<Map<PlayerChunkClaim, long[]>> regionEntry : Long2ObjectMaps.fastIterable(regionChanges)) {
+				int regionX = PlayerChunkClaim.getXFromLongCoordinates(regionEntry.getLongKey());
+				int regionZ = PlayerChunkClaim.getZFromLongCoordinates(regionEntry.getLongKey());
+				for(Map.Entry<PlayerChunkClaim, long[]> claimEntry : regionEntry.getValue().entrySet()) {
+					PlayerChunkClaim newClaim = claimEntry.getKey();
+					PlayerChunkClaim state = newClaim == null ? null : getClaimState(newClaim.getPlayerId(), newClaim.getSubConfigIndex(), newClaim.isForceloadable());
+					claimChunksInRegion(dimension, regionX, regionZ, claimEntry.getValue(), state);
+				}
+			}
+		} finally {
+			claimsManagerSynchronizer.endClaimUpdateBatch();
+			//state removals are only synced after the chunks that were using the states
+			removePendingClaimStates();
+		}
 		return new AreaClaimResult(resultTypes, left, top, right, bottom);
 	}
 
@@ -336,14 +466,21 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 	@Nullable
 	@Override
 	public PlayerChunkClaim get(@Nonnull ResourceLocation dimension, int x, int z) {
-		PlayerChunkClaim actualClaim = super.get(dimension, x, z);
+		return getAccessibleClaim(dimension, super.get(dimension, x, z));
+	}
+
+	PlayerChunkClaim getAccessibleClaim(ResourceLocation dimension, PlayerChunkClaim actualClaim) {
 		//allowExistingClaimsInUnclaimableDimensions is applied here, not when loading the files, so that new changes to claims still affect the "ignored" claims, e.g. when a server claims a chunk claimed by player
-		if(actualClaim == null || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get() || Objects.equals(actualClaim.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID) || Objects.equals(actualClaim.getPlayerId(), PlayerConfig.EXPIRED_CLAIM_UUID) || isClaimable(dimension))
+		if(actualClaim == null || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get() || isAccessibleInUnclaimableDimension(actualClaim) || isClaimable(dimension))
 			return actualClaim;
 		else
 			return null;
 	}
 
+	static boolean isAccessibleInUnclaimableDimension(PlayerChunkClaim claim) {
+		return Objects.equals(claim.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID) || Objects.equals(claim.getPlayerId(), PlayerConfig.EXPIRED_CLAIM_UUID);
+	}
+
 	@Override
 	public int getPlayerBaseClaimLimit(@Nonnull UUID playerId){
 		return playerClaimInfoManager.getPlayerBaseLimit(playerId, null, ServerConfig.CONFIG.maxPlayerClaims, UsedPermissionNodes.MAX_PLAYER_CLAIMS);
@@ -389,6 +526,19 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 	
 	public void onLoad() {
 		loaded = true;
+		snapshotPublisher.onLoad();
+	}
+
+	@Override
+	public void onServerTick() {
+		if(loaded)
+			snapshotPublisher.onServerTick(this, configManager);
+	}
+
+	@Nonnull
+	@Override
+	public ServerClaimsSnapshot getReadSnapshot() {
+		return snapshotPublisher.getSnapshot();
 	}
 	
 	public final static class Builder extends ClaimsManager.Builder<ServerPlayerClaimInfo, ServerPlayerClaimInfoManager, ServerRegionClaims, ServerDimensionClaimsManager, ServerClaimStateHolder, Builder>{
@@ -463,7 +613,9 @@ public final class ServerClaimsManager extends ClaimsManager<ServerPlayerClaimIn
 		protected ServerClaimsManager buildInternally(Map<PlayerChunkClaim, ServerClaimStateHolder> claimStates, ClaimsManagerTracker claimsManagerTracker, Int2ObjectMap<PlayerChunkClaim> indexToClaimState) {
 			LinkedChain<ServerClaimStateHolder> linkedClaimStates = new LinkedChain<>();
 			claimStates.values().forEach(linkedClaimStates::add);
-			return new ServerClaimsManager(server, playerClaimInfoManager, configManager, dimensions, claimsManagerSynchronizer, indexToClaimState, claimStates, claimsManagerTracker, claimReplaceTaskHandler, permissionHandler, linkedClaimStates);
+			ServerClaimsSnapshotPublisher snapshotPublisher = ServerClaimsSnapshotPublisher.Builder.begin().build();
+			claimsManagerTracker.register(snapshotPublisher);
+			return new ServerClaimsManager(server, playerClaimInfoManager, configManager, dimensions, claimsManagerSynchronizer, indexToClaimState, claimStates, claimsManagerTracker, claimReplaceTaskHandler, permissionHandler, linkedClaimStates, new HashMap<>(), snapshotPublisher);
 		}
 		
 	}
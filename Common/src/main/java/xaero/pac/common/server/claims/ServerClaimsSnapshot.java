@@ -0,0 +1,102 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.claims.player.api.IPlayerChunkClaimAPI;
+import xaero.pac.common.claims.storage.RegionClaimsSnapshot;
+import xaero.pac.common.server.claims.api.IServerClaimsSnapshotAPI;
+import xaero.pac.common.server.claims.protection.ChunkProtectionProfile;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+public final class ServerClaimsSnapshot implements IServerClaimsSnapshotAPI {
+
+	//nothing here is modified after construction
+	private final Map<ResourceLocation, Long2ObjectMap<RegionClaimsSnapshot>> dimensions;
+	private final Set<ResourceLocation> unclaimableDimensions;
+	private final Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles;
+	private final ChunkProtectionProfile wildernessProfile;
+	private final long version;
+
+	ServerClaimsSnapshot(Map<ResourceLocation, Long2ObjectMap<RegionClaimsSnapshot>> dimensions, Set<ResourceLocation> unclaimableDimensions, Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles, ChunkProtectionProfile wildernessProfile, long version) {
+		this.dimensions = dimensions;
+		this.unclaimableDimensions = unclaimableDimensions;
+		this.claimProfiles = claimProfiles;
+		this.wildernessProfile = wildernessProfile;
+		this.version = version;
+	}
+
+	@Nullable
+	@Override
+	public PlayerChunkClaim get(@Nonnull ResourceLocation dimension, int x, int z) {
+		Long2ObjectMap<RegionClaimsSnapshot> regions = dimensions.get(dimension);
+		if(regions == null)
+			return null;
+		RegionClaimsSnapshot region = regions.get(ChunkPos.asLong(x >> 5, z >> 5));
+		if(region == null)
+			return null;
+		PlayerChunkClaim claim = region.get(x & 31, z & 31);
+		//the same filter as ServerClaimsManager.getAccessibleClaim, as of the snapshot
+		if(claim != null && unclaimableDimensions.contains(dimension) && !ServerClaimsManager.isAccessibleInUnclaimableDimension(claim))
+			return null;
+		return claim;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends Comparable<T>> T getClaimConfigValue(@Nullable IPlayerChunkClaimAPI claim, @Nonnull IPlayerConfigOptionSpecAPI<T> option) {
+		ChunkProtectionProfile profile = claim == null ? wildernessProfile : claimProfiles.get(claim);
+		if(profile == null || !profile.isCompiled(option))
+			return null;
+		if(option.getType() == Boolean.class)
+			return (T) Boolean.valueOf(profile.getBoolean((IPlayerConfigOptionSpecAPI<Boolean>) option));
+		return (T) Integer.valueOf(profile.getInt((IPlayerConfigOptionSpecAPI<Integer>) option));
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	Map<ResourceLocation, Long2ObjectMap<RegionClaimsSnapshot>> getDimensions() {
+		return dimensions;
+	}
+
+	Set<ResourceLocation> getUnclaimableDimensions() {
+		return unclaimableDimensions;
+	}
+
+	Map<PlayerChunkClaim, ChunkProtectionProfile> getClaimProfiles() {
+		return claimProfiles;
+	}
+
+	ChunkProtectionProfile getWildernessProfile() {
+		return wildernessProfile;
+	}
+
+}
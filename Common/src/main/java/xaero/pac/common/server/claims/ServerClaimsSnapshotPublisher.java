@@ -0,0 +1,214 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.claims.player.api.IPlayerChunkClaimAPI;
+import xaero.pac.common.claims.storage.RegionClaimsSnapshot;
+import xaero.pac.common.claims.tracker.api.IClaimsManagerListenerAPI;
+import xaero.pac.common.server.claims.protection.ChunkProtectionProfile;
+import xaero.pac.common.server.config.ServerConfig;
+import xaero.pac.common.server.player.config.IPlayerConfig;
+import xaero.pac.common.server.player.config.IPlayerConfigManager;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes copy-on-write {@link ServerClaimsSnapshot}s for other threads at the end of server ticks.
+ * Only the regions that changed since the last snapshot are copied again.
+ */
+public final class ServerClaimsSnapshotPublisher implements IClaimsManagerListenerAPI {
+
+	private final Map<ResourceLocation, LongSet> changedRegions;
+	private final Set<ResourceLocation> changedDimensions;
+	private final Set<ResourceLocation> unclaimableDimensions;
+	private boolean allChanged;
+	private int publishedConfigVersion;
+	private int publishedSharedValuesVersion;
+	private volatile ServerClaimsSnapshot snapshot;
+
+	private ServerClaimsSnapshotPublisher(Map<ResourceLocation, LongSet> changedRegions, Set<ResourceLocation> changedDimensions, Set<ResourceLocation> unclaimableDimensions, ServerClaimsSnapshot snapshot) {
+		this.changedRegions = changedRegions;
+		this.changedDimensions = changedDimensions;
+		this.unclaimableDimensions = unclaimableDimensions;
+		this.snapshot = snapshot;
+	}
+
+	public ServerClaimsSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public void onLoad() {
+		allChanged = true;
+	}
+
+	public void onServerTick(ServerClaimsManager claimsManager, IPlayerConfigManager playerConfigs) {
+		ServerClaimsSnapshot current = snapshot;
+		boolean configsChanged = allChanged || current.getWildernessProfile() == null || publishedConfigVersion != playerConfigs.getConfigVersion();
+		updateUnclaimableDimensions(claimsManager);
+		boolean unclaimableDimensionsChanged = !unclaimableDimensions.equals(current.getUnclaimableDimensions());
+		if(!configsChanged && !unclaimableDimensionsChanged && changedRegions.isEmpty() && changedDimensions.isEmpty())
+			return;
+		boolean statesAdded = false;
+		Map<ResourceLocation, Long2ObjectMap<RegionClaimsSnapshot>> dimensions = new HashMap<>(current.getDimensions());
+		if(allChanged) {
+			dimensions.clear();
+			claimsManager.getDimensionStream().forEach(dim -> changedDimensions.add(dim.getDimension()));
+		}
+		for(ResourceLocation dimension : changedDimensions) {
+			Long2ObjectMap<RegionClaimsSnapshot> regions = new Long2ObjectOpenHashMap<>();
+			ServerDimensionClaimsManager dimensionClaims = claimsManager.getDimension(dimension);
+			if(dimensionClaims != null)
+				dimensionClaims.getRegionStream().forEach(region -> regions.put(ChunkPos.asLong(region.getX(), region.getZ()), region.getStorage().createSnapshot()));
+			if(!statesAdded)
+				statesAdded = hasStateWithoutProfile(regions, current.getClaimProfiles());
+			dimensions.put(dimension, regions);
+			changedRegions.remove(dimension);
+		}
+		for(Map.Entry<ResourceLocation, LongSet> entry : changedRegions.entrySet()) {
+			ResourceLocation dimension = entry.getKey();
+			Long2ObjectMap<RegionClaimsSnapshot> previousRegions = dimensions.get(dimension);
+			Long2ObjectMap<RegionClaimsSnapshot> regions = previousRegions == null ? new Long2ObjectOpenHashMap<>() : new Long2ObjectOpenHashMap<>(previousRegions);
+			ServerDimensionClaimsManager dimensionClaims = claimsManager.getDimension(dimension);
+			LongIterator iterator = entry.getValue().iterator();
+			while(iterator.hasNext()) {
+				long regionKey = iterator.nextLong();
+				ServerRegionClaims region = dimensionClaims == null ? null : dimensionClaims.getRegion(ChunkPos.getX(regionKey), ChunkPos.getZ(regionKey));
+				if(region == null)
+					regions.remove(regionKey);
+				else {
+					RegionClaimsSnapshot regionSnapshot = region.getStorage().createSnapshot();
+					if(!statesAdded)
+						statesAdded = hasStateWithoutProfile(regionSnapshot, current.getClaimProfiles());
+					regions.put(regionKey, regionSnapshot);
+				}
+			}
+			dimensions.put(dimension, regions);
+		}
+		Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles = current.getClaimProfiles();
+		ChunkProtectionProfile wildernessProfile = current.getWildernessProfile();
+		if(configsChanged || statesAdded) {
+			claimProfiles = updateClaimProfiles(claimsManager, playerConfigs, claimProfiles, configsChanged);
+			wildernessProfile = playerConfigs.getLoadedConfig(null).getProtectionProfile();
+			publishedConfigVersion = playerConfigs.getConfigVersion();
+			publishedSharedValuesVersion = playerConfigs.getSharedValuesVersion();
+		}
+		Set<ResourceLocation> publishedUnclaimableDimensions = unclaimableDimensionsChanged ? Set.copyOf(unclaimableDimensions) : current.getUnclaimableDimensions();
+		changedRegions.clear();
+		changedDimensions.clear();
+		allChanged = false;
+		snapshot = new ServerClaimsSnapshot(dimensions, publishedUnclaimableDimensions, claimProfiles, wildernessProfile, current.getVersion() + 1);
+	}
+
+	private Map<PlayerChunkClaim, ChunkProtectionProfile> updateClaimProfiles(ServerClaimsManager claimsManager, IPlayerConfigManager playerConfigs, Map<PlayerChunkClaim, ChunkProtectionProfile> previousProfiles, boolean configsChanged) {
+		//the default config values or option permissions changing affects every effective value
+		boolean sharedValuesChanged = publishedSharedValuesVersion != playerConfigs.getSharedValuesVersion();
+		Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles = new HashMap<>();
+		claimsManager.getClaimStatesStream().forEach(state -> {
+			ChunkProtectionProfile profile = previousProfiles.get(state);
+			if(profile == null || configsChanged) {
+				//configs that haven't been lazily loaded yet can't have changed, so their states keep the previous profiles (if they had any)
+				//and lazily loading one changes the config version, which gets its states included in the next snapshot
+				IPlayerConfig config = playerConfigs.getConfigIfLoaded(state.getPlayerId());
+				if(config != null)
+					profile = config.getEffectiveSubConfig(state.getSubConfigIndex()).getProtectionProfile();//only rebuilt if its effective values changed
+				else if(sharedValuesChanged)
+					profile = null;
+			}
+			if(profile != null)
+				claimProfiles.put(state, profile);
+		});
+		return claimProfiles;
+	}
+
+	private void updateUnclaimableDimensions(ServerClaimsManager claimsManager) {
+		unclaimableDimensions.clear();
+		if(ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get())
+			return;
+		claimsManager.getDimensionStream().forEach(dim -> {
+			if(!claimsManager.isClaimable(dim.getDimension()))
+				unclaimableDimensions.add(dim.getDimension());
+		});
+	}
+
+	private boolean hasStateWithoutProfile(Long2ObjectMap<RegionClaimsSnapshot> regions, Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles) {
+		for(RegionClaimsSnapshot regionSnapshot : regions.values())
+			if(hasStateWithoutProfile(regionSnapshot, claimProfiles))
+				return true;
+		return false;
+	}
+
+	private boolean hasStateWithoutProfile(RegionClaimsSnapshot regionSnapshot, Map<PlayerChunkClaim, ChunkProtectionProfile> claimProfiles) {
+		boolean[] result = new boolean[1];
+		regionSnapshot.forEachState(state -> {
+			if(!claimProfiles.containsKey(state))
+				result[0] = true;
+		});
+		return result[0];
+	}
+
+	private void onRegionChange(ResourceLocation dimension, int regionX, int regionZ) {
+		LongSet dimensionRegions = changedRegions.get(dimension);
+		if(dimensionRegions == null)
+			changedRegions.put(dimension, dimensionRegions = new LongOpenHashSet());
+		dimensionRegions.add(ChunkPos.asLong(regionX, regionZ));
+	}
+
+	@Override
+	public void onWholeRegionChange(@Nonnull ResourceLocation dimension, int regionX, int regionZ) {
+		onRegionChange(dimension, regionX, regionZ);
+	}
+
+	@Override
+	public void onChunkChange(@Nonnull ResourceLocation dimension, int chunkX, int chunkZ, @Nullable IPlayerChunkClaimAPI claim) {
+		onRegionChange(dimension, chunkX >> 5, chunkZ >> 5);
+	}
+
+	@Override
+	public void onDimensionChange(ResourceLocation dimension) {
+		changedDimensions.add(dimension);
+	}
+
+	public static final class Builder {
+
+		private Builder(){}
+
+		public Builder setDefault(){
+			return this;
+		}
+
+		public ServerClaimsSnapshotPublisher build(){
+			return new ServerClaimsSnapshotPublisher(new HashMap<>(), new HashSet<>(), new HashSet<>(), new ServerClaimsSnapshot(new HashMap<>(), Set.of(), new HashMap<>(), null, 0));
+		}
+
+		public static Builder begin(){
+			return new Builder().setDefault();
+		}
+
+	}
+
+}
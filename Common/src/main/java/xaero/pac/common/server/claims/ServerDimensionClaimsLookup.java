@@ -0,0 +1,77 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A claim lookup bound to a single dimension, so that hot paths don't have to resolve the dimension by its ID
+ * for every chunk. Doesn't create the dimension claims manager when it doesn't exist yet.
+ */
+public final class ServerDimensionClaimsLookup implements IServerDimensionClaimsLookup<PlayerChunkClaim> {
+
+	private final ServerClaimsManager manager;
+	private final ResourceLocation dimension;
+	private ServerDimensionClaimsManager dimensionClaims;
+
+	ServerDimensionClaimsLookup(ServerClaimsManager manager, ResourceLocation dimension, ServerDimensionClaimsManager dimensionClaims) {
+		this.manager = manager;
+		this.dimension = dimension;
+		this.dimensionClaims = dimensionClaims;
+	}
+
+	@Nullable
+	@Override
+	public PlayerChunkClaim get(int x, int z) {
+		if(dimensionClaims == null)
+			return null;
+		return manager.getAccessibleClaim(dimension, dimensionClaims.get(x, z));
+	}
+
+	@Nullable
+	@Override
+	public PlayerChunkClaim get(@Nonnull ChunkPos chunkPos) {
+		return get(chunkPos.x, chunkPos.z);
+	}
+
+	@Nullable
+	@Override
+	public PlayerChunkClaim get(@Nonnull BlockPos blockPos) {
+		return get(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+	}
+
+	void setDimensionClaims(ServerDimensionClaimsManager dimensionClaims) {
+		this.dimensionClaims = dimensionClaims;
+	}
+
+	public ServerClaimsManager getManager() {
+		return manager;
+	}
+
+	public ResourceLocation getDimension() {
+		return dimension;
+	}
+
+}
@@ -19,21 +19,37 @@
 package xaero.pac.common.server.claims;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
 import xaero.pac.common.claims.DimensionClaimsManager;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.claims.player.PlayerClaimPosList;
+import xaero.pac.common.claims.player.PlayerDimensionClaims;
 import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
 import xaero.pac.common.server.claims.player.ServerPlayerClaimInfoManager;
 import xaero.pac.common.util.linked.LinkedChain;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public final class ServerDimensionClaimsManager extends DimensionClaimsManager<ServerPlayerClaimInfoManager, ServerRegionClaims> implements IServerDimensionClaimsManager<ServerRegionClaims> {
 	
 	private final ServerClaimsManager manager;
 	private final boolean playerClaimsSyncAllowed;
+	private final ServerDimensionRegionIndex regionIndex;
 
-	public ServerDimensionClaimsManager(ResourceLocation dimension, Long2ObjectMap<ServerRegionClaims> claims, LinkedChain<ServerRegionClaims> linkedRegions, ServerClaimsManager manager, boolean playerClaimsSyncAllowed) {
+	public ServerDimensionClaimsManager(ResourceLocation dimension, Long2ObjectMap<ServerRegionClaims> claims, LinkedChain<ServerRegionClaims> linkedRegions, ServerClaimsManager manager, boolean playerClaimsSyncAllowed, ServerDimensionRegionIndex regionIndex) {
 		super(dimension, claims, linkedRegions);
 		this.manager = manager;
 		this.playerClaimsSyncAllowed = playerClaimsSyncAllowed;
+		this.regionIndex = regionIndex;
 	}
 
 	@Override
@@ -41,4 +57,199 @@ public final class ServerDimensionClaimsManager extends DimensionClaimsManager<S
 		return ServerRegionClaims.Builder.begin().setPlayerClaimsSyncAllowed(playerClaimsSyncAllowed).setDimension(dimension).setManager(manager).setX(x).setZ(z).build();
 	}
 
+	@Override
+	protected void onRegionAdded(ServerRegionClaims region) {
+		super.onRegionAdded(region);
+		regionIndex.onRegionAdded(region.getX(), region.getZ());
+	}
+
+	@Override
+	protected void onRegionRemoved(ServerRegionClaims region) {
+		super.onRegionRemoved(region);
+		regionIndex.onRegionRemoved(region.getX(), region.getZ());
+	}
+
+	/**
+	 * Adds the keys of all regions in this dimension that contain claims of a specified owner to a set.
+	 * <p>
+	 * Reads the per-region chunk masks of the owner's claim position lists, so it only touches the owned regions.
+	 */
+	public void collectOwnedRegionKeys(@Nonnull UUID ownerId, @Nonnull LongSet dest) {
+		if(!manager.hasPlayerInfo(ownerId))
+			return;
+		PlayerDimensionClaims dimensionClaims = manager.getPlayerInfo(ownerId).getDimension(getDimension());
+		if(dimensionClaims == null)
+			return;
+		dimensionClaims.getStream().forEach(posList -> dest.addAll(posList.getRegionKeys()));
+	}
+
+	private boolean isAccessible(PlayerChunkClaim claim) {
+		return manager.getAccessibleClaim(getDimension(), claim) != null;
+	}
+
+	@Nonnull
+	@Override
+	public Stream<ChunkPos> getClaimedChunksInArea(int left, int top, int right, int bottom) {
+		int minX = Math.min(left, right);
+		int minZ = Math.min(top, bottom);
+		int maxX = Math.max(left, right);
+		int maxZ = Math.max(top, bottom);
+		Stream.Builder<ChunkPos> result = Stream.builder();
+		regionIndex.forEachRegion(minX >> 5, minZ >> 5, maxX >> 5, maxZ >> 5, (regionX, regionZ) -> {
+			ServerRegionClaims region = getRegion(regionX, regionZ);
+			int chunkXOffset = regionX << 5;
+			int chunkZOffset = regionZ << 5;
+			int fromX = Math.max(minX, chunkXOffset) & 31;
+			int fromZ = Math.max(minZ, chunkZOffset) & 31;
+			int toX = Math.min(maxX, chunkXOffset | 31) & 31;
+			int toZ = Math.min(maxZ, chunkZOffset | 31) & 31;
+			for(int i = fromX; i <= toX; i++)
+				for(int j = fromZ; j <= toZ; j++)
+					if(isAccessible(region.get(i, j)))
+						result.add(new ChunkPos(chunkXOffset | i, chunkZOffset | j));
+			return true;
+		});
+		return result.build();
+	}
+
+	@Override
+	public boolean hasClaimWithin(int x, int z, int radius) {
+		if(radius < 0)
+			throw new IllegalArgumentException("negative radius: " + radius);
+		int minX = x - radius;
+		int minZ = z - radius;
+		int maxX = x + radius;
+		int maxZ = z + radius;
+		return !regionIndex.forEachRegion(minX >> 5, minZ >> 5, maxX >> 5, maxZ >> 5, (regionX, regionZ) -> {
+			ServerRegionClaims region = getRegion(regionX, regionZ);
+			int chunkXOffset = regionX << 5;
+			int chunkZOffset = regionZ << 5;
+			//indexed regions are never empty, but their claims can all be inaccessible in an unclaimable dimension
+			if(playerClaimsSyncAllowed && minX <= chunkXOffset && minZ <= chunkZOffset && maxX >= (chunkXOffset | 31) && maxZ >= (chunkZOffset | 31))
+				return false;
+			int fromX = Math.max(minX, chunkXOffset) & 31;
+			int fromZ = Math.max(minZ, chunkZOffset) & 31;
+			int toX = Math.min(maxX, chunkXOffset | 31) & 31;
+			int toZ = Math.min(maxZ, chunkZOffset | 31) & 31;
+			for(int i = fromX; i <= toX; i++)
+				for(int j = fromZ; j <= toZ; j++)
+					if(isAccessible(region.get(i, j)))
+						return false;
+			return true;
+		});
+	}
+
+	@Nullable
+	@Override
+	public ChunkPos getNearestClaimOf(@Nonnull UUID playerId, int x, int z) {
+		if(playerId == null)
+			throw new IllegalArgumentException("null player ID");
+		if(!manager.hasPlayerInfo(playerId))
+			return null;
+		PlayerDimensionClaims dimensionClaims = manager.getPlayerInfo(playerId).getDimension(getDimension());
+		if(dimensionClaims == null)
+			return null;
+		List<PlayerClaimPosList> posLists = dimensionClaims.getStream().filter(posList -> isAccessible(posList.getClaimState())).collect(Collectors.toList());
+		if(posLists.isEmpty())
+			return null;
+		//the owner's own region masks act as the per-owner index
+		LongSet ownedRegions = new LongOpenHashSet();
+		posLists.forEach(posList -> ownedRegions.addAll(posList.getRegionKeys()));
+		int centerRegionX = x >> 5;
+		int centerRegionZ = z >> 5;
+		NearestClaimSearch search = new NearestClaimSearch(posLists, x, z);
+		//rings of regions around the center region, closest first, until no region in the next ring can contain a closer chunk
+		for(int ring = 0; search.getBestDistance() > getMinRingDistance(ring); ring++) {
+			if(8L * ring > ownedRegions.size()) {
+				//rings now cover more regions than the owner has, so the remaining owned regions are checked directly
+				LongIterator iterator = ownedRegions.iterator();
+				while(iterator.hasNext()) {
+					long regionKey = iterator.nextLong();
+					int regionX = PlayerChunkClaim.getXFromLongCoordinates(regionKey);
+					int regionZ = PlayerChunkClaim.getZFromLongCoordinates(regionKey);
+					if(Math.max(Math.abs(regionX - centerRegionX), Math.abs(regionZ - centerRegionZ)) >= ring)
+						search.scanRegion(regionX, regionZ);
+				}
+				break;
+			}
+			if(ring == 0) {
+				if(ownedRegions.contains(PlayerChunkClaim.getLongCoordinatesFor(centerRegionX, centerRegionZ)))
+					search.scanRegion(centerRegionX, centerRegionZ);
+				continue;
+			}
+			for(int offset = -ring; offset < ring; offset++) {
+				//each side of the ring, without repeating the corners
+				scanIfOwned(search, ownedRegions, centerRegionX + offset, centerRegionZ - ring);
+				scanIfOwned(search, ownedRegions, centerRegionX + ring, centerRegionZ + offset);
+				scanIfOwned(search, ownedRegions, centerRegionX - offset, centerRegionZ + ring);
+				scanIfOwned(search, ownedRegions, centerRegionX - ring, centerRegionZ - offset);
+			}
+		}
+		return search.getResult();
+	}
+
+	private static long getMinRingDistance(int ring) {
+		//the closest chunk of a region in the ring, when the center chunk is at the edge of its own region
+		return ring == 0 ? 0 : 32L * ring - 31;
+	}
+
+	private static void scanIfOwned(NearestClaimSearch search, LongSet ownedRegions, int regionX, int regionZ) {
+		if(ownedRegions.contains(PlayerChunkClaim.getLongCoordinatesFor(regionX, regionZ)))
+			search.scanRegion(regionX, regionZ);
+	}
+
+	private static final class NearestClaimSearch {
+
+		private final List<PlayerClaimPosList> posLists;
+		private final int x;
+		private final int z;
+		private long bestDistance;
+		private ChunkPos result;
+
+		private NearestClaimSearch(List<PlayerClaimPosList> posLists, int x, int z) {
+			this.posLists = posLists;
+			this.x = x;
+			this.z = z;
+			this.bestDistance = Long.MAX_VALUE;
+		}
+
+		private void scanRegion(int regionX, int regionZ) {
+			int chunkXOffset = regionX << 5;
+			int chunkZOffset = regionZ << 5;
+			long distanceX = Math.max(0, Math.max((long)chunkXOffset - x, x - ((long)chunkXOffset | 31)));
+			long distanceZ = Math.max(0, Math.max((long)chunkZOffset - z, z - ((long)chunkZOffset | 31)));
+			if(Math.max(distanceX, distanceZ) >= bestDistance)
+				return;
+			long regionKey = PlayerChunkClaim.getLongCoordinatesFor(regionX, regionZ);
+			for(PlayerClaimPosList posList : posLists) {
+				long[] mask = posList.getRegionMask(regionKey);
+				if(mask == null)
+					continue;
+				for(int i = 0; i < mask.length; i++) {
+					long bits = mask[i];
+					while(bits != 0) {
+						int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+						bits &= bits - 1;
+						int chunkX = chunkXOffset | (index >> 5);
+						int chunkZ = chunkZOffset | (index & 31);
+						long distance = Math.max(Math.abs((long)chunkX - x), Math.abs((long)chunkZ - z));
+						if(distance < bestDistance) {
+							bestDistance = distance;
+							result = new ChunkPos(chunkX, chunkZ);
+						}
+					}
+				}
+			}
+		}
+
+		private long getBestDistance() {
+			return bestDistance;
+		}
+
+		private ChunkPos getResult() {
+			return result;
+		}
+
+	}
+
 }
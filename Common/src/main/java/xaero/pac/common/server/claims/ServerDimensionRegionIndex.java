@@ -0,0 +1,121 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+/**
+ * A coarse grid over the region coordinates of a dimension, with a 1024-bit region mask for each 32x32 region cell.
+ */
+final class ServerDimensionRegionIndex {
+
+	private static final int CELL_SHIFT = 5;
+
+	private final Long2ObjectMap<long[]> cells;
+
+	ServerDimensionRegionIndex() {
+		this.cells = new Long2ObjectOpenHashMap<>();
+	}
+
+	private static int getBitIndex(int regionX, int regionZ) {
+		return ((regionX & 31) << 5) | (regionZ & 31);
+	}
+
+	void onRegionAdded(int regionX, int regionZ) {
+		long cellKey = PlayerChunkClaim.getLongCoordinatesFor(regionX >> CELL_SHIFT, regionZ >> CELL_SHIFT);
+		long[] mask = cells.get(cellKey);
+		if(mask == null)
+			cells.put(cellKey, mask = new long[16]);
+		int index = getBitIndex(regionX, regionZ);
+		mask[index >> 6] |= 1L << (index & 63);
+	}
+
+	void onRegionRemoved(int regionX, int regionZ) {
+		long cellKey = PlayerChunkClaim.getLongCoordinatesFor(regionX >> CELL_SHIFT, regionZ >> CELL_SHIFT);
+		long[] mask = cells.get(cellKey);
+		if(mask == null)
+			return;
+		int index = getBitIndex(regionX, regionZ);
+		mask[index >> 6] &= ~(1L << (index & 63));
+		for(long l : mask)
+			if(l != 0)
+				return;
+		cells.remove(cellKey);
+	}
+
+	/**
+	 * Visits the indexed regions within an inclusive rectangle of region coordinates, until the visitor returns false.
+	 *
+	 * @return false if the visitor stopped the iteration, otherwise true
+	 */
+	boolean forEachRegion(int minRegionX, int minRegionZ, int maxRegionX, int maxRegionZ, RegionVisitor visitor) {
+		int minCellX = minRegionX >> CELL_SHIFT;
+		int minCellZ = minRegionZ >> CELL_SHIFT;
+		int maxCellX = maxRegionX >> CELL_SHIFT;
+		int maxCellZ = maxRegionZ >> CELL_SHIFT;
+		long cellArea = ((long)maxCellX - minCellX + 1) * ((long)maxCellZ - minCellZ + 1);
+		if(cellArea > cells.size()) {//fewer cells exist than the rectangle covers
+			for(Long2ObjectMap.Entry<long[]> entry : Long2ObjectMaps.fastIterable(cells)) {
+				int cellX = PlayerChunkClaim.getXFromLongCoordinates(entry.getLongKey());
+				int cellZ = PlayerChunkClaim.getZFromLongCoordinates(entry.getLongKey());
+				if(cellX < minCellX || cellX > maxCellX || cellZ < minCellZ || cellZ > maxCellZ)
+					continue;
+				if(!visitCell(cellX, cellZ, entry.getValue(), minRegionX, minRegionZ, maxRegionX, maxRegionZ, visitor))
+					return false;
+			}
+			return true;
+		}
+		for(int cellX = minCellX; cellX <= maxCellX; cellX++)
+			for(int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+				long[] mask = cells.get(PlayerChunkClaim.getLongCoordinatesFor(cellX, cellZ));
+				if(mask != null && !visitCell(cellX, cellZ, mask, minRegionX, minRegionZ, maxRegionX, maxRegionZ, visitor))
+					return false;
+			}
+		return true;
+	}
+
+	private boolean visitCell(int cellX, int cellZ, long[] mask, int minRegionX, int minRegionZ, int maxRegionX, int maxRegionZ, RegionVisitor visitor) {
+		int regionXOffset = cellX << CELL_SHIFT;
+		int regionZOffset = cellZ << CELL_SHIFT;
+		for(int i = 0; i < mask.length; i++) {
+			long bits = mask[i];
+			while(bits != 0) {
+				int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				int regionX = regionXOffset | (index >> 5);
+				int regionZ = regionZOffset | (index & 31);
+				if(regionX < minRegionX || regionX > maxRegionX || regionZ < minRegionZ || regionZ > maxRegionZ)
+					continue;
+				if(!visitor.visit(regionX, regionZ))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	interface RegionVisitor {
+
+		boolean visit(int regionX, int regionZ);
+
+	}
+
+}
@@ -18,19 +18,15 @@
 
 package xaero.pac.common.server.claims;
 
-import com.google.common.collect.Lists;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.SimpleBitStorage;
-import xaero.pac.common.claims.PlayerChunkClaimHolder;
 import xaero.pac.common.claims.RegionClaims;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
 import xaero.pac.common.server.claims.player.ServerPlayerClaimInfoManager;
 import xaero.pac.common.server.player.config.PlayerConfig;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -38,16 +34,15 @@ public final class ServerRegionClaims extends RegionClaims<ServerPlayerClaimInfo
 
 	private final ServerClaimsManager manager;
 	
-	private final RegionClaimsPaletteStorage syncableStorage;
-	private final Object2IntMap<UUID> claimOwnerStateCounts;
+	private final boolean playerClaimsSyncAllowed;
+	private RegionClaimsPaletteStorage syncableStorage;//only created once the syncable claims differ from the actual ones
+	private int unsyncableStateCount;
 
 	private ServerRegionClaims(ResourceLocation dimension, int x, int z,
-							   RegionClaimsPaletteStorage syncableStorage, RegionClaimsPaletteStorage storage,
-							   ServerClaimsManager manager, Object2IntMap<UUID> claimOwnerStateCounts) {
+							   RegionClaimsPaletteStorage storage, ServerClaimsManager manager, boolean playerClaimsSyncAllowed) {
 		super(dimension, x, z, storage);
-		this.syncableStorage = syncableStorage;
 		this.manager = manager;
-		this.claimOwnerStateCounts = claimOwnerStateCounts;
+		this.playerClaimsSyncAllowed = playerClaimsSyncAllowed;
 	}
 
 	@Override
@@ -56,25 +51,59 @@ public final class ServerRegionClaims extends RegionClaims<ServerPlayerClaimInfo
 		boolean shouldSync = manager != null && manager.isLoaded();
 		if(shouldSync)
 			oldValueForSync = get(x, z);
+		if(!playerClaimsSyncAllowed && syncableStorage == null && !isSyncable(value))
+			syncableStorage = createSyncableStorage();
 		super.set(x, z, value);
-		if(syncableStorage != storage) {//true in an unclaimable dimension
-			if(value != null && !Objects.equals(value.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID))
+		if(!playerClaimsSyncAllowed) {//unclaimable dimension
+			if(!isSyncable(value))
 				value = null;
-			if(shouldSync && oldValueForSync != null && !Objects.equals(oldValueForSync.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID))
+			if(!isSyncable(oldValueForSync))
 				oldValueForSync = null;
-			syncableStorage.set(x, z, value, this);
+			if(syncableStorage != null)
+				syncableStorage.set(x, z, value, this);
 		}
 
 		if(shouldSync && value != oldValueForSync)
 			manager.getClaimsManagerSynchronizer().syncToPlayersClaimUpdate(dimension, (this.getX() << 5) | x, (this.getZ() << 5) | z, value, oldValueForSync);
 	}
 
+	@Override
+	protected void setChunks(long[] chunkMask, PlayerChunkClaim value, Map<PlayerChunkClaim, long[]> currentClaimMasks) {
+		boolean shouldSync = manager != null && manager.isLoaded();
+		if(!playerClaimsSyncAllowed && syncableStorage == null && !isSyncable(value))
+			syncableStorage = createSyncableStorage();
+		super.setChunks(chunkMask, value, currentClaimMasks);
+		PlayerChunkClaim valueForSync = value;
+		if(!playerClaimsSyncAllowed) {//unclaimable dimension
+			if(!isSyncable(value))
+				valueForSync = null;
+			if(syncableStorage != null)
+				syncableStorage.setChunks(chunkMask, valueForSync, this);
+		}
+		if(!shouldSync)
+			return;
+		for(Map.Entry<PlayerChunkClaim, long[]> entry : currentClaimMasks.entrySet()) {
+			PlayerChunkClaim oldValueForSync = entry.getKey();
+			if(!playerClaimsSyncAllowed && !isSyncable(oldValueForSync))
+				oldValueForSync = null;
+			if(valueForSync == oldValueForSync)
+				continue;
+			long[] mask = entry.getValue();
+			for(int i = 0; i < mask.length; i++)
+				for(long bits = mask[i]; bits != 0; bits &= bits - 1) {
+					int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+					manager.getClaimsManagerSynchronizer().syncToPlayersClaimUpdate(dimension, (this.getX() << 5) | (index >> 5), (this.getZ() << 5) | (index & 31), valueForSync, oldValueForSync);
+				}
+		}
+	}
+
 	@Override
 	public void onAddedToPalette(RegionClaimsPaletteStorage paletteStorage, PlayerChunkClaim state) {
 		super.onAddedToPalette(paletteStorage, state);
 		if(paletteStorage == storage) {
-			increaseOwnerCount(state.getPlayerId());
 			manager.countStateRegions(state, 1);
+			if(!playerClaimsSyncAllowed && !isSyncable(state))
+				unsyncableStateCount++;
 		}
 	}
 
@@ -82,48 +111,72 @@ public final class ServerRegionClaims extends RegionClaims<ServerPlayerClaimInfo
 	public void onRemovedFromPalette(RegionClaimsPaletteStorage paletteStorage, PlayerChunkClaim state) {
 		super.onRemovedFromPalette(paletteStorage, state);
 		if(paletteStorage == storage) {
-			decreaseOwnerCount(state.getPlayerId());
 			manager.countStateRegions(state, -1);
+			if(!playerClaimsSyncAllowed && !isSyncable(state)) {
+				unsyncableStateCount--;
+				if(unsyncableStateCount == 0)
+					syncableStorage = null;//the actual storage is fully syncable again
+			}
+		}
+	}
+
+	private boolean isSyncable(PlayerChunkClaim state){
+		return state == null || Objects.equals(state.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID);
+	}
+
+	private RegionClaimsPaletteStorage createSyncableStorage(){
+		RegionClaimsPaletteStorage result = new RegionClaimsPaletteStorage(new PlayerChunkClaim[1], new SimpleBitStorage(1, 1024), false);
+		for(int index = storage.findNextNonEmpty(0); index != -1; index = storage.findNextNonEmpty(index + 1)) {
+			int i = index >> 5;
+			int j = index & 31;
+			result.set(i, j, storage.get(i, j), this);//only syncable states at this point
 		}
+		return result;
+	}
+
+	private RegionClaimsPaletteStorage getSyncableStorage(){
+		return syncableStorage == null ? storage : syncableStorage;
+	}
+
+	public boolean isPlayerClaimsSyncAllowed(){
+		return playerClaimsSyncAllowed;
+	}
+
+	public boolean hasSeparateSyncableStorage(){
+		return syncableStorage != null;
 	}
 
 	public int[] getSyncablePaletteArray(){
-		return syncableStorage.getPaletteArray();
+		return getSyncableStorage().getPaletteArray();
 	}
 	
 	public int getSyncableStorageBits() {
-		return syncableStorage.getStorageBits();
+		return getSyncableStorage().getStorageBits();
 	}
 	
 	public long[] getSyncableStorageData() {
-		return syncableStorage.getStorageData();
+		return getSyncableStorage().getStorageData();
 	}
 
 	public boolean containsSyncableState(PlayerChunkClaim state){
-		return syncableStorage.containsState(state);
+		return getSyncableStorage().containsState(state);
 	}
 
-	public boolean containsStateOwner(UUID ownerId){
-		return claimOwnerStateCounts.containsKey(ownerId);
+	public long getEstimatedMemoryUsage(){
+		long result = storage.getEstimatedMemoryUsage();
+		if(syncableStorage != null)
+			result += syncableStorage.getEstimatedMemoryUsage();
+		return result;
 	}
 
-	private void increaseOwnerCount(UUID ownerId){
-		claimOwnerStateCounts.put(ownerId, claimOwnerStateCounts.getInt(ownerId) + 1);
-	}
-
-	private void decreaseOwnerCount(UUID ownerId){
-		int currentCount = claimOwnerStateCounts.getInt(ownerId);
-		if(currentCount == 1)
-			claimOwnerStateCounts.removeInt(ownerId);
-		else
-			claimOwnerStateCounts.put(ownerId, currentCount - 1);
+	public boolean containsStateOwner(UUID ownerId){
+		return storage.containsStateOwner(ownerId);
 	}
 	
 	public static final class Builder extends RegionClaims.Builder<ServerPlayerClaimInfoManager, ServerRegionClaims, Builder>{
 
 		private ServerClaimsManager manager;
 		private boolean playerClaimsSyncAllowed;
-		private RegionClaimsPaletteStorage syncableStorage;
 		
 		public static Builder begin() {
 			return new Builder().setDefault();
@@ -149,18 +202,14 @@ public final class ServerRegionClaims extends RegionClaims<ServerPlayerClaimInfo
 		
 		@Override
 		public ServerRegionClaims build() {
-			syncableStorage = 
-					new RegionClaimsPaletteStorage(new Object2IntOpenHashMap<>(), new IntArrayList(), Lists.newArrayList((PlayerChunkClaimHolder)null), new SimpleBitStorage(1, 1024), false);
-			setStorage(playerClaimsSyncAllowed ? syncableStorage : 
-				new RegionClaimsPaletteStorage(new Object2IntOpenHashMap<>(), null, Lists.newArrayList((PlayerChunkClaimHolder)null), new SimpleBitStorage(1, 1024), false));
+			setStorage(new RegionClaimsPaletteStorage(new PlayerChunkClaim[1], new SimpleBitStorage(1, 1024), false));
 			return (ServerRegionClaims) super.build();
 		}
 
 		@Override
 		protected ServerRegionClaims buildInternally() {
 			return new ServerRegionClaims(dimension, x, z, 
-					syncableStorage, storage,
-					manager, new Object2IntOpenHashMap<>());
+					storage, manager, playerClaimsSyncAllowed);
 		}
 		
 	}
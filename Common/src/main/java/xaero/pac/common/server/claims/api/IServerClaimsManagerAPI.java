@@ -89,6 +89,17 @@ public interface IServerClaimsManagerAPI
 	 */
 	public boolean isClaimable(@Nonnull ResourceLocation dimension);
 
+	/**
+	 * Gets the latest read-only snapshot of the claims and their effective protection settings.
+	 * <p>
+	 * Unlike the rest of this API, the snapshot can be used from any thread, e.g. by asynchronous addon tasks.
+	 * A new snapshot is published at the end of every server tick during which claims or player configs changed.
+	 *
+	 * @return the latest claims snapshot, not null
+	 */
+	@Nonnull
+	public IServerClaimsSnapshotAPI getReadSnapshot();
+
 	/**
 	 * Directly replaces the current claim state of a chunk.
 	 * <p>
@@ -0,0 +1,73 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.api;
+
+import net.minecraft.resources.ResourceLocation;
+import xaero.pac.common.claims.player.api.IPlayerChunkClaimAPI;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * API for a read-only snapshot of the server claims and their effective protection settings
+ * <p>
+ * Unlike the rest of the claims API, a snapshot is immutable and safe to use from any thread.
+ * A new snapshot is published at the end of every server tick during which the claims or player configs changed,
+ * so the data can be up to a tick old.
+ */
+public interface IServerClaimsSnapshotAPI {
+
+	/**
+	 * Gets the claim state of a chunk at the time of the snapshot.
+	 * <p>
+	 * Like the claims manager, ignores player claims in dimensions that are no longer claimable, unless the server
+	 * config allows existing claims there.
+	 *
+	 * @param dimension  the dimension of the chunk, not null
+	 * @param x  the X coordinate of the chunk
+	 * @param z  the Z coordinate of the chunk
+	 * @return the claim state, null if the chunk wasn't claimed
+	 */
+	@Nullable
+	public IPlayerChunkClaimAPI get(@Nonnull ResourceLocation dimension, int x, int z);
+
+	/**
+	 * Gets the effective value of a boolean or integer player config option for the config used by a claim state
+	 * from this snapshot, or for the wilderness config when the claim state is null.
+	 * <p>
+	 * Only boolean and integer options are included in snapshots. Null is returned for other options.
+	 * Null is also returned for claim states whose owner's player config hasn't been lazily loaded yet.
+	 *
+	 * @param claim  the claim state, null for the wilderness
+	 * @param option  the player config option, not null
+	 * @return the effective option value, null if the option or the claim state isn't included in this snapshot
+	 * @param <T>  the type of the option value
+	 */
+	@Nullable
+	public <T extends Comparable<T>> T getClaimConfigValue(@Nullable IPlayerChunkClaimAPI claim, @Nonnull IPlayerConfigOptionSpecAPI<T> option);
+
+	/**
+	 * Gets the version of this snapshot, which increases with every published snapshot.
+	 *
+	 * @return the snapshot version
+	 */
+	public long getVersion();
+
+}
@@ -19,10 +19,12 @@
 package xaero.pac.common.server.claims.api;
 
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
 import xaero.pac.common.claims.api.IDimensionClaimsManagerAPI;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 /**
@@ -48,4 +50,49 @@ public interface IServerDimensionClaimsManagerAPI
 	@Override
 	public WRC getRegion(int x, int z);
 
+	/**
+	 * Gets a {@link Stream} of the positions of all claimed chunks within a rectangular area in this dimension.
+	 * <p>
+	 * Only the 512x512 regions that contain claims are visited, so large areas are fine.
+	 * Player claims that are ignored because the dimension is unclaimable aren't included.
+	 *
+	 * @param left  the lowest X coordinate of the area
+	 * @param top  the lowest Z coordinate of the area
+	 * @param right  the highest X coordinate of the area
+	 * @param bottom  the highest Z coordinate of the area
+	 * @return a stream of claimed chunk positions, not null
+	 */
+	@Nonnull
+	public Stream<ChunkPos> getClaimedChunksInArea(int left, int top, int right, int bottom);
+
+	/**
+	 * Checks whether any chunk within a square radius of a chunk position is claimed in this dimension.
+	 * <p>
+	 * The radius is measured the same way as the maximum claim distance, so the checked area is a square.
+	 * Player claims that are ignored because the dimension is unclaimable don't count.
+	 *
+	 * @param x  the X coordinate of the center chunk
+	 * @param z  the Z coordinate of the center chunk
+	 * @param radius  the radius in chunks, not negative
+	 * @return whether a claim exists within the radius
+	 * @throws IllegalArgumentException if the radius is negative
+	 */
+	public boolean hasClaimWithin(int x, int z, int radius);
+
+	/**
+	 * Gets the position of the chunk claimed by a specified player that is closest to a chunk position in this dimension,
+	 * or null if the player has no claims in this dimension.
+	 * <p>
+	 * The distance is measured the same way as the maximum claim distance.
+	 * Player claims that are ignored because the dimension is unclaimable don't count.
+	 *
+	 * @param playerId  the claim owner UUID, not null
+	 * @param x  the X coordinate of the chunk to measure from
+	 * @param z  the Z coordinate of the chunk to measure from
+	 * @return the nearest claimed chunk position, null if there is none
+	 * @throws IllegalArgumentException if the player ID is null
+	 */
+	@Nullable
+	public ChunkPos getNearestClaimOf(@Nonnull UUID playerId, int x, int z);
+
 }
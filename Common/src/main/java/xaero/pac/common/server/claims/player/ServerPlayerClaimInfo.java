@@ -48,19 +48,25 @@ import java.util.stream.Stream;
 
 public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerClaimInfo, ServerPlayerClaimInfoManager> implements IServerPlayerClaimInfo<PlayerDimensionClaims>, ObjectManagerIOExpirableObject {
 	
-	private IPlayerConfig playerConfig;
+	private IPlayerConfig playerConfig;//resolved on first use so that loading claims doesn't load the configs of all claim owners
 	private boolean dirty;
 	protected boolean beenUsed;
 	private long lastConfirmedActivity;
 	private boolean hasBeenActive;
 	private boolean replacementInProgress;
 	private final Deque<PlayerClaimReplaceSpreadoutTask> replaceTaskQueue;
+	private int unclaimableDimensionClaimCount;
+	private int unclaimableDimensionForceloadCount;
 
-	public ServerPlayerClaimInfo(IPlayerConfig playerConfig, String username, UUID playerId, Map<ResourceLocation, PlayerDimensionClaims> claims,
+	public ServerPlayerClaimInfo(String username, UUID playerId, Map<ResourceLocation, PlayerDimensionClaims> claims,
 								 ServerPlayerClaimInfoManager manager, Deque<PlayerClaimReplaceSpreadoutTask> replaceSpreadoutTasks) {
 		super(username, playerId, claims, manager);
-		this.playerConfig = playerConfig;
 		this.replaceTaskQueue = replaceSpreadoutTasks;
+		for(Entry<ResourceLocation, PlayerDimensionClaims> entry : claims.entrySet())
+			if(!manager.isClaimable(entry.getKey())) {
+				unclaimableDimensionClaimCount += entry.getValue().getCount();
+				unclaimableDimensionForceloadCount += entry.getValue().getForceloadableCount();
+			}
 		if(manager.getExpirationHandler() != null)
 			confirmActivity(manager.getExpirationHandler().getServerInfo());
 	}
@@ -68,6 +74,12 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 	@Override
 	public void onClaim(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int x, int z) {
 		super.onClaim(configManager, dimension, claim, x, z);
+		//the claimable dimensions can't change without a restart, so the split is tracked right away
+		if(!manager.isClaimable(dimension)) {
+			unclaimableDimensionClaimCount++;
+			if(claim.isForceloadable())
+				unclaimableDimensionForceloadCount++;
+		}
 		if(claim.isForceloadable())
 			manager.getTicketManager().addTicket(configManager, dimension, playerId, x, z);
 		setDirty(true);
@@ -79,6 +91,11 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 	@Override
 	public void onUnclaim(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int x, int z) {
 		super.onUnclaim(configManager, dimension, claim, x, z);
+		if(!manager.isClaimable(dimension)) {
+			unclaimableDimensionClaimCount--;
+			if(claim.isForceloadable())
+				unclaimableDimensionForceloadCount--;
+		}
 		if(claim.isForceloadable())
 			manager.getTicketManager().removeTicket(configManager, dimension, playerId, x, z);
 		setDirty(true);
@@ -87,6 +104,53 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 			manager.getClaimsManager().getClaimsManagerSynchronizer().trySyncClaimLimits(configManager, playerId);
 	}
 
+	@Override
+	public int onClaimChunks(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int regionX, int regionZ, long[] chunkMask) {
+		int added = super.onClaimChunks(configManager, dimension, claim, regionX, regionZ, chunkMask);
+		if(!manager.isClaimable(dimension)) {
+			unclaimableDimensionClaimCount += added;
+			if(claim.isForceloadable())
+				unclaimableDimensionForceloadCount += added;
+		}
+		if(claim.isForceloadable())
+			updateTickets(configManager, dimension, regionX, regionZ, chunkMask, true);
+		setDirty(true);
+		beenUsed = true;
+		if(manager.isLoaded())
+			manager.getClaimsManager().getClaimsManagerSynchronizer().trySyncClaimLimits(configManager, playerId);
+		return added;
+	}
+
+	@Override
+	public int onUnclaimChunks(IPlayerConfigManager configManager, ResourceLocation dimension, PlayerChunkClaim claim, int regionX, int regionZ, long[] chunkMask) {
+		int removed = super.onUnclaimChunks(configManager, dimension, claim, regionX, regionZ, chunkMask);
+		if(!manager.isClaimable(dimension)) {
+			unclaimableDimensionClaimCount -= removed;
+			if(claim.isForceloadable())
+				unclaimableDimensionForceloadCount -= removed;
+		}
+		if(claim.isForceloadable())
+			updateTickets(configManager, dimension, regionX, regionZ, chunkMask, false);
+		setDirty(true);
+		beenUsed = true;
+		if(manager.isLoaded())
+			manager.getClaimsManager().getClaimsManagerSynchronizer().trySyncClaimLimits(configManager, playerId);
+		return removed;
+	}
+
+	private void updateTickets(IPlayerConfigManager configManager, ResourceLocation dimension, int regionX, int regionZ, long[] chunkMask, boolean add) {
+		for(int i = 0; i < chunkMask.length; i++)
+			for(long bits = chunkMask[i]; bits != 0; bits &= bits - 1) {
+				int index = (i << 6) | Long.numberOfTrailingZeros(bits);
+				int x = (regionX << 5) | (index >> 5);
+				int z = (regionZ << 5) | (index & 31);
+				if(add)
+					manager.getTicketManager().addTicket(configManager, dimension, playerId, x, z);
+				else
+					manager.getTicketManager().removeTicket(configManager, dimension, playerId, x, z);
+			}
+	}
+
 	@Override
 	public boolean isDirty() {
 		return dirty;
@@ -118,6 +182,26 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 		}
 	}
 
+	private boolean unclaimableClaimsAllowed() {
+		return Objects.equals(playerId, PlayerConfig.SERVER_CLAIM_UUID) || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get();
+	}
+
+	private boolean unclaimableForceloadsAllowed() {
+		return Objects.equals(playerId, PlayerConfig.SERVER_CLAIM_UUID) || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get() && ServerConfig.CONFIG.allowExistingForceloadsInUnclaimableDimensions.get();
+	}
+
+	@Override
+	protected int getTrackedClaimCount() {
+		int result = super.getTrackedClaimCount();
+		return unclaimableClaimsAllowed() ? result : result - unclaimableDimensionClaimCount;
+	}
+
+	@Override
+	protected int getTrackedForceloadCount() {
+		int result = super.getTrackedForceloadCount();
+		return unclaimableForceloadsAllowed() ? result : result - unclaimableDimensionForceloadCount;
+	}
+
 	@Override
 	protected Stream<Entry<ResourceLocation, PlayerDimensionClaims>> getDimensionClaimCountStream() {
 		return getStream();
@@ -125,14 +209,14 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 
 	@Override
 	protected Stream<Entry<ResourceLocation, PlayerDimensionClaims>> getDimensionForceloadCountStream() {
-		boolean unclaimableForceloadsAllowed = Objects.equals(playerId, PlayerConfig.SERVER_CLAIM_UUID) || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get() && ServerConfig.CONFIG.allowExistingForceloadsInUnclaimableDimensions.get();
+		boolean unclaimableForceloadsAllowed = unclaimableForceloadsAllowed();
 		return claims.entrySet().stream().filter(e -> unclaimableForceloadsAllowed || manager.isClaimable(e.getKey()));
 	}
 
 	@Nonnull
 	@Override
 	public Stream<Entry<ResourceLocation, PlayerDimensionClaims>> getStream() {
-		boolean unclaimableClaimsAllowed = Objects.equals(playerId, PlayerConfig.SERVER_CLAIM_UUID) || ServerConfig.CONFIG.allowExistingClaimsInUnclaimableDimensions.get();
+		boolean unclaimableClaimsAllowed = unclaimableClaimsAllowed();
 		return claims.entrySet().stream().filter(e -> unclaimableClaimsAllowed || manager.isClaimable(e.getKey()));
 	}
 
@@ -166,18 +250,18 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 
 	@Override
 	public String getClaimsName() {
-		return playerConfig.getEffective(PlayerConfigOptions.CLAIMS_NAME);
+		return getConfig().getEffective(PlayerConfigOptions.CLAIMS_NAME);
 	}
 
 	@Override
 	public int getClaimsColor() {
-		return playerConfig.getEffective(PlayerConfigOptions.CLAIMS_COLOR);
+		return getConfig().getEffective(PlayerConfigOptions.CLAIMS_COLOR);
 	}
 
 	@Nullable
 	@Override
 	public String getClaimsName(int subConfigIndex) {
-		IPlayerConfig subConfig = playerConfig.getEffectiveSubConfig(subConfigIndex);
+		IPlayerConfig subConfig = getConfig().getEffectiveSubConfig(subConfigIndex);
 		if(subConfig.getSubIndex() != subConfigIndex)
 			return null;
 		return subConfig.getRaw(PlayerConfigOptions.CLAIMS_NAME);
@@ -186,7 +270,7 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 	@Nullable
 	@Override
 	public Integer getClaimsColor(int subConfigIndex) {
-		IPlayerConfig subConfig = playerConfig.getEffectiveSubConfig(subConfigIndex);
+		IPlayerConfig subConfig = getConfig().getEffectiveSubConfig(subConfigIndex);
 		if(subConfig.getSubIndex() != subConfigIndex)
 			return null;
 		return subConfig.getRaw(PlayerConfigOptions.CLAIMS_COLOR);
@@ -195,7 +279,7 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 	@Nullable
 	@Override
 	public String getClaimsName(@Nonnull String subId) {
-		IPlayerConfig subConfig = playerConfig.getSubConfig(subId);
+		IPlayerConfig subConfig = getConfig().getSubConfig(subId);
 		if(subConfig == null)
 			return null;
 		return subConfig.getRaw(PlayerConfigOptions.CLAIMS_NAME);
@@ -203,7 +287,7 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 
 	@Override
 	public Integer getClaimsColor(@Nonnull String subId) {
-		IPlayerConfig subConfig = playerConfig.getSubConfig(subId);
+		IPlayerConfig subConfig = getConfig().getSubConfig(subId);
 		if(subConfig == null)
 			return null;
 		return subConfig.getRaw(PlayerConfigOptions.CLAIMS_COLOR);
@@ -239,6 +323,8 @@ public final class ServerPlayerClaimInfo extends PlayerClaimInfo<ServerPlayerCla
 
 	@Override
 	public IPlayerConfig getConfig() {
+		if(playerConfig == null)
+			playerConfig = manager.getConfig(playerId);
 		return playerConfig;
 	}
 
@@ -115,9 +115,13 @@ public final class ServerPlayerClaimInfoManager extends PlayerClaimInfoManager<S
 		return configManager.getLoadedConfig(playerId);
 	}
 
+	public boolean subConfigExists(UUID playerId, int subIndex) {
+		return configManager.subConfigExists(playerId, subIndex);
+	}
+
 	@Override
 	protected ServerPlayerClaimInfo create(String username, UUID playerId, Map<ResourceLocation, PlayerDimensionClaims> claims) {
-		return new ServerPlayerClaimInfo(getConfig(playerId), username, playerId, claims, this, new ArrayDeque<>());
+		return new ServerPlayerClaimInfo(username, playerId, claims, this, new ArrayDeque<>());
 	}
 
 	@Override
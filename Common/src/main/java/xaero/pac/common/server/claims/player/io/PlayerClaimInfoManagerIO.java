@@ -20,7 +20,6 @@ package xaero.pac.common.server.claims.player.io;
 
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.storage.LevelResource;
 import xaero.pac.OpenPartiesAndClaims;
 import xaero.pac.common.claims.player.PlayerChunkClaim;
@@ -35,13 +34,11 @@ import xaero.pac.common.server.io.IOThreadWorker;
 import xaero.pac.common.server.io.ObjectManagerIO;
 import xaero.pac.common.server.io.serialization.SerializationHandler;
 import xaero.pac.common.server.io.serialization.SerializedDataFileIO;
-import xaero.pac.common.server.player.config.IPlayerConfig;
 import xaero.pac.common.server.player.config.PlayerConfig;
 
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 public final class PlayerClaimInfoManagerIO<S>
@@ -111,7 +108,6 @@ public final class PlayerClaimInfoManagerIO<S>
 	protected void onObjectLoad(ServerPlayerClaimInfo loadedObject) {
 		//the result is not stored anywhere directly but the info in it is forwarded to the claims manager, which updates the player claims manager
 		ServerPlayerClaimInfo playerInfo = serverClaimsManager.getPlayerInfo(loadedObject.getPlayerId());
-		IPlayerConfig playerConfig = playerInfo.getConfig();
 		if(!Objects.equals(loadedObject.getPlayerId(), PlayerConfig.EXPIRED_CLAIM_UUID) && !Objects.equals(loadedObject.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID))
 			playerInfo.setPlayerUsername(loadedObject.getPlayerUsername());
 		playerInfo.setLastConfirmedActivity(loadedObject.getLastConfirmedActivity());
@@ -119,16 +115,13 @@ public final class PlayerClaimInfoManagerIO<S>
 				e -> {
 					ResourceLocation dim = e.getKey();
 					PlayerDimensionClaims dimensionClaims = e.getValue();
-					BiConsumer<PlayerChunkClaim, ChunkPos> claimConsumer = (claim, pos) -> {
-						serverClaimsManager.claim(dim, loadedObject.getPlayerId(), claim.getSubConfigIndex(), pos.x,
-								pos.z, claim.isForceloadable());
-					};
 					dimensionClaims.getStream().forEach(posList -> {
 						PlayerChunkClaim claim = posList.getClaimState();
-						if(claim.getSubConfigIndex() != -1 && !playerConfig.subConfigExists(claim.getSubConfigIndex()))
+						if(claim.getSubConfigIndex() != -1 && !manager.subConfigExists(loadedObject.getPlayerId(), claim.getSubConfigIndex()))//doesn't load a lazily loaded config
 							claim = new PlayerChunkClaim(claim.getPlayerId(), -1, claim.isForceloadable(), 0);//converting sub-claim to main claim
 						final PlayerChunkClaim finalClaim = claim;
-						posList.getStream().forEach(pos -> claimConsumer.accept(finalClaim, pos));
+						posList.forEach(pos -> serverClaimsManager.claim(dim, loadedObject.getPlayerId(), finalClaim.getSubConfigIndex(),
+								PlayerChunkClaim.getXFromLongCoordinates(pos), PlayerChunkClaim.getZFromLongCoordinates(pos), finalClaim.isForceloadable()));
 					});
 				}
 			);
@@ -66,10 +66,10 @@ public class PlayerDimensionClaimsNbtSerializer {
 			CompoundTag stateTag = playerChunkClaimDataNbtSerializer.serialize(claim);
 			posListTag.put("state", stateTag);
 			ListTag positionsTag = new ListTag();
-			posList.getStream().forEach(pos -> {
+			posList.forEach(pos -> {
 				CompoundTag posTag = new CompoundTag();
-				posTag.putInt("x", pos.x);
-				posTag.putInt("z", pos.z);
+				posTag.putInt("x", PlayerChunkClaim.getXFromLongCoordinates(pos));
+				posTag.putInt("z", PlayerChunkClaim.getZFromLongCoordinates(pos));
 				positionsTag.add(posTag);
 			});
 			posListTag.put("positions", positionsTag);
@@ -18,14 +18,15 @@
 
 package xaero.pac.common.server.claims.player.task;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TranslatableComponent;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.level.ChunkPos;
 import xaero.pac.common.claims.ClaimLocation;
 import xaero.pac.common.claims.player.IPlayerChunkClaim;
 import xaero.pac.common.claims.player.IPlayerClaimPosList;
 import xaero.pac.common.claims.player.IPlayerDimensionClaims;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.parties.party.IPartyPlayerInfo;
 import xaero.pac.common.parties.party.ally.IPartyAlly;
 import xaero.pac.common.parties.party.member.IPartyMember;
@@ -90,7 +91,7 @@ public class PlayerClaimReplaceSpreadoutTask implements IServerSpreadoutQueuedTa
 		} else {
 			Iterator<Map.Entry<ResourceLocation, IPlayerDimensionClaims<IPlayerClaimPosList>>> dimensionIterator = playerInfo.getFullStream().iterator();
 			Iterator<IPlayerClaimPosList> claimPosListIterator = null;
-			Iterator<ChunkPos> claimPosIterator = null;
+			LongIterator claimPosIterator = null;
 			List<ClaimLocation> locations = new ArrayList<>(perTick);
 			while (dimensionIterator.hasNext() && locations.size() < perTick) {
 				Map.Entry<ResourceLocation, IPlayerDimensionClaims<IPlayerClaimPosList>> entry = dimensionIterator.next();
@@ -101,10 +102,10 @@ public class PlayerClaimReplaceSpreadoutTask implements IServerSpreadoutQueuedTa
 					IPlayerClaimPosList claimPosList = claimPosListIterator.next();
 					IPlayerChunkClaim claimState = claimPosList.getClaimState();
 					if (matcher.test(claimState)) {
-						claimPosIterator = claimPosList.getStream().iterator();
+						claimPosIterator = claimPosList.iterator();
 						while (claimPosIterator.hasNext() && locations.size() < perTick) {
-							ChunkPos claimChunkPos = claimPosIterator.next();
-							locations.add(new ClaimLocation(dimId, claimChunkPos.x, claimChunkPos.z));
+							long claimPos = claimPosIterator.nextLong();
+							locations.add(new ClaimLocation(dimId, PlayerChunkClaim.getXFromLongCoordinates(claimPos), PlayerChunkClaim.getZFromLongCoordinates(claimPos)));
 							totalCount++;
 							tickCount++;
 						}
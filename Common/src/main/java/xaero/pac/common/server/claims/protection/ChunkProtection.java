@@ -20,6 +20,10 @@ package xaero.pac.common.server.claims.protection;
 
 import com.google.common.collect.Iterators;
 import com.mojang.datafixers.util.Either;
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -65,12 +69,15 @@ import xaero.pac.common.parties.party.ally.IPartyAlly;
 import xaero.pac.common.parties.party.member.IPartyMember;
 import xaero.pac.common.server.IServerData;
 import xaero.pac.common.server.claims.IServerClaimsManager;
+import xaero.pac.common.server.claims.IServerDimensionClaimsLookup;
 import xaero.pac.common.server.claims.protection.api.IChunkProtectionAPI;
 import xaero.pac.common.server.claims.protection.group.ChunkProtectionExceptionGroup;
+import xaero.pac.common.server.claims.protection.group.ChunkProtectionExceptionGroupIndex;
 import xaero.pac.common.server.config.ServerConfig;
 import xaero.pac.common.server.core.ServerCore;
 import xaero.pac.common.server.parties.party.IServerParty;
 import xaero.pac.common.server.parties.system.IPlayerPartySystemManager;
+import xaero.pac.common.server.parties.system.PlayerPartySystemManager;
 import xaero.pac.common.server.player.config.IPlayerConfig;
 import xaero.pac.common.server.player.config.IPlayerConfigManager;
 import xaero.pac.common.server.player.config.api.IPlayerConfigAPI;
@@ -165,12 +172,31 @@ public class ChunkProtection
 	private final Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> blockAccessEntityGroups;
 	private final Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityAccessEntityGroups;
 	private final Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> droppedItemAccessEntityGroups;
+	private final ChunkProtectionExceptionGroupIndex<Block> blockExceptionGroupIndex;
+	private final ChunkProtectionExceptionGroupIndex<EntityType<?>> entityExceptionGroupIndex;
+	private final ChunkProtectionExceptionGroupIndex<Item> itemExceptionGroupIndex;
+	private final ChunkProtectionExceptionGroupIndex<EntityType<?>> entityBarrierGroupIndex;
+	private int tagExceptionsVersion;
+	private final ChunkProtectionClaimCache claimCache;
+	private boolean claimCacheEnabled;
+	private final ClaimPairResultCache fluidBarrierTickCache = new ClaimPairResultCache();
+	private final ClaimPairResultCache pistonBarrierTickCache = new ClaimPairResultCache();
+	private final ClaimBarrierFilter.ChunkClaimGetter<Level> barrierClaimGetter = (level, chunkX, chunkZ) -> getClaim(serverData.getPlayerConfigs(), level, chunkX, chunkZ);
+	private final ClaimBarrierFilter.ClaimPairCheck fluidBarrierCheck = (fromClaim, toClaim) -> hitsAnotherClaim(serverData, fromClaim, toClaim, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FLUID_BARRIER, true);
+	private final ClaimBarrierFilter.ClaimPairCheck pistonBarrierCheck = (fromClaim, toClaim) -> hitsAnotherClaim(serverData, fromClaim, toClaim, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PISTON_BARRIER, true);
+	private final ClaimProfileGetter claimProfileGetter = claim -> {
+		IPlayerConfig config = getClaimConfig(serverData.getPlayerConfigs(), claim);
+		return config == null ? null : config.getProtectionProfile();
+	};
+	private long[] pistonChunkBuffer = new long[32];
 
 	private boolean ignoreChunkEnter = false;
-	private final Map<Entity, Set<ChunkPos>> cantPickupItemsInTickCache;
-	private final Map<Entity, Set<ChunkPos>> cantPickupXPInTickCache;
+	private final ChunkProtectionPickupCache cantPickupItemsCache;
+	private final ChunkProtectionPickupCache cantPickupXPCache;
 	private final Set<UUID> fullPasses;
 	private boolean fullPassesPaused;
+	private final Long2ByteMap explosionChunkResults = new Long2ByteOpenHashMap();//reused by each explosion, per chunk
+	private final Long2ObjectMap<IPlayerConfig> explosionChunkConfigs = new Long2ObjectOpenHashMap<>();
 	
 	private ChunkProtection(CM claimsManager, IPlayerPartySystemManager playerPartySystemManager, ChunkProtectionEntityHelper entityHelper,
 							ChunkProtectionExceptionSet<EntityType<?>> friendlyEntityList,
@@ -185,7 +211,7 @@ public class ChunkProtection
 							ChunkProtectionExceptionSet<EntityType<?>> entitiesAllowedToGrief,
 							ChunkProtectionExceptionSet<EntityType<?>> entitiesAllowedToGriefEntities, ChunkProtectionExceptionSet<EntityType<?>> entitiesAllowedToGriefDroppedItems, ChunkProtectionExceptionSet<EntityType<?>> nonBlockGriefingMobs, ChunkProtectionExceptionSet<EntityType<?>> entityGriefingMobs, ChunkProtectionExceptionSet<EntityType<?>> droppedItemGriefingMobs, Set<String> staticFakePlayerUsernames, Set<UUID> staticFakePlayerIds, Set<Class<?>> staticFakePlayerClassExceptions, ChunkProtectionExceptionSet<Item> additionalBannedItems,
 							ChunkProtectionExceptionSet<Item> completelyBannedItems,
-							ChunkProtectionExceptionSet<Item> itemUseProtectionExceptions, ChunkProtectionExceptionSet<EntityType<?>> completelyDisabledEntities, Map<String, ChunkProtectionExceptionGroup<Block>> blockExceptionGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityExceptionGroups, Map<String, ChunkProtectionExceptionGroup<Item>> itemExceptionGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityBarrierGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> blockAccessEntityGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityAccessEntityGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> droppedItemAccessEntityGroups, Map<Entity, Set<ChunkPos>> cantPickItemsCache, Map<Entity, Set<ChunkPos>> cantPickupXPInTickCache, Set<UUID> fullPasses) {
+							ChunkProtectionExceptionSet<Item> itemUseProtectionExceptions, ChunkProtectionExceptionSet<EntityType<?>> completelyDisabledEntities, Map<String, ChunkProtectionExceptionGroup<Block>> blockExceptionGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityExceptionGroups, Map<String, ChunkProtectionExceptionGroup<Item>> itemExceptionGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityBarrierGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> blockAccessEntityGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> entityAccessEntityGroups, Map<String, ChunkProtectionExceptionGroup<EntityType<?>>> droppedItemAccessEntityGroups, ChunkProtectionPickupCache cantPickupItemsCache, ChunkProtectionPickupCache cantPickupXPCache, Set<UUID> fullPasses, ChunkProtectionClaimCache claimCache) {
 		this.claimsManager = claimsManager;
 		this.playerPartySystemManager = playerPartySystemManager;
 		this.entityHelper = entityHelper;
@@ -218,12 +244,17 @@ public class ChunkProtection
 		this.entityExceptionGroups = entityExceptionGroups;
 		this.itemExceptionGroups = itemExceptionGroups;
 		this.entityBarrierGroups = entityBarrierGroups;
+		this.blockExceptionGroupIndex = ChunkProtectionExceptionGroupIndex.of(blockExceptionGroups, ExceptionElementType.BLOCK);
+		this.entityExceptionGroupIndex = ChunkProtectionExceptionGroupIndex.of(entityExceptionGroups, ExceptionElementType.ENTITY_TYPE);
+		this.itemExceptionGroupIndex = ChunkProtectionExceptionGroupIndex.of(itemExceptionGroups, ExceptionElementType.ITEM);
+		this.entityBarrierGroupIndex = ChunkProtectionExceptionGroupIndex.of(entityBarrierGroups, ExceptionElementType.ENTITY_TYPE);
 		this.blockAccessEntityGroups = blockAccessEntityGroups;
 		this.entityAccessEntityGroups = entityAccessEntityGroups;
 		this.droppedItemAccessEntityGroups = droppedItemAccessEntityGroups;
-		this.cantPickupItemsInTickCache = cantPickItemsCache;
-		this.cantPickupXPInTickCache = cantPickupXPInTickCache;
+		this.cantPickupItemsCache = cantPickupItemsCache;
+		this.cantPickupXPCache = cantPickupXPCache;
 		this.fullPasses = fullPasses;
+		this.claimCache = claimCache;
 	}
 
 	public void setServerData(IServerData<CM, ?> serverData) {
@@ -263,11 +294,12 @@ public class ChunkProtection
 	}
 
 	private InteractionTargetResult entityAccessCheck(IPlayerConfigManager playerConfigs, IPlayerConfig claimConfig, Entity e, Entity from, Entity accessor, UUID accessorId, boolean attack, boolean emptyHand, boolean checkingInverted) {
+		ChunkProtectionProfile profile = claimConfig.getProtectionProfile();
 		if(e instanceof Player) {
-			boolean chunkProtected = claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
+			boolean chunkProtected = profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
 			InteractionTargetResult result = InteractionTargetResult.ALLOW;
 			if (chunkProtected) {
-				Entity usedOptionBase = claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_REDIRECT) ? accessor : from;
+				Entity usedOptionBase = profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_REDIRECT) ? accessor : from;
 				if (usedOptionBase == null) {
 					if (hasAnEnabledOption(claimConfig, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_FROM_PLAYERS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_FROM_MOBS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_FROM_OTHER))
 						return InteractionTargetResult.PROTECT;
@@ -278,14 +310,14 @@ public class ChunkProtection
 							usedOptionBase instanceof LivingEntity ?
 								PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_FROM_MOBS :
 								PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYERS_FROM_OTHER;
-					if (claimConfig.getEffective(option))
+					if (profile.getBoolean(option))
 						return InteractionTargetResult.PROTECT;
 				}
 				result = InteractionTargetResult.PASS;
 			}
 			if(accessor instanceof Player && !checkingInverted) {
 				//gotta check whether the attacked player can attack back the same way (melee/ranged)
-				return entityAccessCheck(playerConfigs, getClaimConfig(playerConfigs, claimsManager.get(accessor.getLevel().dimension().location(), accessor.chunkPosition())), accessor, accessor == from ? e : from, e, null, attack, emptyHand, true);
+				return entityAccessCheck(playerConfigs, getClaimConfig(playerConfigs, claimsManager.getDimensionLookup(accessor.getLevel()).get(accessor.chunkPosition())), accessor, accessor == from ? e : from, e, null, attack, emptyHand, true);
 			}
 			return result;
 		}
@@ -293,7 +325,7 @@ public class ChunkProtection
 			return InteractionTargetResult.ALLOW;
 		boolean isProtectable = isProtectable(e);
 		if(isProtectable){
-			if(accessor instanceof Raider raider && raider.canJoinRaid() && claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS))//based on the accessor on purpose;
+			if(accessor instanceof Raider raider && raider.canJoinRaid() && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS))//based on the accessor on purpose;
 				return InteractionTargetResult.PROTECT;
 		} else if(attack || emptyHand)
 			return InteractionTargetResult.ALLOW;
@@ -308,14 +340,14 @@ public class ChunkProtection
 			return InteractionTargetResult.ALLOW;
 		int exceptionAccessLevel = getExceptionAccessLevel(claimConfig, accessor, accessorId);
 		boolean groupsAllowPass = false;
-		for (ChunkProtectionExceptionGroup<EntityType<?>> group : entityExceptionGroups.values()) {
+		for (ChunkProtectionExceptionGroup<EntityType<?>> group : entityExceptionGroupIndex.getGroupsContaining(entityType)) {
 			if ((group.getType() == ChunkProtectionExceptionType.BREAK) != attack)
 				continue;
 			if(!emptyHand && group.getType() == ChunkProtectionExceptionType.EMPTY_HAND_INTERACTION)
 				continue;
 			if(!isProtectable && group.getType() != ChunkProtectionExceptionType.ANY_ITEM_INTERACTION)//only ALLOW groups matter if the entity isn't protectable
 				continue;
-			if (exceptionAccessLevel <= claimConfig.getEffective(group.getPlayerConfigOption()) && group.contains(entityType)) {
+			if (exceptionAccessLevel <= profile.getInt(group.getPlayerConfigOption())) {
 				if (attack || emptyHand || group.getType() == ChunkProtectionExceptionType.ANY_ITEM_INTERACTION)
 					return InteractionTargetResult.ALLOW;
 				groupsAllowPass = true;
@@ -331,7 +363,7 @@ public class ChunkProtection
 	}
 
 	private IPlayerConfigOptionSpecAPI<Integer> getUsedEntityProtectionOption(IPlayerConfig claimConfig, Entity entity, Entity accessor){
-		Entity usedOptionBase = !(entity instanceof Player) && claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_REDIRECT) ? accessor : entity;
+		Entity usedOptionBase = !(entity instanceof Player) && claimConfig.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_REDIRECT) ? accessor : entity;
 		if(usedOptionBase == null)
 			return getToughestProtectionLevelOption(claimConfig, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_PLAYERS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_MOBS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_OTHER);
 		return usedOptionBase instanceof Player ?
@@ -342,7 +374,7 @@ public class ChunkProtection
 	}
 
 	private IPlayerConfigOptionSpecAPI<Integer> getUsedBlockProtectionOption(IPlayerConfig claimConfig, Entity entity, Entity accessor){
-		Entity usedOptionBase = !(entity instanceof Player) && claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_REDIRECT) ? accessor : entity;
+		Entity usedOptionBase = !(entity instanceof Player) && claimConfig.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_REDIRECT) ? accessor : entity;
 		if(usedOptionBase == null)
 			return getToughestProtectionLevelOption(claimConfig, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_PLAYERS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_MOBS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_OTHER);
 		return usedOptionBase instanceof Player ?
@@ -354,7 +386,7 @@ public class ChunkProtection
 
 	private boolean checkProtectionLeveledOption(IPlayerConfigOptionSpecAPI<Integer> option, IPlayerConfig claimConfig, Entity accessor, UUID accessorId){
 		//nobody -> everyone -> not party -> not allies
-		int optionValue = claimConfig.getEffective(option);
+		int optionValue = claimConfig.getProtectionProfile().getInt(option);
 		if(optionValue <= 0)
 			return false;
 		if(optionValue == 1)
@@ -365,7 +397,7 @@ public class ChunkProtection
 
 	private boolean checkExceptionLeveledOption(IPlayerConfigOptionSpecAPI<Integer> option, IPlayerConfig claimConfig, Entity accessor, UUID accessorId){
 		//nobody -> party -> allies -> everyone
-		int optionValue = claimConfig.getEffective(option);
+		int optionValue = claimConfig.getProtectionProfile().getInt(option);
 		if(optionValue >= 3)
 			return true;
 		if(optionValue == 0)
@@ -444,7 +476,11 @@ public class ChunkProtection
 	public boolean hasChunkAccess(IPlayerConfigAPI claimConfig, Entity accessor, UUID accessorId) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return true;
-		if(claimConfig == null || !claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		if(claimConfig == null)
+			return true;
+		//configs from API implementers don't have a protection profile
+		ChunkProtectionProfile profile = claimConfig instanceof IPlayerConfig config ? config.getProtectionProfile() : null;
+		if(!getEffectiveBoolean(claimConfig, profile, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return true;
 		if(accessor != null) {
 			if(accessorId == null)
@@ -470,11 +506,18 @@ public class ChunkProtection
 			return false;
 		if (claimConfig.getPlayerId() == null)
 			return false;
-		if (claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_PARTY) && claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_ALLY_PARTIES))
+		boolean protectedFromParty = getEffectiveBoolean(claimConfig, profile, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_PARTY);
+		boolean protectedFromAllies = getEffectiveBoolean(claimConfig, profile, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_ALLY_PARTIES);
+		if (protectedFromParty && protectedFromAllies)
 			return false;
-		if(!playerPartySystemManager.isInAParty(claimConfig.getPlayerId()))
+		int relationship = playerPartySystemManager.getRelationship(claimConfig.getPlayerId(), accessorId);
+		if((relationship & PlayerPartySystemManager.RELATIONSHIP_IN_A_PARTY) == 0)
 			return false;
-		return !claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_PARTY) && playerPartySystemManager.areInSameParty(claimConfig.getPlayerId(), accessorId) || !claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_ALLY_PARTIES) && playerPartySystemManager.isPlayerAllying(claimConfig.getPlayerId(), accessorId);
+		return !protectedFromParty && (relationship & PlayerPartySystemManager.RELATIONSHIP_SAME_PARTY) != 0 || !protectedFromAllies && (relationship & PlayerPartySystemManager.RELATIONSHIP_ALLYING) != 0;
+	}
+
+	private static boolean getEffectiveBoolean(IPlayerConfigAPI config, ChunkProtectionProfile profile, IPlayerConfigOptionSpecAPI<Boolean> option) {
+		return profile != null ? profile.getBoolean(option) : config.getEffective(option);
 	}
 
 	@Override
@@ -497,11 +540,12 @@ public class ChunkProtection
 		}
 		if(accessorId.equals(claimConfig.getPlayerId()))
 			return 0;//owner
-		if(!playerPartySystemManager.isInAParty(claimConfig.getPlayerId()))
+		int relationship = playerPartySystemManager.getRelationship(claimConfig.getPlayerId(), accessorId);
+		if((relationship & PlayerPartySystemManager.RELATIONSHIP_IN_A_PARTY) == 0)
 			return 3;//everyone
-		if(playerPartySystemManager.areInSameParty(claimConfig.getPlayerId(), accessorId))
+		if((relationship & PlayerPartySystemManager.RELATIONSHIP_SAME_PARTY) != 0)
 			return 1;//party
-		if(playerPartySystemManager.isPlayerAllying(claimConfig.getPlayerId(), accessorId))
+		if((relationship & PlayerPartySystemManager.RELATIONSHIP_ALLYING) != 0)
 			return 2;//allies
 		return 3;//everyone
 	}
@@ -583,6 +627,30 @@ public class ChunkProtection
 		return onBlockInteraction(serverData, blockState, entity, InteractionHand.MAIN_HAND, null, world, pos, Direction.UP, true, messages);
 	}
 	
+	private ChunkProtectionClaimCache.Entry resolveClaim(IPlayerConfigManager playerConfigs, Level level, int chunkX, int chunkZ) {
+		if(!claimCacheEnabled) {
+			IPlayerChunkClaim claim = claimsManager.getDimensionLookup(level).get(chunkX, chunkZ);
+			return new ChunkProtectionClaimCache.Entry(claim, getClaimConfig(playerConfigs, claim));
+		}
+		ResourceLocation dimension = level.dimension().location();
+		ChunkProtectionClaimCache.Entry entry = claimCache.get(dimension, chunkX, chunkZ, playerConfigs.getConfigVersion());
+		if(entry == null) {
+			IPlayerChunkClaim claim = claimsManager.getDimensionLookup(level).get(chunkX, chunkZ);
+			entry = claimCache.put(dimension, chunkX, chunkZ, claim, getClaimConfig(playerConfigs, claim));
+		}
+		return entry;
+	}
+
+	private IPlayerChunkClaim getClaim(IPlayerConfigManager playerConfigs, Level level, int chunkX, int chunkZ) {
+		if(!claimCacheEnabled)
+			return claimsManager.getDimensionLookup(level).get(chunkX, chunkZ);
+		return resolveClaim(playerConfigs, level, chunkX, chunkZ).getClaim();
+	}
+
+	public ChunkProtectionClaimCache getClaimCache() {
+		return claimCache;
+	}
+
 	public IPlayerConfig getClaimConfig(IPlayerConfigManager playerConfigs, IPlayerChunkClaim claim) {
 		IPlayerConfig mainConfig = playerConfigs.getLoadedConfig(claim == null ? null : claim.getPlayerId());
 		if(claim == null)
@@ -611,12 +679,12 @@ public class ChunkProtection
 				return InteractionTargetResult.ALLOW;
 			int exceptionAccessLevel = getExceptionAccessLevel(config, accessor, accessorId);
 			boolean groupsAllowPass = false;
-			for (ChunkProtectionExceptionGroup<Block> group : blockExceptionGroups.values()) {
+			for (ChunkProtectionExceptionGroup<Block> group : blockExceptionGroupIndex.getGroupsContaining(block)) {
 				if ((group.getType() == ChunkProtectionExceptionType.BREAK) != breaking)
 					continue;
 				if(!emptyHand && group.getType() == ChunkProtectionExceptionType.EMPTY_HAND_INTERACTION)
 					continue;
-				if (exceptionAccessLevel <= config.getEffective(group.getPlayerConfigOption()) && group.contains(block)) {
+				if (exceptionAccessLevel <= config.getProtectionProfile().getInt(group.getPlayerConfigOption())) {
 					if(breaking || emptyHand || group.getType() == ChunkProtectionExceptionType.ANY_ITEM_INTERACTION)
 						return InteractionTargetResult.ALLOW;
 					groupsAllowPass = true;
@@ -673,7 +741,7 @@ public class ChunkProtection
 		boolean itemUseAtTargetAllowed = false;
 		boolean isPlayer = entity instanceof Player;
 		ChunkPos chunkPos = new ChunkPos(pos);
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), chunkPos);
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(chunkPos);
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		if(!isPlayer || !isAllowedStaticFakePlayerAction(serverData, (Player)entity, pos)){
 			IPlayerConfig config = getClaimConfig(playerConfigs, claim);
@@ -692,7 +760,7 @@ public class ChunkProtection
 				BlockPos offsetPos = pos.offset(direction.getNormal());
 				ChunkPos offsetChunkPos = new ChunkPos(offsetPos);
 				if(!chunkPos.equals(offsetChunkPos)) {
-					IPlayerChunkClaim offsetClaim = claimsManager.get(world.dimension().location(), offsetChunkPos);
+					IPlayerChunkClaim offsetClaim = claimsManager.getDimensionLookup(world).get(offsetChunkPos);
 					if(offsetClaim != null /*not worried about wilderness*/ && claim != offsetClaim) {
 						UUID claimOwnerId = claim == null ? null : claim.getPlayerId();
 						UUID offsetClaimOwnerId = offsetClaim.getPlayerId();
@@ -732,7 +800,7 @@ public class ChunkProtection
 		if(entity != null && hasActiveFullPass(entity))//uses custom protection
 			return false;
 		ChunkPos chunkPos = new ChunkPos(pos);
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), chunkPos);
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(chunkPos);
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 		Entity accessor;
@@ -801,27 +869,24 @@ public class ChunkProtection
 		if(isItemUseRestricted(itemStack) && !(item instanceof BucketItem) && !(item instanceof SolidBucketItem)) {
 			IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 			ChunkPos chunkPos = new ChunkPos(pos);
-			boolean shouldCheckGroups = false;
-			for (ChunkProtectionExceptionGroup<Item> group : itemExceptionGroups.values()) {
-				if (group.contains(itemStack.getItem())){
-					shouldCheckGroups = true;
-					break;
-				}
-			}
+			List<ChunkProtectionExceptionGroup<Item>> itemGroups = itemExceptionGroupIndex.getGroupsContaining(itemStack.getItem());
+			boolean shouldCheckGroups = !itemGroups.isEmpty();
+			IServerDimensionClaimsLookup<?> claimsLookup = claimsManager.getDimensionLookup(player.getLevel());
 			for(int i = -1; i < 2; i++)
 				j_loop: for(int j = -1; j < 2; j++) {//checking neighboring chunks too because of items that affect a high range
 					ChunkPos offsetChunkPos = new ChunkPos(chunkPos.x + i, chunkPos.z + j);
-					IPlayerChunkClaim claim = claimsManager.get(player.getLevel().dimension().location(), offsetChunkPos);
+					IPlayerChunkClaim claim = claimsLookup.get(offsetChunkPos);
 					boolean isCurrentChunk = i == 0 && j == 0;
 					if (isCurrentChunk || claim != null){//wilderness neighbors don't have to be protected this much
 						IPlayerConfig config = getClaimConfig(playerConfigs, claim);
+						ChunkProtectionProfile profile = config.getProtectionProfile();
 						if(checkProtectionLeveledOption(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_USE, config, player, null) &&
-								(isCurrentChunk || config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NEIGHBOR_CHUNKS_ITEM_USE))
+								(isCurrentChunk || profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NEIGHBOR_CHUNKS_ITEM_USE))
 								&& !hasChunkAccess(config, player, null) && !isAllowedStaticFakePlayerAction(serverData, player, offsetChunkPos.getMiddleBlockPosition(0))) {
 							if(shouldCheckGroups) {
 								int exceptionAccessLevel = getExceptionAccessLevel(config, player, null);
-								for (ChunkProtectionExceptionGroup<Item> group : itemExceptionGroups.values()) {
-									if (exceptionAccessLevel <= config.getEffective(group.getPlayerConfigOption()) && group.contains(itemStack.getItem()))
+								for (ChunkProtectionExceptionGroup<Item> group : itemGroups) {
+									if (exceptionAccessLevel <= profile.getInt(group.getPlayerConfigOption()))
 										continue j_loop;
 								}
 							}
@@ -860,10 +925,10 @@ public class ChunkProtection
 		for(int i = -1; i < 2; i++)
 			for(int j = -1; j < 2; j++) {
 				ChunkPos chunkPos = new ChunkPos(entity.chunkPosition().x + i, entity.chunkPosition().z + j);
-				IPlayerChunkClaim claim = claimsManager.get(entity.getLevel().dimension().location(), chunkPos);
+				IPlayerChunkClaim claim = claimsManager.getDimensionLookup(entity.getLevel()).get(chunkPos);
 				if(i == 0 && j == 0 || claim != null) {//wilderness neighbors don't have to be protected this much
 					IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-					if (config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_MOB_GRIEFING_OVERRIDE) &&
+					if (config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_MOB_GRIEFING_OVERRIDE) &&
 							!canGrief(entity, config, accessor, accessorId, blocks, entities, items) &&
 							!hasChunkAccess(config, accessor, accessorId))
 						return true;
@@ -887,7 +952,7 @@ public class ChunkProtection
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		Level targetLevel = target.getLevel();
 		ServerLevel targetServerLevel = ServerLevelHelper.getServerLevel(targetLevel);
-		IPlayerChunkClaim claim = claimsManager.get(target.getLevel().dimension().location(), target.chunkPosition());
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(target.getLevel()).get(target.chunkPosition());
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 		if(heldItem == null)
 			heldItem = hand != null && interactingEntity instanceof LivingEntity living ? living.getItemInHand(hand) : ItemStack.EMPTY;
@@ -948,28 +1013,59 @@ public class ChunkProtection
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerChunkClaim claim = claimsManager.get(target.getLevel().dimension().location(), target.chunkPosition());
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(target.getLevel()).get(target.chunkPosition());
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		return config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) &&
-				config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_FIRE) &&
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		return profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) &&
+				profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_FIRE) &&
 				isProtectable(target);
 	}
 
 	private boolean blockedByBarrierGroups(IPlayerConfig config, Entity entity, Entity accessor, UUID accessorId){
 		int exceptionAccessLevel = getExceptionAccessLevel(config, accessor, accessorId);
-		for (ChunkProtectionExceptionGroup<EntityType<?>> group : entityBarrierGroups.values()) {
-			int configValue = config.getEffective(group.getPlayerConfigOption());
-			if (configValue > 0 && exceptionAccessLevel >= configValue && group.contains(entity.getType()))
+		for (ChunkProtectionExceptionGroup<EntityType<?>> group : entityBarrierGroupIndex.getGroupsContaining(entity.getType())) {
+			int configValue = config.getProtectionProfile().getInt(group.getPlayerConfigOption());
+			if (configValue > 0 && exceptionAccessLevel >= configValue)
 				return true;
 		}
 		return false;
 	}
 
+	private boolean hasBarrierForEntityType(IPlayerConfig config, EntityType<?> entityType){
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		int typeId = Registry.ENTITY_TYPE.getId(entityType);
+		byte[] memo = profile.getEntityBarrierMemo(tagExceptionsVersion, Registry.ENTITY_TYPE.size());
+		boolean memoized = typeId >= 0 && typeId < memo.length;
+		if(memoized && memo[typeId] != ChunkProtectionProfile.ENTITY_BARRIER_UNKNOWN)
+			return memo[typeId] == ChunkProtectionProfile.ENTITY_BARRIER_PRESENT;
+		boolean result = forcedEntityClaimBarrierList.contains(entityType);
+		if(!result) {
+			for (ChunkProtectionExceptionGroup<EntityType<?>> group : entityBarrierGroupIndex.getGroupsContaining(entityType)) {
+				if (profile.getInt(group.getPlayerConfigOption()) > 0) {
+					result = true;
+					break;
+				}
+			}
+		}
+		if(memoized)
+			memo[typeId] = result ? ChunkProtectionProfile.ENTITY_BARRIER_PRESENT : ChunkProtectionProfile.ENTITY_BARRIER_ABSENT;
+		return result;
+	}
+
 	private boolean shouldPreventEntityChunkEntry(IServerData<CM, ?> serverData, IPlayerConfigManager playerConfigs, IPlayerChunkClaim toClaim, IPlayerChunkClaim fromClaim, IPlayerConfig config, IPlayerConfig fromConfig, Entity entity, SectionPos newSection, SectionPos oldSection){
 		if(toClaim == null && newSection != null)
-			toClaim = claimsManager.get(entity.getLevel().dimension().location(), newSection.x(), newSection.z());
+			toClaim = getClaim(playerConfigs, entity.getLevel(), newSection.x(), newSection.z());
+		if(fromClaim == null && oldSection != null)
+			fromClaim = getClaim(playerConfigs, entity.getLevel(), oldSection.x(), oldSection.z());
+		if(toClaim == null && (fromClaim == null || ServerCore.getLootOwner(entity) == null))
+			return false;//entering the wilderness can only be prevented for loot
 		if(config == null)
 			config = getClaimConfig(playerConfigs, toClaim);
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		if(toClaim != null && !(entity instanceof ItemEntity) && ServerCore.getLootOwner(entity) == null &&
+				!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS) &&
+				!hasBarrierForEntityType(config, entity.getType()))
+			return false;//nothing below can block this entity, so the accessor doesn't have to be resolved
 		ServerLevel entityServerLevel = ServerLevelHelper.getServerLevel(entity.getLevel());
 		Entity accessor;
 		UUID accessorId;
@@ -982,9 +1078,6 @@ public class ChunkProtection
 			accessorId = accessor.getUUID();
 		}
 
-		if(fromClaim == null && oldSection != null)
-			fromClaim = claimsManager.get(entity.getLevel().dimension().location(), oldSection.x(), oldSection.z());
-
 		boolean enteringProtectedChunk = toClaim != null && !hasChunkAccess(config, accessor, accessorId);//wilderness is fine
 		boolean isBlockedEntity = enteringProtectedChunk && forcedEntityClaimBarrierList.contains(entity.getType());
 		boolean madeAnException = false;
@@ -1002,7 +1095,7 @@ public class ChunkProtection
 				madeAnException = true;
 			}
 			if (!isBlockedEntity)
-				isBlockedEntity = accessor instanceof Raider raider && raider.canJoinRaid() && config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS);
+				isBlockedEntity = accessor instanceof Raider raider && raider.canJoinRaid() && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS);
 			if (!isBlockedEntity && entity instanceof ItemEntity itemEntity) {
 				UUID throwerId = itemEntity.getThrower();
 				if (throwerId != null) {
@@ -1074,40 +1167,86 @@ public class ChunkProtection
 		DamageSource damageSource = explosion.getDamageSource();
 		if(damageSource.getEntity() != null && hasActiveFullPass(damageSource.getEntity()))
 			return;
-		Iterator<BlockPos> positions = affectedBlocks.iterator();
-		while(positions.hasNext()) {
-			BlockPos blockPos = positions.next();
-			ChunkPos chunkPos = new ChunkPos(blockPos);
-			IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), chunkPos);
-			IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-			if(config != null && (!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) || !config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_EXPLOSIONS)))
-				continue;
-			if(config != null)
-				positions.remove();
-		}
-		Iterator<Entity> entities = affectedEntities.iterator();
+		IServerDimensionClaimsLookup<?> claimsLookup = claimsManager.getDimensionLookup(world);
+		//resolving claims once per chunk instead of once per block/entity, then filtering in a single pass
+		removeExplosionProtectedBlocks(affectedBlocks, explosionChunkResults, claimsLookup, claimProfileGetter);
+		if(affectedEntities.isEmpty())
+			return;
+		Long2ObjectMap<IPlayerConfig> chunkConfigs = explosionChunkConfigs;
+		chunkConfigs.clear();
 		Entity directDamager = damageSource.getDirectEntity();
 		Entity damager = damageSource.getEntity();
-		while(entities.hasNext()) {
-			Entity entity = entities.next();
-			IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), entity.chunkPosition());
-			IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-			if(config != null && !config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
-				config = null;
-			if(config != null && config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_EXPLOSIONS) &&
-					(!(damager instanceof Player) && isProtectable(entity) ||
-							entityAccessCheck(playerConfigs, config, entity, directDamager, damager, null, true, true) == InteractionTargetResult.PROTECT)
-					) {
-				entities.remove();
+		affectedEntities.removeIf(entity -> {
+			ChunkPos chunkPos = entity.chunkPosition();
+			long chunkKey = chunkPos.toLong();
+			IPlayerConfig config = chunkConfigs.get(chunkKey);
+			if(config == null && !chunkConfigs.containsKey(chunkKey)) {
+				IPlayerChunkClaim claim = claimsLookup.get(chunkPos.x, chunkPos.z);
+				config = getClaimConfig(playerConfigs, claim);
+				ChunkProtectionProfile profile = config == null ? null : config.getProtectionProfile();
+				if(profile != null && (!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) || !profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_EXPLOSIONS)))
+					config = null;
+				chunkConfigs.put(chunkKey, config);
 			}
-		}
+			return config != null &&
+					(!(damager instanceof Player) && isProtectable(entity) ||
+							entityAccessCheck(playerConfigs, config, entity, directDamager, damager, null, true, true) == InteractionTargetResult.PROTECT);
+		});
+		chunkConfigs.clear();
 	}
 	
+	/**
+	 * Removes the blocks in chunks matching the filter from the list in a single pass.
+	 * The filter is tested once per chunk. The results are kept in the provided reusable map, which is cleared afterwards.
+	 */
+	static void removeBlocksInChunks(List<BlockPos> blocks, Long2ByteMap chunkResults, ChunkFilter chunkFilter) {
+		chunkResults.clear();
+		chunkResults.defaultReturnValue((byte) -1);
+		blocks.removeIf(blockPos -> {
+			int chunkX = blockPos.getX() >> 4;
+			int chunkZ = blockPos.getZ() >> 4;
+			long chunkKey = ChunkPos.asLong(chunkX, chunkZ);
+			byte result = chunkResults.get(chunkKey);
+			if(result == -1) {
+				result = (byte) (chunkFilter.test(chunkX, chunkZ) ? 1 : 0);
+				chunkResults.put(chunkKey, result);
+			}
+			return result == 1;
+		});
+		chunkResults.clear();
+	}
+
+	@FunctionalInterface
+	interface ChunkFilter {
+
+		boolean test(int chunkX, int chunkZ);
+
+	}
+
+	/**
+	 * Removes the blocks in the chunks that are protected from explosions by their claims from the list.
+	 * The claim and its protection profile are resolved once per chunk.
+	 */
+	static void removeExplosionProtectedBlocks(List<BlockPos> blocks, Long2ByteMap chunkResults, IServerDimensionClaimsLookup<?> claimsLookup, ClaimProfileGetter profileGetter) {
+		removeBlocksInChunks(blocks, chunkResults, (chunkX, chunkZ) -> {
+			ChunkProtectionProfile profile = profileGetter.get(claimsLookup.get(chunkX, chunkZ));
+			return profile != null && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_EXPLOSIONS);
+		});
+	}
+
+	@FunctionalInterface
+	interface ClaimProfileGetter {
+
+		@Nullable
+		ChunkProtectionProfile get(@Nullable IPlayerChunkClaim claim);
+
+	}
+
 	public boolean onChorusFruitTeleport(IServerData<CM, ?> serverData, Vec3 pos, Entity entity) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
 		ChunkPos chunkPos = new ChunkPos(new BlockPos(pos));
-		IPlayerChunkClaim claim = claimsManager.get(entity.getLevel().dimension().location(), chunkPos);
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(entity.getLevel()).get(chunkPos);
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig claimConfig = getClaimConfig(playerConfigs, claim);
 		Entity accessor;
@@ -1133,10 +1272,11 @@ public class ChunkProtection
 		if(!ServerConfig.CONFIG.claimsEnabled.get() || bolt.getCause() == null)
 			return;
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
+		IServerDimensionClaimsLookup<?> claimsLookup = claimsManager.getDimensionLookup(bolt.getLevel());
 		for(int i = -1; i < 2; i++)
 			for(int j = -1; j < 2; j++) {
 				ChunkPos chunkPos = new ChunkPos(bolt.chunkPosition().x + i, bolt.chunkPosition().z + j);
-				IPlayerChunkClaim claim = claimsManager.get(bolt.getLevel().dimension().location(), chunkPos);
+				IPlayerChunkClaim claim = claimsLookup.get(chunkPos);
 				if(i == 0 && j == 0 || claim != null) {//wilderness neighbors don't have to be protected this much
 					IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 					if (checkProtectionLeveledOption(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYER_LIGHTNING, config, bolt.getCause(), null) &&
@@ -1151,16 +1291,16 @@ public class ChunkProtection
 	public boolean onFireSpread(IServerData<CM, ?> serverData, ServerLevel world, BlockPos pos){
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), new ChunkPos(pos));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerConfig claimConfig = getClaimConfig(playerConfigs, claim);
-		return claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_FIRE_SPREAD);
+		IPlayerConfig claimConfig = resolveClaim(playerConfigs, world, pos.getX() >> 4, pos.getZ() >> 4).getConfig();
+		ChunkProtectionProfile profile = claimConfig.getProtectionProfile();
+		return profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FROM_FIRE_SPREAD);
 	}
 
 	public boolean onCropTrample(IServerData<CM, ?> serverData, Entity entity, BlockPos pos) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(entity.level.dimension().location(), new ChunkPos(pos));
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(entity.level).get(new ChunkPos(pos));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig claimConfig = getClaimConfig(playerConfigs, claim);
 		Entity accessor;
@@ -1173,7 +1313,7 @@ public class ChunkProtection
 			accessor = (Entity) accessorInfo;
 			accessorId = accessor == null ? null : accessor.getUUID();
 		}
-		return claimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_CROP_TRAMPLE)
+		return claimConfig.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_CROP_TRAMPLE)
 				&& !hasChunkAccess(claimConfig, accessor, accessorId);
 	}
 
@@ -1236,7 +1376,7 @@ public class ChunkProtection
 
 	private boolean applyItemAccessCheck(IServerData<CM, ?> serverData, ChunkPos chunkPos, Entity entity, ServerLevel world, ItemStack itemStack) {
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), chunkPos);
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(chunkPos);
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 		Entity accessor;
 		UUID accessorId;
@@ -1253,12 +1393,12 @@ public class ChunkProtection
 	}
 
 	private boolean isOptionalItemException(IServerData<CM, ?> serverData, Entity accessor, UUID accessorId, ItemStack itemStack, ServerLevel world, ChunkPos chunkPos){
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), chunkPos);
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(chunkPos);
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 		int exceptionAccessLevel = getExceptionAccessLevel(config, accessor, accessorId);
-		for (ChunkProtectionExceptionGroup<Item> group : itemExceptionGroups.values()) {
-			if (exceptionAccessLevel <= config.getEffective(group.getPlayerConfigOption()) && group.contains(itemStack.getItem()))
+		for (ChunkProtectionExceptionGroup<Item> group : itemExceptionGroupIndex.getGroupsContaining(itemStack.getItem())) {
+			if (exceptionAccessLevel <= config.getProtectionProfile().getInt(group.getPlayerConfigOption()))
 				return true;
 		}
 		return false;
@@ -1305,16 +1445,17 @@ public class ChunkProtection
 			return false;
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig toClaimConfig = getClaimConfig(playerConfigs, toClaim);
-		if(!toClaimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) || optionSpec != null && !isProtectionEnabled(toClaimConfig, optionSpec))
+		ChunkProtectionProfile toClaimProfile = toClaimConfig.getProtectionProfile();
+		if(!toClaimProfile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) || optionSpec != null && !isProtectionEnabled(toClaimConfig, optionSpec))
 			return false;
 		if(fromClaim != null && fromClaim.getPlayerId().equals(toClaim.getPlayerId())){
 			IPlayerConfig fromClaimConfig = getClaimConfig(playerConfigs, fromClaim);
-			if(!fromClaimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS)
+			if(!fromClaimConfig.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS)
 					|| optionSpec != null && compareProtectionLevels(fromClaimConfig, toClaimConfig, optionSpec, false) < 0)
 				return true;
 			if(withBuildCheck){
-				int toClaimItemUseProt = toClaimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_USE);
-				if(toClaimItemUseProt == 0 && toClaimConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_PLAYERS) == 0)
+				int toClaimItemUseProt = toClaimProfile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_USE);
+				if(toClaimItemUseProt == 0 && toClaimProfile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_BLOCKS_FROM_PLAYERS) == 0)
 					return false;//basically no building protection, so no point in checking other options
 
 				//options that are likely to affect a player's ability to build in a chunk
@@ -1357,15 +1498,18 @@ public class ChunkProtection
 		int toChunkZ = to.getZ() >> 4;
 		if(fromChunkX == toChunkX && fromChunkZ == toChunkZ)
 			return false;
-		IPlayerChunkClaim toClaim = claimsManager.get(world.dimension().location(), toChunkX, toChunkZ);
-		IPlayerChunkClaim fromClaim = claimsManager.get(world.dimension().location(), fromChunkX, fromChunkZ);
+		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
+		IPlayerChunkClaim toClaim = getClaim(playerConfigs, world, toChunkX, toChunkZ);
+		IPlayerChunkClaim fromClaim = getClaim(playerConfigs, world, fromChunkX, fromChunkZ);
 		return hitsAnotherClaim(serverData, fromClaim, toClaim, optionSpec, withBuildCheck);
 	}
 
 	public boolean onFluidSpread(IServerData<CM, ?> serverData, ServerLevel world, BlockPos from, BlockPos to) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		return isOnChunkEdge(from) && hitsAnotherClaim(serverData, world, from, to, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FLUID_BARRIER, true);
+		//lakes along claim borders keep repeating the same pairs of claim states
+		return ClaimBarrierFilter.hitsAnotherClaimInTick(world, from.getX() >> 4, from.getZ() >> 4, to.getX() >> 4, to.getZ() >> 4, barrierClaimGetter,
+				fluidBarrierTickCache, serverData.getPlayerConfigs().getConfigVersion(), fluidBarrierCheck);
 	}
 
 	public boolean onDispenseFrom(IServerData<CM, ?> serverData, ServerLevel serverLevel, BlockPos from) {
@@ -1379,40 +1523,54 @@ public class ChunkProtection
 		return isOnChunkEdge(from) && hitsAnotherClaim(serverData, serverLevel, from, to, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_DISPENSER_BARRIER, true);
 	}
 
-	private boolean shouldStopPistonPush(IServerData<CM, ?> serverData, ServerLevel world, BlockPos pushPos, int pistonChunkX, int pistonChunkZ, IPlayerChunkClaim pistonClaim){
-		int pushChunkX = pushPos.getX() >> 4;
-		int pushChunkZ = pushPos.getZ() >> 4;
-		if(pushChunkX == pistonChunkX && pushChunkZ == pistonChunkZ)
-			return false;
-		IPlayerChunkClaim pushClaim = claimsManager.get(world.dimension().location(), pushChunkX, pushChunkZ);
-		return hitsAnotherClaim(serverData, pistonClaim, pushClaim, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PISTON_BARRIER, true);
-	}
-
 	public boolean onPistonPush(IServerData<CM, ?> serverData, ServerLevel world, List<BlockPos> toPush, List<BlockPos> toDestroy, BlockPos pistonPos, Direction direction, boolean extending) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim pistonClaim = claimsManager.get(world.dimension().location(), pistonPos);
 		int pistonChunkX = pistonPos.getX() >> 4;
 		int pistonChunkZ = pistonPos.getZ() >> 4;
 		Direction actualDirection = extending ? direction : direction.getOpposite();
+		//collecting the distinct chunks that the push touches, other than the piston's own chunk
+		int neededBufferSize = (toPush.size() + toDestroy.size()) * 2 + 2;
+		if(pistonChunkBuffer.length < neededBufferSize)
+			pistonChunkBuffer = new long[neededBufferSize];
+		long[] chunks = pistonChunkBuffer;
+		int chunkCount = 0;
 		if(toPush.isEmpty() && toDestroy.isEmpty()) {
 			BlockPos pushPos = pistonPos.relative(direction);
-			if(shouldStopPistonPush(serverData, world, pushPos, pistonChunkX, pistonChunkZ, pistonClaim))
-				return true;
-			return shouldStopPistonPush(serverData, world, pushPos.relative(actualDirection), pistonChunkX, pistonChunkZ, pistonClaim);
+			chunkCount = addPistonChunk(chunks, chunkCount, pushPos.getX() >> 4, pushPos.getZ() >> 4, pistonChunkX, pistonChunkZ);
+			chunkCount = addPistonChunk(chunks, chunkCount, (pushPos.getX() + actualDirection.getStepX()) >> 4, (pushPos.getZ() + actualDirection.getStepZ()) >> 4, pistonChunkX, pistonChunkZ);
+		} else {
+			Iterator<BlockPos> posIterator = Iterators.concat(toPush.iterator(), toDestroy.iterator());
+			while (posIterator.hasNext()) {
+				BlockPos pushPos = posIterator.next();
+				chunkCount = addPistonChunk(chunks, chunkCount, pushPos.getX() >> 4, pushPos.getZ() >> 4, pistonChunkX, pistonChunkZ);
+				chunkCount = addPistonChunk(chunks, chunkCount, (pushPos.getX() + actualDirection.getStepX()) >> 4, (pushPos.getZ() + actualDirection.getStepZ()) >> 4, pistonChunkX, pistonChunkZ);
+			}
 		}
-		Iterator<BlockPos> posIterator = Iterators.concat(toPush.iterator(), toDestroy.iterator());
-		while(posIterator.hasNext()){
-			BlockPos pushPos = posIterator.next();
-			if (shouldStopPistonPush(serverData, world, pushPos, pistonChunkX, pistonChunkZ, pistonClaim))
-				return true;
-			BlockPos pushedToPos = pushPos.relative(actualDirection);
-			if (shouldStopPistonPush(serverData, world, pushedToPos, pistonChunkX, pistonChunkZ, pistonClaim))
+		if(chunkCount == 0)
+			return false;
+		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
+		IPlayerChunkClaim pistonClaim = getClaim(playerConfigs, world, pistonChunkX, pistonChunkZ);
+		for(int i = 0; i < chunkCount; i++) {
+			long chunk = chunks[i];
+			IPlayerChunkClaim pushClaim = getClaim(playerConfigs, world, ChunkPos.getX(chunk), ChunkPos.getZ(chunk));
+			if(ClaimBarrierFilter.hitsAnotherClaimInTick(pistonClaim, pushClaim, pistonBarrierTickCache, playerConfigs.getConfigVersion(), pistonBarrierCheck))
 				return true;
 		}
 		return false;
 	}
 
+	private int addPistonChunk(long[] chunks, int chunkCount, int chunkX, int chunkZ, int pistonChunkX, int pistonChunkZ){
+		if(chunkX == pistonChunkX && chunkZ == pistonChunkZ)
+			return chunkCount;
+		long chunk = ChunkPos.asLong(chunkX, chunkZ);
+		for(int i = 0; i < chunkCount; i++)
+			if(chunks[i] == chunk)
+				return chunkCount;//a push rarely touches more than a couple of chunks, so a linear scan is enough
+		chunks[chunkCount] = chunk;
+		return chunkCount + 1;
+	}
+
 	private Object getAccessorInfo(Entity entity){
 		Object result;
 		if(entity instanceof Projectile){
@@ -1432,10 +1590,10 @@ public class ChunkProtection
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return;
 		Iterator<? extends Entity> iterator = entities.iterator();
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), new ChunkPos(pos));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		IPlayerConfig config = resolveClaim(playerConfigs, world, pos.getX() >> 4, pos.getZ() >> 4).getConfig();
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		if(!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return;
 		IPlayerConfigOptionSpecAPI<Integer> blockSpecificOption =
 				block instanceof ButtonBlock ?
@@ -1443,9 +1601,9 @@ public class ChunkProtection
 				block instanceof TargetBlock ?
 					PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_TARGETS_FROM_PROJECTILES :
 				null;
-		if(blockSpecificOption != null && config.getEffective(blockSpecificOption) <= 0)
+		if(blockSpecificOption != null && profile.getInt(blockSpecificOption) <= 0)
 			return;
-		boolean everyoneExceptAccessHavers = blockSpecificOption != null && config.getEffective(blockSpecificOption) == 1;
+		boolean everyoneExceptAccessHavers = blockSpecificOption != null && profile.getInt(blockSpecificOption) == 1;
 		Map<UUID, Map<IPlayerConfigOptionSpecAPI<Integer>, Boolean>> cachedAccessorOptionResults = null;
 		boolean isWeighted = block instanceof WeightedPressurePlateBlock;
 		boolean isTripwire = block instanceof TripWireBlock;
@@ -1516,14 +1674,15 @@ public class ChunkProtection
 		ServerLevel serverLevel = ServerLevelHelper.getServerLevel(level);
 		if(serverLevel == null)
 			return;
-		IPlayerChunkClaim claim = claimsManager.get(level.dimension().location(), entity.chunkPosition());
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		ChunkPos entityChunkPos = entity.chunkPosition();
+		IPlayerConfig config = resolveClaim(playerConfigs, level, entityChunkPos.x, entityChunkPos.z).getConfig();
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		if(!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return;
-		if(config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_PLAYERS) == 0 &&
-				config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_MOBS) == 0 &&
-				config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_OTHER) == 0)
+		if(profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_PLAYERS) == 0 &&
+				profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_MOBS) == 0 &&
+				profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ENTITIES_FROM_OTHER) == 0)
 			return;
 		Map<UUID, Map<IPlayerConfigOptionSpecAPI<Integer>, Boolean>> cachedAccessorOptionResults = null;
 		Iterator<? extends Entity> iterator = collidingEntities.iterator();
@@ -1592,14 +1751,15 @@ public class ChunkProtection
 	public boolean onNetherPortal(IServerData<CM, ?> serverData, Entity entity, ServerLevel world, BlockPos pos) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), new ChunkPos(pos));
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(new ChunkPos(pos));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		if(!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return false;
-		if(config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_PLAYERS) == 0 &&
-				config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_MOBS) == 0 &&
-				config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_OTHER) == 0)
+		if(profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_PLAYERS) == 0 &&
+				profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_MOBS) == 0 &&
+				profile.getInt(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_NETHER_PORTALS_OTHER) == 0)
 			return false;
 		Entity accessor;
 		UUID accessorId;
@@ -1623,19 +1783,21 @@ public class ChunkProtection
 	public boolean onRaidSpawn(IServerData<CM, ?> serverData, ServerLevel world, BlockPos pos) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(world.dimension().location(), new ChunkPos(pos));
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(world).get(new ChunkPos(pos));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		return config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS);
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		return profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS) && profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_RAIDS);
 	}
 
 	public boolean onMobSpawn(IServerData<CM, ?> serverData, Entity entity, double x, double y, double z, MobSpawnType spawnReason) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(entity.level.dimension().location(), new ChunkPos(new BlockPos(x, y, z)));
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(entity.level).get(new ChunkPos(new BlockPos(x, y, z)));
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		if(!profile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return false;
 		IPlayerConfigOptionSpecAPI<Boolean> option;
 		boolean hostile = entityHelper.isHostile(entity);
@@ -1650,7 +1812,7 @@ public class ChunkProtection
 			else
 				option = PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_FRIENDLY_NATURAL_SPAWN;
 		}
-		return config.getEffective(option);
+		return profile.getBoolean(option);
 	}
 
 	public boolean onProjectileHitSpawnedEntity(IServerData<CM, ?> serverData, Entity projectile, Entity entity) {
@@ -1658,7 +1820,7 @@ public class ChunkProtection
 			return false;
 		if(hasActiveFullPass(projectile))//uses custom protection
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(entity.getLevel().dimension().location(), entity.chunkPosition());
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(entity.getLevel()).get(entity.chunkPosition());
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 		Entity accessor;
@@ -1695,10 +1857,10 @@ public class ChunkProtection
 		UUID throwerId = itemEntity.getThrower();
 		if(throwerId == null)
 			return false;
-		IPlayerChunkClaim claim = claimsManager.get(itemEntity.getLevel().dimension().location(), itemEntity.chunkPosition());
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(itemEntity.getLevel()).get(itemEntity.chunkPosition());
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		if(!config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return false;
 		Entity thrower = getEntityById(ServerLevelHelper.getServerLevel(itemEntity.getLevel()), throwerId);
 		Entity result = shouldPreventToss(config, itemEntity, thrower, throwerId, null);
@@ -1734,7 +1896,7 @@ public class ChunkProtection
 			accessorId = throwerAccessorId;
 			accessor = getEntityById(ServerLevelHelper.getServerLevel(itemEntity.level), accessorId);
 		}
-		Entity usedOptionBase = !config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_TOSS_REDIRECT) ?
+		Entity usedOptionBase = !config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_TOSS_REDIRECT) ?
 				thrower : accessor;
 		IPlayerConfigOptionSpecAPI<Integer> option;
 		if(usedOptionBase != null) {
@@ -1753,21 +1915,23 @@ public class ChunkProtection
 	private boolean hasAnEnabledOption(IPlayerConfig config, IPlayerConfigOptionSpecAPI<Boolean> option1, IPlayerConfigOptionSpecAPI<Boolean> option2, IPlayerConfigOptionSpecAPI<Boolean> option3){
 		//the used option base is offline; or possibly in another dimension, if it's not a player
 		//assume the worst and use the toughest protection
-		return config.getEffective(option1) || config.getEffective(option2) || config.getEffective(option3);
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		return profile.getBoolean(option1) || profile.getBoolean(option2) || profile.getBoolean(option3);
 	}
 
 	private IPlayerConfigOptionSpecAPI<Integer> getToughestProtectionLevelOption(IPlayerConfig config, IPlayerConfigOptionSpecAPI<Integer> option1, IPlayerConfigOptionSpecAPI<Integer> option2, IPlayerConfigOptionSpecAPI<Integer> option3){
 		//the used option base is offline; or possibly in another dimension, if it's not a player
 		//assume the worst and use the toughest protection
-		int toughestProtectionLevel = config.getEffective(option1);
+		ChunkProtectionProfile profile = config.getProtectionProfile();
+		int toughestProtectionLevel = profile.getInt(option1);
 		IPlayerConfigOptionSpecAPI<Integer> toughestOption = option1;
-		int protectionLevel = config.getEffective(option2);
+		int protectionLevel = profile.getInt(option2);
 		if(protectionLevel != 0 && (toughestProtectionLevel == 0 || protectionLevel < toughestProtectionLevel)){
 			toughestProtectionLevel = protectionLevel;
 			toughestOption = option2;
 		}
 		if(option3 != null) {
-			protectionLevel = config.getEffective(option3);
+			protectionLevel = profile.getInt(option3);
 			if (protectionLevel != 0 && (toughestProtectionLevel == 0 || protectionLevel < toughestProtectionLevel))
 				return option3;
 		}
@@ -1795,10 +1959,10 @@ public class ChunkProtection
 			ServerCore.setDeadPlayer(lootEntity, livingEntity.getUUID());
 			return false;
 		}
-		IPlayerChunkClaim claim = claimsManager.get(lootEntity.getLevel().dimension().location(), lootEntity.chunkPosition());
+		IPlayerChunkClaim claim = claimsManager.getDimensionLookup(lootEntity.getLevel()).get(lootEntity.chunkPosition());
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		if(!config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
+		if(!config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS))
 			return false;
 		return shouldStopMobLoot(config, accessor, accessorId) &&
 				(!(accessor instanceof Player player) || !isAllowedStaticFakePlayerAction(serverData, player, lootEntity.blockPosition()));
@@ -1808,26 +1972,17 @@ public class ChunkProtection
 		return !hasChunkAccess(config, accessor, accessorId) && checkProtectionLeveledOption(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_MOB_LOOT, config, accessor, accessorId);
 	}
 
-	public boolean onEntityPickup(IServerData<CM, ?> serverData, Entity entity, Entity pickedEntity, UUID pickedEntityThrowerId, UUID pickedEntityOwnerId, Map<Entity, Set<ChunkPos>> cantPickupCache, TriFunction<IPlayerConfig, Entity, Entity, IPlayerConfigOptionSpecAPI<Integer>> protectionOptionGetter) {
+	public boolean onEntityPickup(IServerData<CM, ?> serverData, Entity entity, Entity pickedEntity, UUID pickedEntityThrowerId, UUID pickedEntityOwnerId, ChunkProtectionPickupCache cantPickupCache, TriFunction<IPlayerConfig, Entity, Entity, IPlayerConfigOptionSpecAPI<Integer>> protectionOptionGetter) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
 		if(entity.getUUID().equals(pickedEntityThrowerId) || entity.getUUID().equals(pickedEntityOwnerId) ||
 				entity.getUUID().equals(ServerCore.getLootOwner(pickedEntity)) || hasActiveFullPass(entity))
 			return false;
 		ChunkPos chunkPos = pickedEntity.chunkPosition();
-		Set<ChunkPos> cantPickupCached = cantPickupCache.get(entity);//avoiding rechecking every tick for a billion pickupable items in the same chunk
-		if(cantPickupCached != null && cantPickupCached.contains(chunkPos))
+		long chunkKey = chunkPos.toLong();
+		if(cantPickupCache.isDeniedInTick(entity.getId(), chunkKey))//avoiding rechecking every tick for a billion pickupable items in the same chunk
 			return true;
-		IPlayerChunkClaim claim = claimsManager.get(pickedEntity.getLevel().dimension().location(), chunkPos);
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
-		IPlayerConfig config = getClaimConfig(playerConfigs, claim);
-		UUID deadPlayerId = ServerCore.getDeadPlayer(pickedEntity);
-		if(deadPlayerId != null){
-			Entity deadPlayer = getEntityById(ServerLevelHelper.getServerLevel(pickedEntity.getLevel()), deadPlayerId);
-			if(checkExceptionLeveledOption(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYER_DEATH_LOOT, config, deadPlayer, deadPlayerId))
-				return true;
-		}
-		boolean shouldPrevent = false;
 		Entity accessor;
 		UUID accessorId;
 		Object accessorInfo = getAccessorInfo(entity);
@@ -1838,9 +1993,27 @@ public class ChunkProtection
 			accessor = (Entity) accessorInfo;
 			accessorId = accessor.getUUID();
 		}
+		boolean denialLastsAcrossTicks = pickedEntity instanceof ItemEntity;
+		//all of the counters only go up, so the sum changes with any of them
+		int stateVersion = playerConfigs.getConfigVersion() + claimCache.getClaimChangeCount() + playerPartySystemManager.getRelationshipVersion();
+		int accessorModes = getClaimsModes(accessor);
+		if(denialLastsAcrossTicks && cantPickupCache.isDenied(entity, pickedEntity, pickedEntityThrowerId, pickedEntityOwnerId, accessorId, accessorModes, stateVersion)) {
+			cantPickupCache.denyInTick(entity.getId(), chunkKey);
+			return true;
+		}
+		ChunkProtectionClaimCache.Entry resolvedClaim = resolveClaim(playerConfigs, pickedEntity.getLevel(), chunkPos.x, chunkPos.z);
+		IPlayerChunkClaim claim = resolvedClaim.getClaim();
+		IPlayerConfig config = resolvedClaim.getConfig();
+		UUID deadPlayerId = ServerCore.getDeadPlayer(pickedEntity);
+		if(deadPlayerId != null){
+			Entity deadPlayer = getEntityById(ServerLevelHelper.getServerLevel(pickedEntity.getLevel()), deadPlayerId);
+			if(checkExceptionLeveledOption(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_PLAYER_DEATH_LOOT, config, deadPlayer, deadPlayerId))
+				return true;
+		}
+		boolean shouldPrevent = false;
 		if(isAllowedToGrief(entity, accessor, accessorId, config, entitiesAllowedToGriefDroppedItems, droppedItemAccessEntityGroups))
 			return false;
-		if(config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS)) {
+		if(config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS)) {
 			if (!hasChunkAccess(config, accessor, accessorId)) {
 				IPlayerConfigOptionSpecAPI<Integer> usedOption = protectionOptionGetter.apply(config, entity, accessor);
 				shouldPrevent = checkProtectionLeveledOption(usedOption, config, accessor, accessorId);
@@ -1858,28 +2031,34 @@ public class ChunkProtection
 				//
 				//This does not prevent mobs from leaving the protected chunks, picking items up, going back in and dropping them though.
 				//In that case item toss protection is all you have, but it doesn't stop mobs tamed by the claim owner.
-				IPlayerChunkClaim entityPosClaim = claimsManager.get(pickedEntity.getLevel().dimension().location(), entityChunkPos);
-				IPlayerConfig entityPosConfig = getClaimConfig(playerConfigs, entityPosClaim);
+				ChunkProtectionClaimCache.Entry resolvedEntityPosClaim = resolveClaim(playerConfigs, pickedEntity.getLevel(), entityChunkPos.x, entityChunkPos.z);
+				IPlayerChunkClaim entityPosClaim = resolvedEntityPosClaim.getClaim();
+				IPlayerConfig entityPosConfig = resolvedEntityPosClaim.getConfig();
 				if(entityPosConfig != config)
 					shouldPrevent = shouldPreventEntityChunkEntry(serverData, playerConfigs, entityPosClaim, claim, entityPosConfig, config, pickedEntity, null, null);
 			}
 		}
 		if(shouldPrevent){
-			if (cantPickupCached == null) {
-				cantPickupCached = new HashSet<>();
-				cantPickupCache.put(entity, cantPickupCached);
-			}
-			cantPickupCached.add(chunkPos);
+			cantPickupCache.denyInTick(entity.getId(), chunkKey);
+			if(denialLastsAcrossTicks)
+				cantPickupCache.deny(entity, pickedEntity, pickedEntityThrowerId, pickedEntityOwnerId, accessorId, accessorModes, stateVersion);
 		}
 		return shouldPrevent;
 	}
 
+	private int getClaimsModes(Entity accessor){
+		if(!(accessor instanceof ServerPlayer player))
+			return 0;
+		ServerPlayerDataAPI playerData = ServerPlayerDataAPI.from(player);
+		return (playerData.isClaimsAdminMode() ? 1 : 0) | (playerData.isClaimsServerMode() ? 2 : 0) | (playerData.isClaimsNonallyMode() ? 4 : 0);
+	}
+
 	public boolean onItemPickup(IServerData<CM, ?> serverData, Entity entity, ItemEntity itemEntity) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
 		if(entity.getUUID().equals(ServerCore.getThrowerAccessor(itemEntity)))
 			return false;
-		return onEntityPickup(serverData, entity, itemEntity, itemEntity.getThrower(), itemEntity.getOwner(), cantPickupItemsInTickCache, usedDroppedItemProtectionOptionGetter);
+		return onEntityPickup(serverData, entity, itemEntity, itemEntity.getThrower(), itemEntity.getOwner(), cantPickupItemsCache, usedDroppedItemProtectionOptionGetter);
 	}
 
 	@Override
@@ -1893,7 +2072,7 @@ public class ChunkProtection
 	}
 
 	private IPlayerConfigOptionSpecAPI<Integer> getUsedDroppedItemProtectionOption(IPlayerConfig config, Entity entity, Entity accessor){
-		Entity usedOptionBase = !(entity instanceof Player) && config.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_PICKUP_REDIRECT) ?
+		Entity usedOptionBase = !(entity instanceof Player) && config.getProtectionProfile().getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_PICKUP_REDIRECT) ?
 				accessor : entity;
 		if(usedOptionBase == null)
 			return getToughestProtectionLevelOption(config, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_PICKUP_PLAYERS, PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS_ITEM_PICKUP_MOBS, null);
@@ -1908,14 +2087,15 @@ public class ChunkProtection
 			return false;
 		IPlayerConfigManager playerConfigs = serverData.getPlayerConfigs();
 		ChunkPos firstChunkPos = first.chunkPosition();
-		IPlayerChunkClaim firstClaim = claimsManager.get(first.getLevel().dimension().location(), firstChunkPos);
+		IPlayerChunkClaim firstClaim = claimsManager.getDimensionLookup(first.getLevel()).get(firstChunkPos);
 		IPlayerConfig firstConfig = getClaimConfig(playerConfigs, firstClaim);
+		ChunkProtectionProfile firstProfile = firstConfig.getProtectionProfile();
 		boolean differentThrower = !Objects.equals(firstThrower, secondThrower);
 		boolean differentOwner =  !Objects.equals(firstOwner, secondOwner);
 		boolean differentLootOwner = !Objects.equals(ServerCore.getLootOwner(first), ServerCore.getLootOwner(second));
-		boolean firstProtected = firstConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
-		int firstItemPlayerProtection = !firstProtected ? 0 : firstConfig.getEffective(playerOption);
-		int firstItemMobsProtection = !firstProtected || mobOption == null ? 0 : firstConfig.getEffective(mobOption);
+		boolean firstProtected = firstProfile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
+		int firstItemPlayerProtection = !firstProtected ? 0 : firstProfile.getInt(playerOption);
+		int firstItemMobsProtection = !firstProtected || mobOption == null ? 0 : firstProfile.getInt(mobOption);
 		if(differentThrower || differentOwner || differentLootOwner) {
 			if(firstItemPlayerProtection > 0 || firstItemMobsProtection > 0)
 				return true;
@@ -1937,25 +2117,26 @@ public class ChunkProtection
 		ChunkPos secondChunkPos = second.chunkPosition();
 		if(secondChunkPos.equals(firstChunkPos))
 			return false;
-		IPlayerChunkClaim secondClaim = claimsManager.get(first.getLevel().dimension().location(), secondChunkPos);
+		IPlayerChunkClaim secondClaim = claimsManager.getDimensionLookup(first.getLevel()).get(secondChunkPos);
 		if(firstClaim == secondClaim)
 			return false;
 		IPlayerConfig secondConfig = getClaimConfig(playerConfigs, secondClaim);
 		if(firstConfig == secondConfig)
 			return false;
+		ChunkProtectionProfile secondProfile = secondConfig.getProtectionProfile();
 		UUID firstClaimOwner = firstConfig.getPlayerId();
 		UUID secondClaimOwner = secondConfig.getPlayerId();
 		boolean sameClaimOwner = Objects.equals(firstClaimOwner, secondClaimOwner);
-		boolean secondProtected = secondConfig.getEffective(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
-		int secondItemPlayerProtection = !secondProtected ? 0 : secondConfig.getEffective(playerOption);
+		boolean secondProtected = secondProfile.getBoolean(PlayerConfigOptions.PROTECT_CLAIMED_CHUNKS);
+		int secondItemPlayerProtection = !secondProtected ? 0 : secondProfile.getInt(playerOption);
 		if(firstItemPlayerProtection != secondItemPlayerProtection || !sameClaimOwner && secondItemPlayerProtection > 1)//party-based protection still matters even if it's equal
 			return true;
-		int secondItemMobsProtection = !secondProtected || mobOption == null ? 0 : secondConfig.getEffective(mobOption);
+		int secondItemMobsProtection = !secondProtected || mobOption == null ? 0 : secondProfile.getInt(mobOption);
 		if(firstItemMobsProtection != secondItemMobsProtection || !sameClaimOwner && secondItemMobsProtection > 1)//party-based protection still matters even if it's equal
 			return true;
 		if(firstItemPlayerProtection != firstItemMobsProtection && redirectOption != null) {//redirect matters
-			boolean firstItemProtectionRedirect = firstConfig.getEffective(redirectOption);
-			boolean secondItemProtectionRedirect = secondConfig.getEffective(redirectOption);
+			boolean firstItemProtectionRedirect = firstProfile.getBoolean(redirectOption);
+			boolean secondItemProtectionRedirect = secondProfile.getBoolean(redirectOption);
 			if (firstItemProtectionRedirect != secondItemProtectionRedirect)
 				return true;
 		}
@@ -1968,7 +2149,7 @@ public class ChunkProtection
 	}
 
 	public boolean onExperiencePickup(IServerData<CM, ?> serverData, ExperienceOrb orb, Player player) {
-		return onEntityPickup(serverData, player, orb, null, null, cantPickupXPInTickCache, usedExperienceOrbProtectionOptionGetter);
+		return onEntityPickup(serverData, player, orb, null, null, cantPickupXPCache, usedExperienceOrbProtectionOptionGetter);
 	}
 
 	public boolean onExperienceMerge(IServerData<CM, ?> serverData, ExperienceOrb from, ExperienceOrb into) {
@@ -2011,17 +2192,17 @@ public class ChunkProtection
 	private boolean onPosAffectedByAnotherPos(IServerData<CM, ?> serverData, ServerLevel world, IPlayerChunkClaim toClaim, int toChunkX, int toChunkZ, int fromChunkX, int fromChunkZ, boolean affectsBlocks, boolean affectsEntities) {
 		if(toChunkX == fromChunkX && toChunkZ == fromChunkZ)
 			return false;
-		IPlayerChunkClaim anchorClaim = claimsManager.get(world.dimension().location(), fromChunkX, fromChunkZ);
+		IPlayerChunkClaim anchorClaim = claimsManager.getDimensionLookup(world).get(fromChunkX, fromChunkZ);
 		return onPosAffectedByAnotherPos(serverData, toClaim, anchorClaim, affectsBlocks, affectsEntities);
 	}
 
 	public boolean onPosAffectedByAnotherPos(IServerData<CM, ?> serverData, ServerLevel toWorld, int toChunkX, int toChunkZ, ServerLevel fromWorld, int fromChunkX, int fromChunkZ, boolean includeWilderness, boolean affectsBlocks, boolean affectsEntities) {
 		if(toChunkX == fromChunkX && toChunkZ == fromChunkZ)
 			return false;
-		IPlayerChunkClaim toClaim = claimsManager.get(toWorld.dimension().location(), toChunkX, toChunkZ);
+		IPlayerChunkClaim toClaim = claimsManager.getDimensionLookup(toWorld).get(toChunkX, toChunkZ);
 		if(!includeWilderness && toClaim == null)
 			return false;
-		IPlayerChunkClaim fromClaim = claimsManager.get(fromWorld.dimension().location(), fromChunkX, fromChunkZ);
+		IPlayerChunkClaim fromClaim = claimsManager.getDimensionLookup(fromWorld).get(fromChunkX, fromChunkZ);
 		return onPosAffectedByAnotherPos(serverData, toClaim, fromClaim, affectsBlocks, affectsEntities);
 	}
 
@@ -2046,9 +2227,10 @@ public class ChunkProtection
 		int minChunkZ = Math.min(fromChunkZ, toChunkZ);
 		int maxChunkX = Math.max(fromChunkX, toChunkX);
 		int maxChunkZ = Math.max(fromChunkZ, toChunkZ);
+		IServerDimensionClaimsLookup<?> claimsLookup = claimsManager.getDimensionLookup(level);
 		for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
 			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
-				IPlayerChunkClaim claim = claimsManager.get(level.dimension().location(), chunkX, chunkZ);
+				IPlayerChunkClaim claim = claimsLookup.get(chunkX, chunkZ);
 				IPlayerConfig config = getClaimConfig(playerConfigs, claim);
 				if(!hasChunkAccess(config, player, player.getUUID()))
 					return true;
@@ -2058,7 +2240,8 @@ public class ChunkProtection
 	}
 
 	private boolean onBlockBoundsFromAnchor(IServerData<CM, ?> serverData, ServerLevel level, BlockPos from, BlockPos to, BlockPos anchor) {
-		IPlayerChunkClaim anchorClaim = claimsManager.get(level.dimension().location(), new ChunkPos(anchor));
+		IServerDimensionClaimsLookup<?> claimsLookup = claimsManager.getDimensionLookup(level);
+		IPlayerChunkClaim anchorClaim = claimsLookup.get(new ChunkPos(anchor));
 		int fromChunkX = from.getX() >> 4;
 		int fromChunkZ = from.getZ() >> 4;
 		int toChunkX = to.getX() >> 4;
@@ -2069,7 +2252,7 @@ public class ChunkProtection
 		int maxChunkZ = Math.max(fromChunkZ, toChunkZ);
 		for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
 			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
-				IPlayerChunkClaim claim = claimsManager.get(level.dimension().location(), chunkX, chunkZ);
+				IPlayerChunkClaim claim = claimsLookup.get(chunkX, chunkZ);
 				if(onPosAffectedByAnotherPos(serverData, claim, anchorClaim, true, true))
 					return true;
 			}
@@ -2080,7 +2263,7 @@ public class ChunkProtection
 	public boolean onCreateMod(IServerData<CM, ?> serverData, ServerLevel world, int posChunkX, int posChunkZ, @Nullable BlockPos sourceOrAnchor, boolean checkNeighborBlocks, boolean affectsBlocks, boolean affectsEntities) {
 		if(!ServerConfig.CONFIG.claimsEnabled.get())
 			return false;
-		IPlayerChunkClaim posClaim = claimsManager.get(world.dimension().location(), posChunkX, posChunkZ);
+		IPlayerChunkClaim posClaim = claimsManager.getDimensionLookup(world).get(posChunkX, posChunkZ);
 		if(posClaim == null)//wilderness not protected
 			return false;
 		if(sourceOrAnchor == null)
@@ -2209,11 +2392,20 @@ public class ChunkProtection
 		entityExceptionGroups.values().forEach(g -> g.updateTagExceptions(server));
 		itemExceptionGroups.values().forEach(g -> g.updateTagExceptions(server));
 		entityBarrierGroups.values().forEach(g -> g.updateTagExceptions(server));
+		blockExceptionGroupIndex.update(server);
+		entityExceptionGroupIndex.update(server);
+		itemExceptionGroupIndex.update(server);
+		entityBarrierGroupIndex.update(server);
+		tagExceptionsVersion++;//also replaces the entity barrier memos of the protection profiles
 	}
 
 	public void onServerTick(){
-		cantPickupItemsInTickCache.clear();
-		cantPickupXPInTickCache.clear();
+		cantPickupItemsCache.onServerTick();
+		cantPickupXPCache.onServerTick();
+		claimCache.clear();
+		fluidBarrierTickCache.clear();
+		pistonBarrierTickCache.clear();
+		claimCacheEnabled = ServerConfig.CONFIG.claimResolutionTickCache.get();
 	}
 
 	public enum InteractionTargetResult {
@@ -2442,13 +2634,15 @@ public class ChunkProtection
 				}
 			});
 			Set<UUID> fullPasses = new HashSet<>();
+			ChunkProtectionClaimCache claimCache = ChunkProtectionClaimCache.create();
+			claimsManager.getTracker().register(claimCache);
 			return new ChunkProtection<>(claimsManager, playerPartySystemManager, new ChunkProtectionEntityHelper(),
 					friendlyEntityList.build(), hostileEntityList.build(),
 					forcedInteractionExceptionBlocksBuilder.build(), forcedBreakExceptionBlocksBuilder.build(),
 					requiresEmptyHandBlocksBuilder.build(), forcedAllowAnyItemBlocksBuilder.build(), completelyDisabledBlocks.build(), forcedInteractionExceptionEntities.build(),
 					forcedKillExceptionEntities.build(), requiresEmptyHandEntitiesBuilder.build(), forcedAllowAnyItemEntitiesBuilder.build(), forcedEntityClaimBarrierList.build(), entitiesAllowedToGrief.build(),
 					entitiesAllowedToGriefEntities.build(), entitiesAllowedToGriefDroppedItems.build(), nonBlockGriefingMobs.build(), entityGriefingMobs.build(), droppedItemGriefingMobs.build(), staticFakePlayerUsernames, staticFakePlayerIds, staticFakePlayerClassExceptions, additionalBannedItems.build(), completelyDisabledItems.build(),
-					itemUseProtectionExceptions.build(), completelyDisabledEntities.build(), blockExceptionGroups, entityExceptionGroups, itemExceptionGroups, entityBarrierGroups, blockAccessEntityGroups, entityAccessEntityGroups, droppedItemAccessEntityGroups, new HashMap<>(), new HashMap<>(), fullPasses);
+					itemUseProtectionExceptions.build(), completelyDisabledEntities.build(), blockExceptionGroups, entityExceptionGroups, itemExceptionGroups, entityBarrierGroups, blockAccessEntityGroups, entityAccessEntityGroups, droppedItemAccessEntityGroups, ChunkProtectionPickupCache.create(), ChunkProtectionPickupCache.create(), fullPasses, claimCache);
 		}
 
 
@@ -0,0 +1,156 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import xaero.pac.common.claims.player.IPlayerChunkClaim;
+import xaero.pac.common.claims.player.api.IPlayerChunkClaimAPI;
+import xaero.pac.common.claims.tracker.api.IClaimsManagerListenerAPI;
+import xaero.pac.common.server.player.config.IPlayerConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the claim state and the effective claim config of chunks for the rest of the current server tick.
+ * <p>
+ * Cleared every tick, whenever a player config changes and for any chunk whose claim state changes.
+ */
+public final class ChunkProtectionClaimCache implements IClaimsManagerListenerAPI {
+
+	private final Map<ResourceLocation, Long2ObjectOpenHashMap<Entry>> dimensions;
+	private ResourceLocation lastDimension;
+	private Long2ObjectOpenHashMap<Entry> lastDimensionEntries;
+	private int configVersion;
+	private int claimChangeCount;
+	private long hits;
+	private long misses;
+
+	private ChunkProtectionClaimCache(Map<ResourceLocation, Long2ObjectOpenHashMap<Entry>> dimensions) {
+		this.dimensions = dimensions;
+	}
+
+	@Nullable
+	public Entry get(ResourceLocation dimension, int chunkX, int chunkZ, int configVersion) {
+		if(this.configVersion != configVersion) {
+			clear();
+			this.configVersion = configVersion;
+		}
+		Long2ObjectOpenHashMap<Entry> entries = getEntries(dimension, false);
+		Entry result = entries == null ? null : entries.get(ChunkPos.asLong(chunkX, chunkZ));
+		if(result == null)
+			misses++;
+		else
+			hits++;
+		return result;
+	}
+
+	public Entry put(ResourceLocation dimension, int chunkX, int chunkZ, IPlayerChunkClaim claim, IPlayerConfig config) {
+		Entry entry = new Entry(claim, config);
+		getEntries(dimension, true).put(ChunkPos.asLong(chunkX, chunkZ), entry);
+		return entry;
+	}
+
+	private Long2ObjectOpenHashMap<Entry> getEntries(ResourceLocation dimension, boolean create) {
+		if(dimension == lastDimension)
+			return lastDimensionEntries;
+		Long2ObjectOpenHashMap<Entry> entries = dimensions.get(dimension);
+		if(entries == null) {
+			if(!create)
+				return null;
+			dimensions.put(dimension, entries = new Long2ObjectOpenHashMap<>());
+		}
+		lastDimension = dimension;
+		lastDimensionEntries = entries;
+		return entries;
+	}
+
+	public void clear() {
+		//keeping the per-dimension tables to reuse their capacity
+		for(Long2ObjectOpenHashMap<Entry> entries : dimensions.values())
+			entries.clear();
+	}
+
+	public int getClaimChangeCount() {
+		return claimChangeCount;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void resetStats() {
+		hits = 0;
+		misses = 0;
+	}
+
+	@Override
+	public void onWholeRegionChange(@Nonnull ResourceLocation dimension, int regionX, int regionZ) {
+		onDimensionChange(dimension);
+	}
+
+	@Override
+	public void onChunkChange(@Nonnull ResourceLocation dimension, int chunkX, int chunkZ, @Nullable IPlayerChunkClaimAPI claim) {
+		claimChangeCount++;
+		Long2ObjectOpenHashMap<Entry> entries = dimensions.get(dimension);
+		if(entries != null)
+			entries.remove(ChunkPos.asLong(chunkX, chunkZ));
+	}
+
+	@Override
+	public void onDimensionChange(ResourceLocation dimension) {
+		claimChangeCount++;
+		Long2ObjectOpenHashMap<Entry> entries = dimensions.get(dimension);
+		if(entries != null)
+			entries.clear();
+	}
+
+	public static ChunkProtectionClaimCache create() {
+		return new ChunkProtectionClaimCache(new HashMap<>());
+	}
+
+	public static final class Entry {
+
+		private final IPlayerChunkClaim claim;
+		private final IPlayerConfig config;
+
+		Entry(IPlayerChunkClaim claim, IPlayerConfig config) {
+			this.claim = claim;
+			this.config = config;
+		}
+
+		public IPlayerChunkClaim getClaim() {
+			return claim;
+		}
+
+		public IPlayerConfig getConfig() {
+			return config;
+		}
+
+	}
+
+}
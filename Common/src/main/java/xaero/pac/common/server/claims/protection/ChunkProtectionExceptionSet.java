@@ -25,6 +25,7 @@ import net.minecraft.core.Registry;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tags.TagKey;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -35,6 +36,8 @@ public final class ChunkProtectionExceptionSet<T> {
 	private final Set<T> tagBasedExceptions;
 	private final Set<TagKey<T>> exceptionTags;
 	private final ExceptionElementType<T> elementType;
+	private Registry<T> compiledRegistry;
+	private BitSet compiledIds;//all exceptions by registry ID, rebuilt on tag updates
 
 	private ChunkProtectionExceptionSet(Set<T> exceptions, Set<T> tagBasedExceptions, Set<TagKey<T>> exceptionTags, ExceptionElementType<T> elementType) {
 		this.exceptions = exceptions;
@@ -44,6 +47,11 @@ public final class ChunkProtectionExceptionSet<T> {
 	}
 
 	public boolean contains(T object){
+		if(compiledIds != null) {
+			int id = compiledRegistry.getId(object);
+			if(id != -1)
+				return compiledIds.get(id);
+		}
 		return exceptions.contains(object) || tagBasedExceptions.contains(object);
 	}
 
@@ -51,6 +59,21 @@ public final class ChunkProtectionExceptionSet<T> {
 		tagBasedExceptions.clear();
 		Registry<T> elementRegistry = elementType.getRegistry(server);
 		exceptionTags.stream().flatMap(tag -> elementRegistry.getTag(tag).stream().flatMap(HolderSet.Named::stream).map(Holder::value)).forEach(tagBasedExceptions::add);
+		BitSet ids = new BitSet();
+		exceptions.forEach(e -> setCompiledId(ids, elementRegistry, e));
+		tagBasedExceptions.forEach(e -> setCompiledId(ids, elementRegistry, e));
+		compiledRegistry = elementRegistry;
+		compiledIds = ids;
+	}
+
+	private void setCompiledId(BitSet ids, Registry<T> elementRegistry, T exception){
+		int id = elementRegistry.getId(exception);
+		if(id != -1)
+			ids.set(id);
+	}
+
+	public BitSet getCompiledIds() {
+		return compiledIds;
 	}
 
 	public Stream<Either<T, TagKey<T>>> stream(){
@@ -0,0 +1,128 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.world.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Remembers denied pickups so that entities surrounded by protected items don't repeat the full check all the time.
+ * <p>
+ * Denials by chunk only last for the current tick. Denials of specific picked up entities last up to a second,
+ * as long as neither entity has changed chunk, the thrower/owner of the picked up entity and the accessor (e.g. the owner
+ * of a picking up mob) are the same, the claims modes of the accessor are the same and no player config, claim or party
+ * relationship has changed.
+ */
+public final class ChunkProtectionPickupCache {
+
+	private static final int DENIAL_TICKS = 20;
+	private final Int2ObjectOpenHashMap<LongOpenHashSet> deniedChunksInTick;//entity ID -> chunk keys
+	private final List<LongOpenHashSet> chunkSetPool;
+	private final Long2ObjectOpenHashMap<Denial> deniedPickups;//entity ID pair -> denial
+	private long tick;
+
+	private ChunkProtectionPickupCache(Int2ObjectOpenHashMap<LongOpenHashSet> deniedChunksInTick, List<LongOpenHashSet> chunkSetPool, Long2ObjectOpenHashMap<Denial> deniedPickups) {
+		this.deniedChunksInTick = deniedChunksInTick;
+		this.chunkSetPool = chunkSetPool;
+		this.deniedPickups = deniedPickups;
+	}
+
+	public boolean isDeniedInTick(int entityId, long chunkKey) {
+		LongOpenHashSet chunks = deniedChunksInTick.get(entityId);
+		return chunks != null && chunks.contains(chunkKey);
+	}
+
+	public void denyInTick(int entityId, long chunkKey) {
+		LongOpenHashSet chunks = deniedChunksInTick.get(entityId);
+		if(chunks == null) {
+			chunks = chunkSetPool.isEmpty() ? new LongOpenHashSet() : chunkSetPool.remove(chunkSetPool.size() - 1);
+			deniedChunksInTick.put(entityId, chunks);
+		}
+		chunks.add(chunkKey);
+	}
+
+	public boolean isDenied(Entity entity, Entity picked, UUID pickedThrowerId, UUID pickedOwnerId, UUID accessorId, int accessorModes, int stateVersion) {
+		Denial denial = deniedPickups.get(getPairKey(entity, picked));
+		return denial != null && denial.expiresAt > tick && denial.stateVersion == stateVersion && denial.accessorModes == accessorModes &&
+				Objects.equals(denial.accessorId, accessorId) &&
+				denial.entityChunk == entity.chunkPosition().toLong() && denial.pickedChunk == picked.chunkPosition().toLong() &&
+				Objects.equals(denial.pickedThrowerId, pickedThrowerId) && Objects.equals(denial.pickedOwnerId, pickedOwnerId);
+	}
+
+	public void deny(Entity entity, Entity picked, UUID pickedThrowerId, UUID pickedOwnerId, UUID accessorId, int accessorModes, int stateVersion) {
+		long key = getPairKey(entity, picked);
+		Denial denial = deniedPickups.get(key);
+		if(denial == null)
+			deniedPickups.put(key, denial = new Denial());
+		denial.entityChunk = entity.chunkPosition().toLong();
+		denial.pickedChunk = picked.chunkPosition().toLong();
+		denial.pickedThrowerId = pickedThrowerId;
+		denial.pickedOwnerId = pickedOwnerId;
+		denial.accessorId = accessorId;
+		denial.accessorModes = accessorModes;
+		denial.stateVersion = stateVersion;
+		denial.expiresAt = tick + DENIAL_TICKS;
+	}
+
+	private long getPairKey(Entity entity, Entity picked) {
+		return ((long) entity.getId() << 32) | (picked.getId() & 0xFFFFFFFFL);
+	}
+
+	public void onServerTick() {
+		for(LongOpenHashSet chunks : deniedChunksInTick.values()) {
+			chunks.clear();
+			chunkSetPool.add(chunks);
+		}
+		deniedChunksInTick.clear();
+		tick++;
+		if(tick % DENIAL_TICKS == 0 && !deniedPickups.isEmpty()) {
+			//also gets rid of denials for entities that don't exist anymore
+			ObjectIterator<Denial> iterator = deniedPickups.values().iterator();
+			while(iterator.hasNext())
+				if(iterator.next().expiresAt <= tick)
+					iterator.remove();
+		}
+	}
+
+	public static ChunkProtectionPickupCache create() {
+		return new ChunkProtectionPickupCache(new Int2ObjectOpenHashMap<>(), new ArrayList<>(), new Long2ObjectOpenHashMap<>());
+	}
+
+	private static final class Denial {
+
+		private long entityChunk;
+		private long pickedChunk;
+		private UUID pickedThrowerId;
+		private UUID pickedOwnerId;
+		private UUID accessorId;
+		private int accessorModes;
+		private int stateVersion;//player config, claim and party relationship changes
+		private long expiresAt;
+
+	}
+
+}
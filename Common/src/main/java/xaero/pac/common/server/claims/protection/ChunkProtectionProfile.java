@@ -0,0 +1,122 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import xaero.pac.common.server.player.config.IPlayerConfig;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+
+/**
+ * An immutable snapshot of the effective boolean and integer option values of a player (sub-)config,
+ * so that protection checks don't look up the config storage by path every time.
+ * <p>
+ * A profile is only up to date while the effective values version of its config stays the same, which covers changes to
+ * the config itself, to the configs it inherits values from and to the server config lists that decide which options
+ * are player-configurable.
+ * <p>
+ * Profiles are published to other threads with claim snapshots, so none of the option values in them may be modified
+ * after construction. The only mutable part is the entity barrier memo, see {@link #getEntityBarrierMemo}.
+ */
+public final class ChunkProtectionProfile {
+
+	public static final byte ENTITY_BARRIER_UNKNOWN = 0;
+	public static final byte ENTITY_BARRIER_ABSENT = 1;
+	public static final byte ENTITY_BARRIER_PRESENT = 2;
+
+	private final IPlayerConfig config;
+	private final Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> slots;
+	private final int[] values;
+	private final int effectiveValuesVersion;
+	private volatile EntityBarrierMemo entityBarrierMemo;
+
+	ChunkProtectionProfile(IPlayerConfig config, Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> slots, int[] values, int effectiveValuesVersion) {
+		this.config = config;
+		this.slots = slots;
+		this.values = values;
+		this.effectiveValuesVersion = effectiveValuesVersion;
+	}
+
+	public boolean isUpToDate(int effectiveValuesVersion) {
+		return this.effectiveValuesVersion == effectiveValuesVersion;
+	}
+
+	public boolean isCompiled(IPlayerConfigOptionSpecAPI<?> option) {
+		return slots.getInt(option) >= 0;
+	}
+
+	public boolean getBoolean(IPlayerConfigOptionSpecAPI<Boolean> option) {
+		int slot = slots.getInt(option);
+		if(slot < 0)
+			return config.getEffective(option);
+		return values[slot] != 0;
+	}
+
+	public int getInt(IPlayerConfigOptionSpecAPI<Integer> option) {
+		int slot = slots.getInt(option);
+		if(slot < 0)
+			return config.getEffective(option);
+		return values[slot];
+	}
+
+	/**
+	 * Gets the memo of whether the barrier options of this profile can affect entity types, indexed by the entity type registry IDs,
+	 * with {@link #ENTITY_BARRIER_UNKNOWN} for the types that haven't been checked yet.
+	 * <p>
+	 * The results also depend on the tag exceptions, so a memo for an older tag exceptions version is replaced with an empty one.
+	 * The memo isn't locked. Every thread that fills in an entry for the same tag exceptions version writes the same value,
+	 * and a single byte write can't be torn, so the worst a race can do is check an entity type again.
+	 */
+	public byte[] getEntityBarrierMemo(int tagExceptionsVersion, int entityTypeCount) {
+		EntityBarrierMemo memo = entityBarrierMemo;
+		if(memo == null || memo.tagExceptionsVersion != tagExceptionsVersion || memo.results.length != entityTypeCount)
+			entityBarrierMemo = memo = new EntityBarrierMemo(tagExceptionsVersion, new byte[entityTypeCount]);
+		return memo.results;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ChunkProtectionProfile build(IPlayerConfig config, Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> slots, int effectiveValuesVersion) {
+		int[] values = new int[slots.size()];
+		for(Reference2IntMap.Entry<IPlayerConfigOptionSpecAPI<?>> entry : slots.reference2IntEntrySet()) {
+			IPlayerConfigOptionSpecAPI<?> option = entry.getKey();
+			int value;
+			if(option.getType() == Boolean.class) {
+				Boolean effective = config.getEffective((IPlayerConfigOptionSpecAPI<Boolean>) option);
+				value = effective != null && effective ? 1 : 0;
+			} else {
+				Integer effective = config.getEffective((IPlayerConfigOptionSpecAPI<Integer>) option);
+				value = effective == null ? 0 : effective;
+			}
+			values[entry.getIntValue()] = value;
+		}
+		return new ChunkProtectionProfile(config, slots, values, effectiveValuesVersion);
+	}
+
+	private static final class EntityBarrierMemo {
+
+		private final int tagExceptionsVersion;
+		private final byte[] results;
+
+		private EntityBarrierMemo(int tagExceptionsVersion, byte[] results) {
+			this.tagExceptionsVersion = tagExceptionsVersion;
+			this.results = results;
+		}
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import xaero.pac.common.claims.player.IPlayerChunkClaim;
+
+/**
+ * The part of the fluid and piston barrier checks that runs for every flowing or pushed block. Movements inside a chunk
+ * are skipped and the result for a pair of claim states is remembered for the rest of the tick, so that the claim configs
+ * are only compared once per pair.
+ */
+final class ClaimBarrierFilter {
+
+	private ClaimBarrierFilter() {
+	}
+
+	static <L> boolean hitsAnotherClaimInTick(L level, int fromChunkX, int fromChunkZ, int toChunkX, int toChunkZ, ChunkClaimGetter<L> claimGetter,
+											   ClaimPairResultCache tickCache, int configVersion, ClaimPairCheck check) {
+		if(fromChunkX == toChunkX && fromChunkZ == toChunkZ)
+			return false;//most fluid flows stay inside a chunk
+		IPlayerChunkClaim toClaim = claimGetter.get(level, toChunkX, toChunkZ);
+		IPlayerChunkClaim fromClaim = claimGetter.get(level, fromChunkX, fromChunkZ);
+		return hitsAnotherClaimInTick(fromClaim, toClaim, tickCache, configVersion, check);
+	}
+
+	static boolean hitsAnotherClaimInTick(IPlayerChunkClaim fromClaim, IPlayerChunkClaim toClaim, ClaimPairResultCache tickCache, int configVersion, ClaimPairCheck check) {
+		if(toClaim == null || fromClaim == toClaim)
+			return false;
+		//the result only depends on the two claim states
+		byte cached = tickCache.get(fromClaim, toClaim, configVersion);
+		if(cached != ClaimPairResultCache.MISSING)
+			return cached == 1;
+		boolean result = check.hitsAnotherClaim(fromClaim, toClaim);
+		tickCache.put(fromClaim, toClaim, result);
+		return result;
+	}
+
+	interface ChunkClaimGetter<L> {
+
+		IPlayerChunkClaim get(L level, int chunkX, int chunkZ);
+
+	}
+
+	interface ClaimPairCheck {
+
+		boolean hitsAnotherClaim(IPlayerChunkClaim fromClaim, IPlayerChunkClaim toClaim);
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection;
+
+import it.unimi.dsi.fastutil.objects.Reference2ByteMap;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import xaero.pac.common.claims.player.IPlayerChunkClaim;
+
+/**
+ * Remembers a boolean result per pair of claim states (from, to) for the rest of the current server tick.
+ * <p>
+ * Cleared every tick and whenever the provided config version changes.
+ */
+final class ClaimPairResultCache {
+
+	static final byte MISSING = -1;
+
+	private final Reference2ObjectMap<IPlayerChunkClaim, Reference2ByteMap<IPlayerChunkClaim>> results;//from claim -> to claim -> result
+	private int configVersion;
+
+	ClaimPairResultCache() {
+		this.results = new Reference2ObjectOpenHashMap<>();
+	}
+
+	byte get(IPlayerChunkClaim fromClaim, IPlayerChunkClaim toClaim, int configVersion) {
+		if(this.configVersion != configVersion) {
+			clear();
+			this.configVersion = configVersion;
+		}
+		Reference2ByteMap<IPlayerChunkClaim> toClaimResults = results.get(fromClaim);
+		return toClaimResults == null ? MISSING : toClaimResults.getByte(toClaim);
+	}
+
+	void put(IPlayerChunkClaim fromClaim, IPlayerChunkClaim toClaim, boolean result) {
+		Reference2ByteMap<IPlayerChunkClaim> toClaimResults = results.get(fromClaim);
+		if(toClaimResults == null) {
+			toClaimResults = new Reference2ByteOpenHashMap<>();
+			toClaimResults.defaultReturnValue(MISSING);
+			results.put(fromClaim, toClaimResults);
+		}
+		toClaimResults.put(toClaim, (byte) (result ? 1 : 0));
+	}
+
+	void clear() {
+		results.clear();
+	}
+
+}
@@ -27,6 +27,7 @@ import xaero.pac.common.server.claims.protection.ExceptionElementType;
 import xaero.pac.common.server.player.config.PlayerConfigOptionCategory;
 import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
 
+import java.util.BitSet;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -64,6 +65,10 @@ public final class ChunkProtectionExceptionGroup<T> {
 		exceptionSet.updateTagExceptions(server);
 	}
 
+	public BitSet getCompiledIds(){
+		return exceptionSet.getCompiledIds();
+	}
+
 	public void setPlayerConfigOption(IPlayerConfigOptionSpecAPI<Integer> playerConfigOption) {
 		this.playerConfigOption = playerConfigOption;
 	}
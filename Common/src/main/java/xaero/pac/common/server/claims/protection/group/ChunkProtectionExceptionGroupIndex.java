@@ -0,0 +1,84 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.protection.group;
+
+import net.minecraft.core.Registry;
+import net.minecraft.server.MinecraftServer;
+import xaero.pac.common.server.claims.protection.ExceptionElementType;
+
+import java.util.*;
+
+public final class ChunkProtectionExceptionGroupIndex<T> {
+
+	private final Collection<ChunkProtectionExceptionGroup<T>> groups;
+	private final ExceptionElementType<T> elementType;
+	private Registry<T> registry;
+	private List<ChunkProtectionExceptionGroup<T>>[] groupsById;
+
+	private ChunkProtectionExceptionGroupIndex(Collection<ChunkProtectionExceptionGroup<T>> groups, ExceptionElementType<T> elementType) {
+		this.groups = groups;
+		this.elementType = elementType;
+	}
+
+	public List<ChunkProtectionExceptionGroup<T>> getGroupsContaining(T object){
+		if(groupsById != null) {
+			int id = registry.getId(object);
+			if(id != -1)
+				return id < groupsById.length ? groupsById[id] : Collections.emptyList();
+		}
+		List<ChunkProtectionExceptionGroup<T>> result = null;
+		for(ChunkProtectionExceptionGroup<T> group : groups)
+			if(group.contains(object)) {
+				if(result == null)
+					result = new ArrayList<>();
+				result.add(group);
+			}
+		return result == null ? Collections.emptyList() : result;
+	}
+
+	@SuppressWarnings("unchecked")
+	public void update(MinecraftServer server){
+		Registry<T> elementRegistry = elementType.getRegistry(server);
+		int maxId = -1;
+		for(ChunkProtectionExceptionGroup<T> group : groups)
+			if(group.getCompiledIds() != null)
+				maxId = Math.max(maxId, group.getCompiledIds().length() - 1);
+		List<ChunkProtectionExceptionGroup<T>>[] byId = new List[maxId + 1];
+		for(ChunkProtectionExceptionGroup<T> group : groups) {
+			BitSet groupIds = group.getCompiledIds();
+			if(groupIds == null)
+				continue;
+			for(int id = groupIds.nextSetBit(0); id >= 0; id = groupIds.nextSetBit(id + 1)) {
+				if(byId[id] == null)
+					byId[id] = new ArrayList<>();
+				byId[id].add(group);
+			}
+		}
+		Map<List<ChunkProtectionExceptionGroup<T>>, List<ChunkProtectionExceptionGroup<T>>> sharedLists = new HashMap<>();//most IDs are in the same few combinations of groups
+		for(int id = 0; id <= maxId; id++)
+			byId[id] = byId[id] == null ? Collections.emptyList() : sharedLists.computeIfAbsent(List.copyOf(byId[id]), l -> l);
+		registry = elementRegistry;
+		groupsById = byId;
+	}
+
+	public static <T> ChunkProtectionExceptionGroupIndex<T> of(Map<String, ChunkProtectionExceptionGroup<T>> groups, ExceptionElementType<T> elementType){
+		return new ChunkProtectionExceptionGroupIndex<>(groups.values(), elementType);
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.claims.sync;
+
+import net.minecraft.resources.ResourceLocation;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+
+import java.util.*;
+
+final class ClaimsManagerRegionUpdateBatch {
+
+	private final Map<Entry, Entry> removals;
+	private final Map<Entry, Entry> claims;
+	private Entry lastRemoval;
+	private Entry lastClaim;
+
+	ClaimsManagerRegionUpdateBatch() {
+		this.removals = new LinkedHashMap<>();
+		this.claims = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Adds a chunk update for a recipient. A null recipient means every player.
+	 * Each chunk is expected to be updated at most once per batch.
+	 */
+	void add(ResourceLocation dimension, int x, int z, UUID recipient, PlayerChunkClaim claim) {
+		int regionX = x >> 5;
+		int regionZ = z >> 5;
+		if(claim == null) {
+			if(lastRemoval == null || !lastRemoval.matches(dimension, regionX, regionZ, recipient, null))
+				lastRemoval = removals.computeIfAbsent(new Entry(dimension, regionX, regionZ, recipient, null), e -> e);
+			lastRemoval.add(x & 31, z & 31);
+		} else {
+			if(lastClaim == null || !lastClaim.matches(dimension, regionX, regionZ, recipient, claim))
+				lastClaim = claims.computeIfAbsent(new Entry(dimension, regionX, regionZ, recipient, claim), e -> e);
+			lastClaim.add(x & 31, z & 31);
+		}
+	}
+
+	Collection<Entry> getRemovals() {
+		return removals.values();
+	}
+
+	Collection<Entry> getClaims() {
+		return claims.values();
+	}
+
+	static final class Entry {
+
+		private final ResourceLocation dimension;
+		private final int regionX;
+		private final int regionZ;
+		private final UUID recipient;
+		private final PlayerChunkClaim claim;
+		private final long[] chunks;
+		private int count;
+		private int lastIndex;
+
+		private Entry(ResourceLocation dimension, int regionX, int regionZ, UUID recipient, PlayerChunkClaim claim) {
+			this.dimension = dimension;
+			this.regionX = regionX;
+			this.regionZ = regionZ;
+			this.recipient = recipient;
+			this.claim = claim;
+			this.chunks = new long[16];
+		}
+
+		private boolean matches(ResourceLocation dimension, int regionX, int regionZ, UUID recipient, PlayerChunkClaim claim) {
+			return this.regionX == regionX && this.regionZ == regionZ && this.claim == claim && Objects.equals(this.recipient, recipient) && this.dimension.equals(dimension);
+		}
+
+		private void add(int x, int z) {
+			int index = (x << 5) | z;
+			long bit = 1L << (index & 63);
+			if((chunks[index >> 6] & bit) == 0) {
+				chunks[index >> 6] |= bit;
+				count++;
+				lastIndex = index;
+			}
+		}
+
+		ResourceLocation getDimension() {
+			return dimension;
+		}
+
+		int getRegionX() {
+			return regionX;
+		}
+
+		int getRegionZ() {
+			return regionZ;
+		}
+
+		UUID getRecipient() {
+			return recipient;
+		}
+
+		PlayerChunkClaim getClaim() {
+			return claim;
+		}
+
+		long[] getChunks() {
+			return chunks;
+		}
+
+		int getCount() {
+			return count;
+		}
+
+		int getLastChunkX() {
+			return (regionX << 5) | (lastIndex >> 5);
+		}
+
+		int getLastChunkZ() {
+			return (regionZ << 5) | (lastIndex & 31);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o)
+				return true;
+			if(o == null || getClass() != o.getClass())
+				return false;
+			Entry entry = (Entry) o;
+			return entry.matches(dimension, regionX, regionZ, recipient, claim);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dimension, regionX, regionZ, recipient, claim);
+		}
+
+	}
+
+}
@@ -69,6 +69,7 @@ public final class ClaimsManagerSynchronizer implements IClaimsManagerSynchroniz
 	private ServerClaimsManager claimsManager;
 	private IServerData<IServerClaimsManager<IPlayerChunkClaim, IServerPlayerClaimInfo<IPlayerDimensionClaims<IPlayerClaimPosList>>, IServerDimensionClaimsManager<IServerRegionClaims>>, ?> serverData;
 	private final List<LazyPacketScheduleTaskHandler> schedulers;
+	private ClaimsManagerRegionUpdateBatch regionUpdateBatch;
 
 	private ClaimsManagerSynchronizer(MinecraftServer server, List<LazyPacketScheduleTaskHandler> schedulers) {
 		super();
@@ -260,6 +261,10 @@ public final class ClaimsManagerSynchronizer implements IClaimsManagerSynchroniz
 		ServerConfig.ClaimsSyncType syncType = ServerConfig.CONFIG.claimsSynchronization.get();
 		if(syncType == ServerConfig.ClaimsSyncType.NOT_SYNCED)
 			return;
+		if(regionUpdateBatch != null) {
+			batchClaimUpdate(syncType, dimension, x, z, claim, oldClaim);
+			return;
+		}
 		PlayerList players = server.getPlayerList();
 		UUID newPlayerId = claim == null ? null : claim.getPlayerId();
 		int newSubConfigIndex = claim == null ? -1 : claim.getSubConfigIndex();
@@ -289,6 +294,74 @@ public final class ClaimsManagerSynchronizer implements IClaimsManagerSynchroniz
 		}
 	}
 
+	private void batchClaimUpdate(ServerConfig.ClaimsSyncType syncType, ResourceLocation dimension, int x, int z, PlayerChunkClaim claim, PlayerChunkClaim oldClaim) {
+		//same recipients as in syncToPlayersClaimUpdate, with null meaning every player
+		UUID newPlayerId = claim == null ? null : claim.getPlayerId();
+		if(claimInfoShouldReachEveryone(syncType, newPlayerId)) {
+			regionUpdateBatch.add(dimension, x, z, null, claim);
+			return;
+		}
+		UUID oldPlayerId = oldClaim == null ? null : oldClaim.getPlayerId();
+		if(oldPlayerId != null && !Objects.equals(newPlayerId, oldPlayerId))
+			regionUpdateBatch.add(dimension, x, z, Objects.equals(PlayerConfig.SERVER_CLAIM_UUID, oldPlayerId) ? null : oldPlayerId, null);
+		if(newPlayerId != null)
+			regionUpdateBatch.add(dimension, x, z, newPlayerId, claim);
+	}
+
+	/**
+	 * Starts collecting claim updates so that they can be sent as one packet per region instead of one per chunk.
+	 * Every chunk must be updated at most once before {@link #endClaimUpdateBatch()} is called.
+	 */
+	public void startClaimUpdateBatch() {
+		if(regionUpdateBatch != null)
+			throw new IllegalStateException("a claim update batch is already in progress");
+		regionUpdateBatch = new ClaimsManagerRegionUpdateBatch();
+	}
+
+	public void endClaimUpdateBatch() {
+		ClaimsManagerRegionUpdateBatch batch = regionUpdateBatch;
+		if(batch == null)
+			return;
+		regionUpdateBatch = null;
+		//removals go first because a player can receive both a removal (from the old claim) and a new claim for the same chunk
+		batch.getRemovals().forEach(this::sendBatchedRegionUpdate);
+		batch.getClaims().forEach(this::sendBatchedRegionUpdate);
+	}
+
+	private void sendBatchedRegionUpdate(ClaimsManagerRegionUpdateBatch.Entry entry) {
+		PlayerList players = server.getPlayerList();
+		ServerPlayer recipient = null;
+		if(entry.getRecipient() != null) {
+			recipient = players.getPlayer(entry.getRecipient());
+			if(recipient == null)
+				return;
+		}
+		PlayerChunkClaim claim = entry.getClaim();
+		UUID playerId = claim == null ? null : claim.getPlayerId();
+		int subConfigIndex = claim == null ? -1 : claim.getSubConfigIndex();
+		boolean forceload = claim != null && claim.isForceloadable();
+		int syncIndex = claim != null ? claim.getSyncIndex() : -1;
+		if(entry.getCount() == 1) {
+			//the regular per-chunk packets are smaller for a single chunk
+			int x = entry.getLastChunkX();
+			int z = entry.getLastChunkZ();
+			ClientboundClaimsClaimUpdatePacket packet = new ClientboundClaimsClaimUpdatePacket(entry.getDimension(), x, z, playerId, subConfigIndex, forceload, syncIndex);
+			ClientboundClaimsClaimUpdatePosPacket posPacket = new ClientboundClaimsClaimUpdatePosPacket(x, z);
+			if(recipient != null)
+				sendClaimUpdatePacketToPlayer(recipient, claim, entry.getDimension(), x, z, packet, posPacket);
+			else
+				for(ServerPlayer player : players.getPlayers())
+					sendClaimUpdatePacketToPlayer(player, claim, entry.getDimension(), x, z, packet, posPacket);
+			return;
+		}
+		ClientboundClaimsRegionUpdatePacket packet = new ClientboundClaimsRegionUpdatePacket(entry.getDimension(), entry.getRegionX(), entry.getRegionZ(), playerId, subConfigIndex, forceload, syncIndex, entry.getChunks());
+		if(recipient != null)
+			sendToClient(recipient, packet, false);
+		else
+			for(ServerPlayer player : players.getPlayers())
+				sendToClient(player, packet, false);
+	}
+
 	public void syncToPlayersRemoveClaimState(PlayerChunkClaim state) {
 		ServerConfig.ClaimsSyncType syncType = ServerConfig.CONFIG.claimsSynchronization.get();
 		if(syncType == ServerConfig.ClaimsSyncType.NOT_SYNCED)
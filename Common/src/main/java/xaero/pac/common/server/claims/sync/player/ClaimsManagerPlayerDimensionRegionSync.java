@@ -18,8 +18,12 @@
 
 package xaero.pac.common.server.claims.sync.player;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
 import xaero.pac.common.server.IServerData;
 import xaero.pac.common.server.claims.ServerDimensionClaimsManager;
 import xaero.pac.common.server.claims.ServerRegionClaims;
@@ -32,28 +36,26 @@ public class ClaimsManagerPlayerDimensionRegionSync {
 
 	private final ServerDimensionClaimsManager dimensionClaims;
 	private final Iterator<ServerRegionClaims> iterator;
+	private LongIterator ownedRegionIterator;
 	private final boolean ownedOnly;
 	private final boolean serverOnly;
 	
 	ClaimsManagerPlayerDimensionRegionSync(ServerDimensionClaimsManager dimensionClaims, boolean ownedOnly, boolean serverOnly) {
 		super();
 		this.dimensionClaims = dimensionClaims;
-		this.iterator = dimensionClaims.iterator();
+		this.iterator = !serverOnly && !ownedOnly ? dimensionClaims.iterator() : null;
 		this.ownedOnly = ownedOnly;
 		this.serverOnly = serverOnly;
 	}
 	
 	public int handle(IServerData<?,?> serverData, ServerPlayer player, ClaimsManagerSynchronizer synchronizer, int limit) {
+		if(iterator == null)
+			return handleOwned(player, synchronizer, limit);
 		if(iterator.hasNext()) {
 			int count = 0;
 			while(iterator.hasNext()) {
 				ServerRegionClaims region = iterator.next();
-				if(!serverOnly && !ownedOnly || !serverOnly && region.containsStateOwner(player.getUUID()) || region.containsStateOwner(PlayerConfig.SERVER_CLAIM_UUID)) {
-					int paletteInts[] = region.getSyncablePaletteArray();
-					long[] storageDataCopy = region.getSyncableStorageData();
-					int storageBits = region.getSyncableStorageBits();
-					synchronizer.syncRegionClaimsToClient(region.getX(), region.getZ(), paletteInts, storageDataCopy, storageBits, player);
-				}
+				syncRegion(region, player, synchronizer);
 				count++;
 				if(count >= limit)
 					break;
@@ -62,6 +64,36 @@ public class ClaimsManagerPlayerDimensionRegionSync {
 		}
 		return 0;
 	}
+
+	private int handleOwned(ServerPlayer player, ClaimsManagerSynchronizer synchronizer, int limit) {
+		if(ownedRegionIterator == null) {
+			//only the regions owned by the player or the server, taken when the syncing of this dimension actually starts
+			LongSet ownedRegions = new LongOpenHashSet();
+			if(!serverOnly)
+				dimensionClaims.collectOwnedRegionKeys(player.getUUID(), ownedRegions);
+			dimensionClaims.collectOwnedRegionKeys(PlayerConfig.SERVER_CLAIM_UUID, ownedRegions);
+			ownedRegionIterator = ownedRegions.iterator();
+		}
+		int count = 0;
+		while(ownedRegionIterator.hasNext()) {
+			long regionKey = ownedRegionIterator.nextLong();
+			ServerRegionClaims region = dimensionClaims.getRegion(PlayerChunkClaim.getXFromLongCoordinates(regionKey), PlayerChunkClaim.getZFromLongCoordinates(regionKey));
+			//the region might have changed since the keys were collected
+			if(region != null && (!serverOnly && region.containsStateOwner(player.getUUID()) || region.containsStateOwner(PlayerConfig.SERVER_CLAIM_UUID)))
+				syncRegion(region, player, synchronizer);
+			count++;
+			if(count >= limit)
+				break;
+		}
+		return count;
+	}
+
+	private void syncRegion(ServerRegionClaims region, ServerPlayer player, ClaimsManagerSynchronizer synchronizer) {
+		int paletteInts[] = region.getSyncablePaletteArray();
+		long[] storageDataCopy = region.getSyncableStorageData();
+		int storageBits = region.getSyncableStorageBits();
+		synchronizer.syncRegionClaimsToClient(region.getX(), region.getZ(), paletteInts, storageDataCopy, storageBits, player);
+	}
 	
 	public ResourceLocation getDim() {
 		return dimensionClaims.getDimension();
@@ -32,6 +32,8 @@ public class CommonCommandRegister {
 		new ConfigSubCreateCommand().register(dispatcher, environment);
 		new ConfigSubDeleteCommand().register(dispatcher, environment);
 		new ConfigSubListCommand().register(dispatcher, environment);
+		new DebugMemoryCommand().register(dispatcher, environment);
+		new DebugClaimCacheCommand().register(dispatcher, environment);
 	}
 
 }
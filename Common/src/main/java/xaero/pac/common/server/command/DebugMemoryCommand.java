@@ -0,0 +1,84 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.SimpleBitStorage;
+import xaero.pac.common.claims.player.IPlayerChunkClaim;
+import xaero.pac.common.claims.player.IPlayerClaimPosList;
+import xaero.pac.common.claims.player.IPlayerDimensionClaims;
+import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.claims.storage.RegionClaimsPaletteStorage;
+import xaero.pac.common.parties.party.IPartyPlayerInfo;
+import xaero.pac.common.parties.party.ally.IPartyAlly;
+import xaero.pac.common.parties.party.member.IPartyMember;
+import xaero.pac.common.server.IServerData;
+import xaero.pac.common.server.ServerData;
+import xaero.pac.common.server.claims.IServerClaimsManager;
+import xaero.pac.common.server.claims.IServerDimensionClaimsManager;
+import xaero.pac.common.server.claims.IServerRegionClaims;
+import xaero.pac.common.server.claims.ServerClaimsManager;
+import xaero.pac.common.server.claims.ServerRegionClaims;
+import xaero.pac.common.server.claims.player.IServerPlayerClaimInfo;
+import xaero.pac.common.server.parties.party.IServerParty;
+import xaero.pac.common.server.player.localization.AdaptiveLocalizer;
+
+public class DebugMemoryCommand {
+
+	public void register(CommandDispatcher<CommandSourceStack> dispatcher, Commands.CommandSelection environment) {
+		LiteralArgumentBuilder<CommandSourceStack> command = Commands.literal(CommonCommandRegister.COMMAND_PREFIX)
+				.then(Commands.literal("debug")
+				.requires(sourceStack -> sourceStack.hasPermission(2))
+				.then(Commands.literal("memory")
+				.executes(getExecutor())));
+		dispatcher.register(command);
+	}
+
+	private static Command<CommandSourceStack> getExecutor(){
+		return context -> {
+			ServerPlayer sourcePlayer = context.getSource().getPlayerOrException();
+			IServerData<IServerClaimsManager<IPlayerChunkClaim, IServerPlayerClaimInfo<IPlayerDimensionClaims<IPlayerClaimPosList>>, IServerDimensionClaimsManager<IServerRegionClaims>>, IServerParty<IPartyMember, IPartyPlayerInfo, IPartyAlly>> serverData = ServerData.from(context.getSource().getServer());
+			AdaptiveLocalizer adaptiveLocalizer = serverData.getAdaptiveLocalizer();
+			ServerClaimsManager claimsManager = (ServerClaimsManager)(Object) serverData.getServerClaimsManager();
+
+			long emptyStorageUsage = new RegionClaimsPaletteStorage(new PlayerChunkClaim[1], new SimpleBitStorage(1, 1024), false).getEstimatedMemoryUsage();
+			long[] totals = new long[5];//dimensions, regions, separate syncable storages, estimated bytes, saved bytes
+			claimsManager.getDimensionStream().forEach(dim -> {
+				totals[0]++;
+				dim.getRegionStream().forEach(region -> {
+					ServerRegionClaims serverRegion = (ServerRegionClaims) region;
+					totals[1]++;
+					totals[3] += serverRegion.getEstimatedMemoryUsage();
+					if(serverRegion.hasSeparateSyncableStorage())
+						totals[2]++;
+					else if(!serverRegion.isPlayerClaimsSyncAllowed())
+						totals[4] += emptyStorageUsage;//would've been allocated up front
+				});
+			});
+			sourcePlayer.sendMessage(adaptiveLocalizer.getFor(sourcePlayer, "gui.xaero_pac_debug_memory_claims", totals[0], totals[1], totals[2], totals[3] / 1024, totals[4] / 1024), sourcePlayer.getUUID());
+			return 1;
+		};
+	}
+
+}
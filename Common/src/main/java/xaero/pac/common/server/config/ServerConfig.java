@@ -33,6 +33,8 @@ public class ServerConfig {
 	public final ForgeConfigSpec.BooleanValue claimsEnabled;
 	public final ForgeConfigSpec.IntValue autosaveInterval;
 	public final ForgeConfigSpec.IntValue playerSubConfigLimit;
+	public final ForgeConfigSpec.BooleanValue lazyPlayerConfigLoading;
+	public final ForgeConfigSpec.BooleanValue binaryPlayerConfigFiles;
 	public final ForgeConfigSpec.IntValue partyExpirationTime;
 	public final ForgeConfigSpec.IntValue partyExpirationCheckInterval;
 	public final ForgeConfigSpec.ConfigValue<List<? extends String>> opConfigurablePlayerConfigOptions;
@@ -69,6 +71,7 @@ public class ServerConfig {
 	public final ForgeConfigSpec.ConfigValue<List<? extends String>> completelyDisabledEntityInteractions;
 	public final ForgeConfigSpec.BooleanValue completelyDisableFrostWalking;
 	public final ForgeConfigSpec.BooleanValue reducedBoatEntityCollisions;
+	public final ForgeConfigSpec.BooleanValue claimResolutionTickCache;
 	public final ForgeConfigSpec.IntValue maxClaimDistance;
 	public final ForgeConfigSpec.ConfigValue<List<? extends String>> claimableDimensionsList;
 	public final ForgeConfigSpec.EnumValue<ConfigListType> claimableDimensionsListType;
@@ -111,6 +114,24 @@ public class ServerConfig {
 			.worldRestart()
 			.defineInRange("playerSubConfigLimit", 64, 0, 1024);
 
+		lazyPlayerConfigLoading = builder
+			.comment("""
+					Whether to only index the player config files when the server starts and parse each player's config (and sub-configs) the first time it is needed.
+					Can considerably speed up the server start on worlds with a lot of player config files. Loading the claims only loads the configs of players that own forceloaded chunks, because the forceload tickets depend on them.
+					The first time any other player config is needed (e.g. when the player logs in or is targeted by a command), the server thread waits for its files to be read and parsed, which is a short stall for each player.""")
+			.translation("gui.xaero_pac_config_lazy_player_config_loading")
+			.worldRestart()
+			.define("lazyPlayerConfigLoading", false);
+
+		binaryPlayerConfigFiles = builder
+			.comment("""
+					Whether to store the configs and sub-configs of individual players in a compact binary (NBT) format instead of TOML. Only values that differ from the defaults are stored.
+					Configs in the other format are still loaded and get converted the next time they are saved, so turning this back off converts the loaded configs back to TOML for editing.
+					The default player config, the wilderness config, the server claim config and the expired claim config always stay in TOML.""")
+			.translation("gui.xaero_pac_config_binary_player_config_files")
+			.worldRestart()
+			.define("binaryPlayerConfigFiles", false);
+
 		permissionSystem = builder
 			.comment("The permission system to use for everything that requires permission checks (e.g. permission_api, ftb_ranks, luck_perms, prometheus). Non-built-in permission systems can be registered through the API with an addon.")
 			.translation("gui.xaero_pac_config_permission_system")
@@ -651,6 +672,14 @@ public class ServerConfig {
 			.worldRestart()
 			.define("reducedBoatEntityCollisions", true);
 
+		claimResolutionTickCache = builder
+			.comment("""
+					Whether to remember which claim and player config each chunk resolves to for the rest of the current server tick.
+					Many protection checks (fluids, fire, pistons, item pickup, entity movement) look up the same chunks over and over during a tick, which this can speed up on busy servers.
+					The cache is cleared every tick and whenever a claim or player config changes. The hit/miss statistics can be checked with "/openpac debug cache".""")
+			.translation("gui.xaero_pac_config_claim_resolution_tick_cache")
+			.define("claimResolutionTickCache", false);
+
 		builder.pop();
 
 		builder.pop();
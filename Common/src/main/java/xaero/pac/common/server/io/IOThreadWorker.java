@@ -96,6 +96,10 @@ public class IOThreadWorker implements Runnable {
 	}
 	
 	public <T> T get(Supplier<T> task) {//does not crash the game unless the method caller doesn't handle an exception
+		return supply(task).join();
+	}
+
+	public <T> CompletableFuture<T> supply(Supplier<T> task) {//same as get but doesn't wait for the result
 		CompletableFuture<T> future = new CompletableFuture<>();
 		enqueueInternal(() -> {
 			try {
@@ -106,7 +110,7 @@ public class IOThreadWorker implements Runnable {
 				future.completeExceptionally(t);
 			}
 		});
-		return future.join();
+		return future;
 	}
 	
 	public void checkCrashes() throws Throwable {
@@ -27,7 +27,11 @@ import xaero.pac.common.server.io.serialization.SerializedDataFileIO;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
@@ -40,6 +44,7 @@ public abstract class ObjectManagerIO
 > {
 	
 	private final int MAX_PER_TICK = 5;
+	private static final long PREFETCH_TIMEOUT = 60000;
 	protected final M manager;
 	protected final String fileExtension;
 	protected final SerializationHandler<S, I, T, M> serializationHandler;
@@ -47,6 +52,7 @@ public abstract class ObjectManagerIO
 	private final IOThreadWorker ioThreadWorker;
 	protected final MinecraftServer server;
 	private final FileIOHelper fileIOHelper;
+	private final Map<Path, PrefetchedFile> prefetchedData;//only accessed from the server thread, completed on the IO thread
 
 	@SuppressWarnings("unchecked")
 	protected ObjectManagerIO(SerializationHandler<S, I, T, M> serializationHandler, SerializedDataFileIO<S,I> serializedDataFileIO, IOThreadWorker ioThreadWorker, MinecraftServer server, String fileExtension, M manager, FileIOHelper fileIOHelper) {
@@ -57,6 +63,7 @@ public abstract class ObjectManagerIO
 		this.fileExtension = fileExtension;
 		this.manager = manager;
 		this.fileIOHelper = fileIOHelper;
+		this.prefetchedData = new HashMap<>();
 	}
 	
 	protected abstract Stream<FilePathConfig> getObjectFolderPaths();
@@ -64,20 +71,22 @@ public abstract class ObjectManagerIO
 	public void load() {
 		Stream<FilePathConfig> folderPaths = getObjectFolderPaths();
 		folderPaths.forEach(folderPathConfig -> loadInFolder(folderPathConfig.getPath(), folderPathConfig));
+		prefetchedData.clear();//files that were prefetched but not loaded (e.g. failed to list) shouldn't stay in memory
 	}
 
 	private void loadInFolder(Path folderPath, FilePathConfig filePathConfig){
 		try {
 			Files.createDirectories(folderPath);
+			List<Path> files;
 			try(Stream<Path> contents = Files.list(folderPath)){
-				contents.forEach
-						(fd -> {
-							if(Files.isDirectory(fd))
-								return;
-							T loadedObject = loadFile(fd, filePathConfig, true);
-							if(loadedObject != null)
-								onObjectLoad(loadedObject);
-						});
+				files = contents.filter(fd -> !Files.isDirectory(fd)).toList();
+			}
+			for(int i = 0; i < files.size(); i++) {
+				if(i + 1 < files.size())
+					prefetchFile(files.get(i + 1), filePathConfig);//the IO thread reads the next file while this one is being loaded
+				T loadedObject = loadFile(files.get(i), filePathConfig, true);
+				if(loadedObject != null)
+					onObjectLoad(loadedObject);
 			}
 			if(filePathConfig.isLoadRecursively()) {
 				//after loading all files in this folder, go deeper
@@ -100,12 +109,18 @@ public abstract class ObjectManagerIO
 	protected abstract I getObjectId(String fileNameNoExtension, Path file, FilePathConfig filePathConfig);
 	
 	protected T loadFile(Path file, FilePathConfig filePathConfig, boolean backupOnError) {
+		return loadFile(file, filePathConfig, backupOnError, this.fileExtension, serializationHandler, serializedDataFileIO);
+	}
+
+	protected <D> T loadFile(Path file, FilePathConfig filePathConfig, boolean backupOnError, String fileExtension, SerializationHandler<D, I, T, M> serializationHandler, SerializedDataFileIO<D,I> serializedDataFileIO) {
 		String fileName = file.getFileName().toString();
-		if(!fileName.endsWith(this.fileExtension))
+		if(!fileName.endsWith(fileExtension))
 			return null;
-		I id = getObjectId(fileName.substring(0, fileName.lastIndexOf('.')), file, filePathConfig);
 		try {
-			S serializedData = ioThreadWorker.get(() -> readSerializedData(id, file, serializedDataFileIO, 20));
+			I id = getObjectId(fileName.substring(0, fileName.lastIndexOf('.')), file, filePathConfig);//invalid file names are handled like invalid files
+			D serializedData = getPrefetchedData(file);
+			if(serializedData == null)
+				serializedData = ioThreadWorker.get(() -> readSerializedData(id, file, serializedDataFileIO, 20));
 			T object = serializationHandler.deserialize(id, manager, serializedData);
 			return object;
 		} catch(Throwable e) {
@@ -139,6 +154,39 @@ public abstract class ObjectManagerIO
 		return null;
 	}
 	
+	/**
+	 * Starts reading a file on the IO thread, so that loading it later doesn't have to wait for the read.
+	 * Failed reads are ignored because the file is read again when it is loaded, which handles the errors.
+	 */
+	protected void prefetchFile(Path file, FilePathConfig filePathConfig) {
+		prefetchFile(file, filePathConfig, this.fileExtension, serializedDataFileIO);
+	}
+
+	protected <D> void prefetchFile(Path file, FilePathConfig filePathConfig, String fileExtension, SerializedDataFileIO<D,I> serializedDataFileIO) {
+		String fileName = file.getFileName().toString();
+		if(!fileName.endsWith(fileExtension) || prefetchedData.containsKey(file))
+			return;
+		I id;
+		try {
+			id = getObjectId(fileName.substring(0, fileName.lastIndexOf('.')), file, filePathConfig);
+		} catch(Throwable e) {
+			return;
+		}
+		prefetchedData.put(file, new PrefetchedFile(ioThreadWorker.supply(() -> readSerializedData(id, file, serializedDataFileIO, 0)), System.currentTimeMillis()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <D> D getPrefetchedData(Path file) {
+		PrefetchedFile prefetched = prefetchedData.remove(file);
+		if(prefetched == null)
+			return null;
+		try {
+			return (D) prefetched.future.join();
+		} catch(CompletionException e) {
+			return null;
+		}
+	}
+
 	public boolean save() {
 		Iterator<T> iter = manager.getToSave().iterator();
 		int saves = 0;
@@ -159,10 +207,14 @@ public abstract class ObjectManagerIO
 	protected abstract Path getFilePath(T object, String fileName);
 	
 	protected void saveFile(T object, Path filePath) {
+		saveFile(object, filePath, serializationHandler, serializedDataFileIO);
+	}
+
+	protected <D> void saveFile(T object, Path filePath, SerializationHandler<D, I, T, M> serializationHandler, SerializedDataFileIO<D,I> serializedDataFileIO) {
 //		OpenPartiesAndClaims.LOGGER.info("Saving file " + filePath);
 		object.setDirty(false);
 		try {
-			S serializedData = serializationHandler.serialize(object);
+			D serializedData = serializationHandler.serialize(object);
 			ioThreadWorker.enqueue(() -> {
 				try {
 					writeSerializedData(filePath, serializedDataFileIO, serializedData, fileIOHelper, 20);
@@ -176,11 +228,29 @@ public abstract class ObjectManagerIO
 	}
 	
 	public void onServerTick() {
-		
+		if(!prefetchedData.isEmpty()) {
+			//prefetched files that are never loaded (e.g. a lazily loaded config that ends up not being needed) are dropped after a while
+			long time = System.currentTimeMillis();
+			prefetchedData.values().removeIf(prefetched -> time - prefetched.time > PREFETCH_TIMEOUT);
+		}
 	}
 	
 	public void delete(T object) {
-		Path filePath = getFilePath(object, object.getFileName());
+		deleteFile(getFilePath(object, object.getFileName()));
+	}
+
+	protected void backupFile(Path filePath) {
+		ioThreadWorker.enqueue(() -> {
+			try {
+				Path backupPath = fileIOHelper.quickFileBackupMove(filePath);
+				OpenPartiesAndClaims.LOGGER.info(String.format("Backed up %s to %s", filePath.getFileName().toString(), backupPath));
+			} catch(Throwable e) {
+				OpenPartiesAndClaims.LOGGER.error(String.format("Exception backing up file %s", filePath.getFileName().toString()), e);
+			}
+		});
+	}
+
+	protected void deleteFile(Path filePath) {
 		ioThreadWorker.enqueue(() -> {
 			try {
 				tryToDelete(filePath, 20);
@@ -259,6 +329,18 @@ public abstract class ObjectManagerIO
 		}
 	}
 	
+	private static final class PrefetchedFile {
+
+		private final CompletableFuture<?> future;
+		private final long time;
+
+		private PrefetchedFile(CompletableFuture<?> future, long time) {
+			this.future = future;
+			this.time = time;
+		}
+
+	}
+
 	public static abstract class Builder <
 		S, 
 		I,
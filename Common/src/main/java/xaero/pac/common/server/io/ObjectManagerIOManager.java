@@ -28,6 +28,6 @@ public interface ObjectManagerIOManager
 	
 	public void addToSave(T object);
 	public Iterable<T> getToSave();
-	public Stream<T> getAllStream();
+	public Stream<T> getAllStream();//only the objects in memory, which doesn't include ones that haven't been lazily loaded yet
 
 }
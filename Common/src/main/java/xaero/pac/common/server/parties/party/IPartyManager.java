@@ -29,4 +29,5 @@ public interface IPartyManager<
 	//internal API
 	public IPartySynchronizer<P> getPartySynchronizer();
 	public IPlayerConfigManager getPlayerConfigs();
+	public int getRelationshipVersion();
 }
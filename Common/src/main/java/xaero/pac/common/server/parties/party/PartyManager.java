@@ -52,6 +52,7 @@ public final class PartyManager implements IPartyManager<ServerParty>, ObjectMan
 	private PartyManagerIO<?> io;
 	private IPlayerConfigManager playerConfigs;
 	private boolean loaded;
+	private int relationshipVersion;//changes whenever party membership or alliances change
 	private PartyExpirationHandler expirationHandler;
 	private final ServerSpreadoutQueuedTaskHandler<PartyRemovalSpreadoutTask> partyRemovalTaskHandler;
 	
@@ -195,12 +196,14 @@ public final class PartyManager implements IPartyManager<ServerParty>, ObjectMan
 	}
 	
 	public void onAllyAdded(ServerParty party, UUID allyId) {
+		relationshipVersion++;
 		if(loaded)
 			getPartySynchronizer().syncToPartyAllyAdd(party, getPartyById(allyId));
 		getPartiesByAlly(allyId).add(party.getId());
 	}
 	
 	public void onAllyRemoved(ServerParty party, UUID allyId, boolean onPartyRemoval) {
+		relationshipVersion++;
 		if(loaded)
 			getPartySynchronizer().syncToPartyAllyRemove(party, allyId, onPartyRemoval);
 		Set<UUID> alliers = getPartiesByAlly(allyId);
@@ -210,12 +213,14 @@ public final class PartyManager implements IPartyManager<ServerParty>, ObjectMan
 	}
 
 	public void onMemberAdded(ServerParty party, PartyMember m) {
+		relationshipVersion++;
 		partiesByMember.put(m.getUUID(), party);
 		if(loaded)
 			getPartySynchronizer().syncToMember(m, party);
 	}
 
 	public void onMemberRemoved(ServerParty party, PartyMember m) {
+		relationshipVersion++;
 		if(partiesByMember.get(m.getUUID()) == party) {//might not be true when there are inconsistencies in the saved data or during party spreadout removal
 			partiesByMember.remove(m.getUUID());
 			if (loaded)
@@ -223,6 +228,11 @@ public final class PartyManager implements IPartyManager<ServerParty>, ObjectMan
 		}
 	}
 
+	@Override
+	public int getRelationshipVersion() {
+		return relationshipVersion;
+	}
+
 	public void onOwnerChange(PartyMember oldOwner, PartyMember newOwner) {
 		partiesByOwner.put(newOwner.getUUID(), partiesByOwner.remove(oldOwner.getUUID()));
 	}
@@ -35,5 +35,9 @@ public interface IPlayerPartySystemManager extends IPlayerPartySystemRegisterAPI
 	boolean isInAParty(UUID playerId);
 	boolean areInSameParty(UUID playerId, UUID otherPlayerId);
 	boolean isPlayerAllying(UUID playerId, UUID potentialAllyPlayerId);
+	int getRelationship(UUID playerId, UUID otherPlayerId);
+	int getRelationshipVersion();
+	void invalidateRelationships();
+	void onServerTick();
 
 }
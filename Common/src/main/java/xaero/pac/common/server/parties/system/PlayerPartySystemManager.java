@@ -18,23 +18,37 @@
 
 package xaero.pac.common.server.parties.system;
 
+import it.unimi.dsi.fastutil.objects.Object2ByteMap;
+import it.unimi.dsi.fastutil.objects.Object2ByteOpenHashMap;
 import xaero.pac.OpenPartiesAndClaims;
 import xaero.pac.common.misc.MapFactory;
 import xaero.pac.common.server.parties.system.api.IPlayerPartySystemAPI;
+import xaero.pac.common.server.parties.system.impl.DefaultPlayerPartySystem;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
 public final class PlayerPartySystemManager implements IPlayerPartySystemManager {
 
+	public static final byte RELATIONSHIP_IN_A_PARTY = 1;//the first player is in a party
+	public static final byte RELATIONSHIP_SAME_PARTY = 2;
+	public static final byte RELATIONSHIP_ALLYING = 4;
+	private static final int RELATIONSHIP_CACHE_LIMIT = 512;
+
 	private final Map<String, IPlayerPartySystemAPI<?>> systems;
 	private final Map<IPlayerPartySystemAPI<?>, String> systemNames;
 	private IPlayerPartySystemAPI<?> primarySystem;
 	private boolean registeringAddons;
+	private final Map<UUID, Object2ByteMap<UUID>> relationshipCache;
+	private int relationshipEpoch;
+	private int relationshipCacheVersion;
+	private boolean hasSystemsWithoutVersion;
 
-	private PlayerPartySystemManager(Map<String, IPlayerPartySystemAPI<?>> systems, Map<IPlayerPartySystemAPI<?>, String> systemNames) {
+	private PlayerPartySystemManager(Map<String, IPlayerPartySystemAPI<?>> systems, Map<IPlayerPartySystemAPI<?>, String> systemNames, Map<UUID, Object2ByteMap<UUID>> relationshipCache) {
 		this.systems = systems;
 		this.systemNames = systemNames;
+		this.relationshipCache = relationshipCache;
 	}
 
 	@Override
@@ -50,6 +64,9 @@ public final class PlayerPartySystemManager implements IPlayerPartySystemManager
 			throw new IllegalArgumentException("This party system name is already registered!");
 		systems.put(name, system);
 		systemNames.put(system, name);
+		if(!(system instanceof DefaultPlayerPartySystem))
+			hasSystemsWithoutVersion = true;//no change hooks, so relationships are only cached for a tick
+		invalidateRelationships();
 		OpenPartiesAndClaims.LOGGER.info("Registered party system for OPAC: {}", name);
 	}
 
@@ -109,6 +126,58 @@ public final class PlayerPartySystemManager implements IPlayerPartySystemManager
 		return false;
 	}
 
+	@Override
+	public int getRelationshipVersion() {
+		int version = relationshipEpoch;
+		for(IPlayerPartySystemAPI<?> partySystem : getRegisteredSystems())
+			if(partySystem instanceof DefaultPlayerPartySystem defaultSystem)
+				version += defaultSystem.getRelationshipVersion();//all counters only go up, so the sum changes with any of them
+		return version;
+	}
+
+	@Override
+	public int getRelationship(UUID playerId, UUID otherPlayerId) {
+		int version = getRelationshipVersion();
+		if(version != relationshipCacheVersion) {
+			relationshipCache.clear();
+			relationshipCacheVersion = version;
+		}
+		Object2ByteMap<UUID> playerRelationships = relationshipCache.get(playerId);
+		if(playerRelationships == null) {
+			if(relationshipCache.size() >= RELATIONSHIP_CACHE_LIMIT)
+				relationshipCache.clear();
+			playerRelationships = new Object2ByteOpenHashMap<>();
+			playerRelationships.defaultReturnValue((byte) -1);
+			relationshipCache.put(playerId, playerRelationships);
+		}
+		byte result = playerRelationships.getByte(otherPlayerId);
+		if(result == -1) {
+			result = 0;
+			if(isInAParty(playerId)) {
+				result |= RELATIONSHIP_IN_A_PARTY;
+				if(areInSameParty(playerId, otherPlayerId))
+					result |= RELATIONSHIP_SAME_PARTY;
+			}
+			if(isPlayerAllying(playerId, otherPlayerId))
+				result |= RELATIONSHIP_ALLYING;
+			if(playerRelationships.size() >= RELATIONSHIP_CACHE_LIMIT)
+				playerRelationships.clear();
+			playerRelationships.put(otherPlayerId, result);
+		}
+		return result;
+	}
+
+	@Override
+	public void invalidateRelationships() {
+		relationshipEpoch++;
+	}
+
+	@Override
+	public void onServerTick() {
+		if(hasSystemsWithoutVersion)
+			invalidateRelationships();
+	}
+
 	public static final class Builder {
 
 		private final MapFactory mapFactory;
@@ -124,7 +193,7 @@ public final class PlayerPartySystemManager implements IPlayerPartySystemManager
 		public PlayerPartySystemManager build(){
 			if(mapFactory == null)
 				throw new IllegalStateException();
-			return new PlayerPartySystemManager(mapFactory.get(), mapFactory.get());
+			return new PlayerPartySystemManager(mapFactory.get(), mapFactory.get(), new HashMap<>());
 		}
 
 		public static PlayerPartySystemManager.Builder begin(MapFactory mapFactory){
@@ -61,6 +61,10 @@ public class DefaultPlayerPartySystem implements IPlayerPartySystemAPI<IServerPa
 		return playerParty.isAlly(potentialAllyPlayerParty.getId());
 	}
 
+	public int getRelationshipVersion() {
+		return partyManager.getRelationshipVersion();
+	}
+
 	@Override
 	public boolean isPermittedToPartyClaim(@Nonnull UUID playerId) {
 		IServerParty<IPartyMember, IPartyPlayerInfo, IPartyAlly> party = getPartyByMember(playerId);
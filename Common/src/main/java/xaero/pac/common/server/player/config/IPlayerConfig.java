@@ -18,6 +18,7 @@
 
 package xaero.pac.common.server.player.config;
 
+import xaero.pac.common.server.claims.protection.ChunkProtectionProfile;
 import xaero.pac.common.server.player.config.api.IPlayerConfigAPI;
 import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
 
@@ -32,6 +33,9 @@ public interface IPlayerConfig extends IPlayerConfigAPI {
 
 	public <T extends Comparable<T>> T applyDefaultReplacer(IPlayerConfigOptionSpecAPI<T> o, T value);
 
+	@Nonnull
+	public ChunkProtectionProfile getProtectionProfile();
+
 	@Nullable
 	@Override
 	public IPlayerConfig getSubConfig(@Nonnull String id);
@@ -44,5 +44,47 @@ public interface IPlayerConfigManager extends IPlayerConfigManagerAPI {
 	@Override
 	public IPlayerConfig getExpiredClaimConfig();
 	public IPlayerConfigSynchronizer getSynchronizer();
+	public int getConfigVersion();
+
+	/**
+	 * Gets the config of a player only if it can be provided without loading it from its file.
+	 *
+	 * @param id  the UUID of the player, null for the wilderness config
+	 * @return the player config, null if it hasn't been lazily loaded yet
+	 */
+	@Nullable
+	public IPlayerConfig getConfigIfLoaded(@Nullable UUID id);
+
+	/**
+	 * Gets the part of the effective values version that all player configs share.
+	 * It changes with the default config values and with the option permissions.
+	 *
+	 * @return the shared effective values version
+	 */
+	public int getSharedValuesVersion();
+
+	/**
+	 * Checks whether a player config has a sub-config with a specific index.
+	 * Unlike {@link IPlayerConfig#subConfigExists(int)}, this doesn't load a config that hasn't been lazily loaded yet.
+	 *
+	 * @param id  the UUID of the player
+	 * @param subIndex  the index of the sub-config
+	 * @return whether the sub-config exists
+	 */
+	public boolean subConfigExists(@Nullable UUID id, int subIndex);
+
+	/**
+	 * Starts reading the files of a player config that hasn't been lazily loaded yet on the IO thread,
+	 * so that loading it later doesn't have to wait for the reads. Does nothing otherwise.
+	 *
+	 * @param id  the UUID of the player
+	 */
+	public void prefetchConfig(@Nonnull UUID id);
+
+	/**
+	 * Marks everything compiled from the server config lists as outdated, so that it's rebuilt on the next use.
+	 * Safe to call from any thread.
+	 */
+	public void onServerConfigReload();
 	
 }
@@ -28,6 +28,7 @@ import xaero.pac.common.list.SortedValueList;
 import xaero.pac.common.misc.ConfigUtil;
 import xaero.pac.common.parties.party.IPartyMemberDynamicInfoSyncable;
 import xaero.pac.common.server.claims.IServerClaimsManager;
+import xaero.pac.common.server.claims.protection.ChunkProtectionProfile;
 import xaero.pac.common.server.config.ServerConfig;
 import xaero.pac.common.server.io.ObjectManagerIOObject;
 import xaero.pac.common.server.parties.party.IServerParty;
@@ -87,10 +88,16 @@ public class PlayerConfig
 					2) Allies - players in parties that are allied by yours.
 					3) Every - all players.""";
 
+	private static final Object UNRESOLVED = new Object();
+
 	protected final PlayerConfigManager<P, ?> manager;
 	private final PlayerConfigType type;
 	private final UUID playerId;
 	protected Config storage;
+	private Object[] values;
+	private int valuesVersion;
+	private Object[] effectiveValues;
+	private int effectiveValuesVersion;
 	private boolean dirty;
 	private final Map<PlayerConfigOptionSpec<?>, Object> automaticDefaultValues;
 	private final LinkedChain<PlayerSubConfig<P>> linkedSubConfigs;
@@ -100,6 +107,7 @@ public class PlayerConfig
 	private final SortedValueList<String> subConfigIds;
 	private final List<String> subConfigIdsUnmodifiable;
 	private boolean beingDeleted;
+	private ChunkProtectionProfile protectionProfile;
 	
 	protected PlayerConfig(PlayerConfigType type, UUID playerId, PlayerConfigManager<P, ?> manager, Map<PlayerConfigOptionSpec<?>, Object> automaticDefaultValues, LinkedChain<PlayerSubConfig<P>> linkedSubConfigs, Map<String, PlayerSubConfig<P>> subByID, Int2ObjectMap<String> subIndexToID, SortedValueList<String> subConfigIds, List<String> subConfigIdsUnmodifiable) {
 		this.type = type;
@@ -115,7 +123,7 @@ public class PlayerConfig
 	
 	public Config getStorage() {
 		if(storage == null) {
-			setStorage(ConfigUtil.deepCopy(manager.getDefaultConfig().getStorage(), LinkedHashMap::new));
+			storage = ConfigUtil.deepCopy(manager.getDefaultConfig().getStorage(), LinkedHashMap::new);//doesn't change any effective values
 			setDirty(true);
 		}
 		return storage;
@@ -123,19 +131,54 @@ public class PlayerConfig
 	
 	public void setStorage(Config storage) {
 		this.storage = storage;
+		this.values = null;
+		onValuesChanged();
+	}
+
+	void onValuesChanged() {
+		manager.onConfigChanged();
+		valuesVersion = manager.getConfigVersion();
+	}
+
+	public int getValuesVersion() {
+		return valuesVersion;
+	}
+
+	private Object[] getValues() {
+		if(values == null) {
+			Config storage = getStorage();
+			Object[] result = new Object[manager.getOptionCount()];
+			manager.getAllOptionsStream().forEach(o -> {
+				PlayerConfigOptionSpec<?> option = (PlayerConfigOptionSpec<?>) o;
+				result[option.getOrdinal()] = storage.get(option.getPath());
+			});
+			values = result;
+		}
+		return values;
 	}
 	
 	private <T extends Comparable<T>> void set(PlayerConfigOptionSpec<T> option, T value) {
+		Object[] values = getValues();
 		if(value == null)
 			getStorage().remove(option.getPath());
 		else
 			getStorage().set(option.getPath(), value);
+		int ordinal = option.getOrdinal();
+		if(ordinal >= 0 && ordinal < values.length)
+			values[ordinal] = value;
+		onValuesChanged();
 		if(manager.isLoaded())
 			setDirty(true);
 	}
 
-	private <T extends Comparable<T>> T get(PlayerConfigOptionSpec<T> option) {
-		return getStorage().get(option.getPath());
+	@SuppressWarnings("unchecked")
+	protected <T extends Comparable<T>> T get(PlayerConfigOptionSpec<T> option) {
+		//the night-config tree is only kept for the file IO, reads go through the value table
+		Object[] values = getValues();
+		int ordinal = option.getOrdinal();
+		if(ordinal < 0 || ordinal >= values.length)
+			return getStorage().get(option.getPath());
+		return (T) values[ordinal];
 	}
 
 	protected <T extends Comparable<T>> boolean isValidSetValue(@Nonnull PlayerConfigOptionSpec<T> option, @Nullable T value){
@@ -228,8 +271,7 @@ public class PlayerConfig
 
 	protected boolean isOptionDefaulted(PlayerConfigOptionSpec<?> option){
 		return playerId != null && !Objects.equals(playerId, SERVER_CLAIM_UUID) && !Objects.equals(playerId, EXPIRED_CLAIM_UUID) &&
-				!isOptionOPConfigurable(option) &&
-				!isPlayerConfigurable(option);//kinda annoying that it iterates over the whole lists but the lists should be small
+				manager.isOptionDefaultedForPlayers(option);
 	}
 
 	public static boolean isOptionOPConfigurable(IPlayerConfigOptionSpecAPI<?> option){
@@ -265,10 +307,45 @@ public class PlayerConfig
 
 	@Nonnull
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T extends Comparable<T>> T getEffective(@Nonnull IPlayerConfigOptionSpecAPI<T> o) {
 		PlayerConfigOptionSpec<T> option = (PlayerConfigOptionSpec<T>) o;
-		T value = getFromEffectiveConfig(option);
-		return applyDefaultReplacer(o, value);
+		int ordinal = option.getOrdinal();
+		Object[] effectiveValues = getEffectiveValues();
+		if(ordinal < 0 || ordinal >= effectiveValues.length)
+			return applyDefaultReplacer(o, getFromEffectiveConfig(option));
+		Object cached = effectiveValues[ordinal];
+		if(cached != UNRESOLVED)
+			return (T) cached;
+		T value = applyDefaultReplacer(o, getFromEffectiveConfig(option));
+		effectiveValues[ordinal] = value;
+		return value;
+	}
+
+	private Object[] getEffectiveValues() {
+		int version = getEffectiveValuesVersion();
+		if(effectiveValues == null || effectiveValuesVersion != version) {
+			if(effectiveValues == null)
+				effectiveValues = new Object[manager.getOptionCount()];
+			Arrays.fill(effectiveValues, UNRESOLVED);
+			effectiveValuesVersion = version;
+		}
+		return effectiveValues;
+	}
+
+	protected int getEffectiveValuesVersion() {
+		//all of the versions come from the same manager counter, so the max changes whenever one of them does
+		return Math.max(valuesVersion, manager.getSharedValuesVersion());
+	}
+
+	@Nonnull
+	@Override
+	public ChunkProtectionProfile getProtectionProfile() {
+		//same invalidation as the effective value cache, so changes to unrelated configs keep the profile
+		int version = getEffectiveValuesVersion();
+		if(protectionProfile == null || !protectionProfile.isUpToDate(version))
+			protectionProfile = ChunkProtectionProfile.build(this, manager.getProtectionProfileSlots(), version);
+		return protectionProfile;
 	}
 
 	public <T extends Comparable<T>> T applyDefaultReplacer(IPlayerConfigOptionSpecAPI<T> o, T value){
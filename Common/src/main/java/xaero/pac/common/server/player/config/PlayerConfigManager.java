@@ -18,6 +18,8 @@
 
 package xaero.pac.common.server.player.config;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.item.Item;
@@ -27,6 +29,7 @@ import xaero.pac.common.player.config.dynamic.PlayerConfigDynamicOptions;
 import xaero.pac.common.server.claims.IServerClaimsManager;
 import xaero.pac.common.server.claims.forceload.ForceLoadTicketManager;
 import xaero.pac.common.server.claims.protection.group.ChunkProtectionExceptionGroup;
+import xaero.pac.common.server.config.ServerConfig;
 import xaero.pac.common.server.io.ObjectManagerIOManager;
 import xaero.pac.common.server.parties.party.IPartyManager;
 import xaero.pac.common.server.parties.party.IServerParty;
@@ -52,8 +55,12 @@ public final class PlayerConfigManager
 >
 implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerConfigManager<P, CM>> {
 
+	private static final byte OPTION_OP_CONFIGURABLE = 1;
+	private static final byte OPTION_PLAYER_CONFIGURABLE = 2;
+
 	private final MinecraftServer server;
 	private boolean loaded;
+	private boolean loadingLazily;
 	private PlayerConfig<P> defaultConfig;
 	private PlayerConfig<P> wildernessConfig;
 	private PlayerConfig<P> serverClaimConfig;
@@ -68,10 +75,18 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 	private final PlayerConfigDynamicOptions dynamicOptions;
 	private final Set<IPlayerConfigOptionSpecAPI<?>> overridableOptions;
 	private final ForgeConfigSpec playerConfigSpec;
+	private final Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> protectionProfileSlots;
+	private final int optionCount;
+	private final boolean[] overridableOptionTable;
+	private byte[] optionPermissionTable;
+	private volatile boolean optionPermissionsOutdated;//set by server config reloads, which happen on another thread
+	private int optionPermissionsVersion;
+	private int configVersion;
 
 	private PlayerConfigManager(MinecraftServer server, ForceLoadTicketManager forceLoadTicketManager,
 								Map<UUID, PlayerConfig<P>> configs, Set<PlayerConfig<P>> configsToSave, PlayerConfigSynchronizer synchronizer,
-								IPartyManager<P> partyManager, PlayerConfigDynamicOptions dynamicOptions, Set<IPlayerConfigOptionSpecAPI<?>> overridableOptions, ForgeConfigSpec playerConfigSpec) {
+								IPartyManager<P> partyManager, PlayerConfigDynamicOptions dynamicOptions, Set<IPlayerConfigOptionSpecAPI<?>> overridableOptions, ForgeConfigSpec playerConfigSpec,
+								Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> protectionProfileSlots, int optionCount, boolean[] overridableOptionTable) {
 		super();
 		this.server = server;
 		this.forceLoadTicketManager = forceLoadTicketManager;
@@ -82,6 +97,9 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 		this.dynamicOptions = dynamicOptions;
 		this.overridableOptions = overridableOptions;
 		this.playerConfigSpec = playerConfigSpec;
+		this.protectionProfileSlots = protectionProfileSlots;
+		this.optionCount = optionCount;
+		this.overridableOptionTable = overridableOptionTable;
 	}
 	
 	public void setClaimsManager(CM claimsManager) {
@@ -105,11 +123,47 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 			return serverClaimConfig;
 		if(Objects.equals(id, PlayerConfig.EXPIRED_CLAIM_UUID))
 			return expiredClaimConfig;
-		return configs.computeIfAbsent(id, 
-			i -> PlayerConfig.FinalBuilder.<P>begin().setPlayerId(i).setManager(this).build()
-		);
+		PlayerConfig<P> config = configs.get(id);
+		if(config == null) {
+			if(io != null && io.isIndexed(id)) {
+				boolean wasLoadingLazily = loadingLazily;
+				loadingLazily = true;
+				try {
+					io.loadIndexed(id);
+				} finally {
+					loadingLazily = wasLoadingLazily;
+				}
+				config = configs.get(id);
+			}
+			if(config == null) {
+				config = PlayerConfig.FinalBuilder.<P>begin().setPlayerId(id).setManager(this).build();
+				configs.put(id, config);
+			}
+		}
+		return config;
 	}
 	
+	@Nullable
+	@Override
+	public PlayerConfig<P> getConfigIfLoaded(@Nullable UUID id) {
+		if(id != null && io != null && !configs.containsKey(id) && io.isIndexed(id))
+			return null;
+		return getConfig(id);
+	}
+
+	@Override
+	public boolean subConfigExists(@Nullable UUID id, int subIndex) {
+		if(id != null && io != null && !configs.containsKey(id) && io.isIndexed(id))
+			return io.indexedSubConfigExists(id, subIndex);
+		return getConfig(id).subConfigExists(subIndex);
+	}
+
+	@Override
+	public void prefetchConfig(@Nonnull UUID id) {
+		if(io != null && !configs.containsKey(id) && io.isIndexed(id))
+			io.prefetch(id);
+	}
+
 	public void onLoad() {
 		this.loaded = true;
 	}
@@ -121,6 +175,7 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 	
 	public void setDefaultConfig(PlayerConfig<P> defaultConfig) {
 		this.defaultConfig = defaultConfig;
+		defaultConfig.onValuesChanged();//the new default config might have an older version than the configs that inherit from it
 	}
 
 	@Nonnull
@@ -185,12 +240,21 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 		return server;
 	}
 
+	/**
+	 * Gets a stream of the player configs that are currently loaded.
+	 * <p>
+	 * When lazy player config loading is enabled, configs that haven't been needed since the server started
+	 * are not included.
+	 *
+	 * @return a stream of the loaded player configs
+	 */
 	@Override
 	public Stream<PlayerConfig<P>> getAllStream() {
 		return configs.values().stream();
 	}
 
 	public void onSubConfigRemoved(PlayerSubConfig<P> subConfig) {
+		onConfigChanged();//claims using the sub-config now resolve to the main config
 		configsToSave.remove(subConfig);
 		if(loaded) {
 			io.delete(subConfig);
@@ -204,7 +268,7 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 	}
 
 	public boolean isLoaded() {
-		return loaded;
+		return loaded && !loadingLazily;//configs loaded on demand shouldn't be treated as newly created
 	}
 
 	public ForgeConfigSpec getPlayerConfigSpec() {
@@ -219,6 +283,92 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 		return overridableOptions;
 	}
 
+	public Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> getProtectionProfileSlots() {
+		return protectionProfileSlots;
+	}
+
+	public int getOptionCount() {
+		return optionCount;
+	}
+
+	public boolean isOverridable(IPlayerConfigOptionSpecAPI<?> o) {
+		int ordinal = ((PlayerConfigOptionSpec<?>) o).getOrdinal();
+		if(ordinal < 0 || ordinal >= overridableOptionTable.length)
+			return overridableOptions.contains(o);
+		return overridableOptionTable[ordinal];
+	}
+
+	private byte[] getOptionPermissionTable() {
+		if(optionPermissionTable == null || optionPermissionsOutdated) {
+			optionPermissionsOutdated = false;//before reading the lists, so that a reload during the rebuild isn't missed
+			byte[] table = new byte[optionCount];
+			getAllOptionsStream().forEach(o -> table[((PlayerConfigOptionSpec<?>) o).getOrdinal()] = computeOptionPermissions(o));
+			optionPermissionTable = table;
+			onConfigChanged();
+			optionPermissionsVersion = configVersion;
+		}
+		return optionPermissionTable;
+	}
+
+	@Override
+	public void onServerConfigReload() {
+		optionPermissionsOutdated = true;
+	}
+
+	public int getOptionPermissionsVersion() {
+		getOptionPermissionTable();
+		return optionPermissionsVersion;
+	}
+
+	@Override
+	public int getSharedValuesVersion() {
+		int version = getOptionPermissionsVersion();
+		if(defaultConfig != null)
+			version = Math.max(version, defaultConfig.getValuesVersion());
+		return version;
+	}
+
+	private byte computeOptionPermissions(IPlayerConfigOptionSpecAPI<?> o) {
+		byte permissions = 0;
+		if(PlayerConfig.isOptionOPConfigurable(o))
+			permissions |= OPTION_OP_CONFIGURABLE;
+		if(PlayerConfig.isPlayerConfigurable(o))
+			permissions |= OPTION_PLAYER_CONFIGURABLE;
+		return permissions;
+	}
+
+	private byte getOptionPermissions(IPlayerConfigOptionSpecAPI<?> o) {
+		byte[] table = getOptionPermissionTable();
+		int ordinal = ((PlayerConfigOptionSpec<?>) o).getOrdinal();
+		if(ordinal < 0 || ordinal >= table.length)
+			return computeOptionPermissions(o);
+		return table[ordinal];
+	}
+
+	public boolean isOptionOPConfigurable(IPlayerConfigOptionSpecAPI<?> o) {
+		return (getOptionPermissions(o) & OPTION_OP_CONFIGURABLE) != 0;
+	}
+
+	public boolean isPlayerConfigurable(IPlayerConfigOptionSpecAPI<?> o) {
+		return (getOptionPermissions(o) & OPTION_PLAYER_CONFIGURABLE) != 0;
+	}
+
+	/**
+	 * @return whether player configs always use the default config value for the option
+	 */
+	public boolean isOptionDefaultedForPlayers(IPlayerConfigOptionSpecAPI<?> o) {
+		return getOptionPermissions(o) == 0;
+	}
+
+	public void onConfigChanged() {
+		configVersion++;
+	}
+
+	@Override
+	public int getConfigVersion() {
+		return configVersion;
+	}
+
 	@Nonnull
 	public Stream<IPlayerConfigOptionSpecAPI<?>> getAllOptionsStream(){
 		return Stream.concat(PlayerConfigOptions.OPTIONS.values().stream(), dynamicOptions.getOptions().values().stream());
@@ -325,7 +475,24 @@ implements IPlayerConfigManager, ObjectManagerIOManager<PlayerConfig<P>, PlayerC
 			overridableOptions.addAll(PlayerSubConfig.STATIC_OVERRIDABLE_OPTIONS);
 			overridableOptions.addAll(dynamicOptions.getOptions().values());
 
-			PlayerConfigManager<P, CM> result = new PlayerConfigManager<>(server, forceLoadTicketManager, new HashMap<>(), new HashSet<>(), playerConfigSynchronizer, partyManager, dynamicOptions, overridableOptions, configSpecBuilder.build());
+			Reference2IntMap<IPlayerConfigOptionSpecAPI<?>> protectionProfileSlots = new Reference2IntOpenHashMap<>();
+			protectionProfileSlots.defaultReturnValue(-1);
+			Consumer<IPlayerConfigOptionSpecAPI<?>> slotConsumer = o -> {
+				if(o.getType() == Boolean.class || o.getType() == Integer.class)
+					protectionProfileSlots.put(o, protectionProfileSlots.size());
+			};
+			OPTIONS.values().forEach(slotConsumer);
+			dynamicOptions.getOptions().values().forEach(slotConsumer);
+
+			int[] optionCount = {0};
+			Consumer<IPlayerConfigOptionSpecAPI<?>> ordinalConsumer = o -> ((PlayerConfigOptionSpec<?>)o).setOrdinal(optionCount[0]++);
+			OPTIONS.values().forEach(ordinalConsumer);
+			dynamicOptions.getOptions().values().forEach(ordinalConsumer);
+
+			boolean[] overridableOptionTable = new boolean[optionCount[0]];
+			overridableOptions.forEach(o -> overridableOptionTable[((PlayerConfigOptionSpec<?>)o).getOrdinal()] = true);
+
+			PlayerConfigManager<P, CM> result = new PlayerConfigManager<>(server, forceLoadTicketManager, new HashMap<>(), new HashSet<>(), playerConfigSynchronizer, partyManager, dynamicOptions, overridableOptions, configSpecBuilder.build(), protectionProfileSlots, optionCount[0], overridableOptionTable);
 			playerConfigSynchronizer.setConfigManager(result);
 			return result;
 		}
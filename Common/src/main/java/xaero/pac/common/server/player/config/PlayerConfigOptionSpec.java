@@ -69,6 +69,7 @@ public class PlayerConfigOptionSpec<T extends Comparable<T>> implements IPlayerC
 	private final Predicate<PlayerConfigType> configTypeFilter;
 	private final ClientboundPlayerConfigDynamicOptionsPacket.OptionType syncOptionType;
 	private final boolean dynamic;
+	private int ordinal;
 	
 	protected PlayerConfigOptionSpec(Class<T> type, String id, String shortenedId, List<String> path, T defaultValue, BiFunction<PlayerConfig<?>, T, T> defaultReplacer, String comment, String translation, String[] translationArgs, String commentTranslation, String[] commentTranslationArgs, PlayerConfigOptionCategory category, Function<String, T> commandInputParser, Function<T, Component> commandOutputWriter, BiPredicate<PlayerConfig<?>, T> serverSideValidator, BiPredicate<PlayerConfigClientStorage, T> clientSideValidator, String tooltipPrefix, Predicate<PlayerConfigType> configTypeFilter, ClientboundPlayerConfigDynamicOptionsPacket.OptionType syncOptionType, boolean dynamic) {
 		super();
@@ -94,6 +95,7 @@ public class PlayerConfigOptionSpec<T extends Comparable<T>> implements IPlayerC
 		this.configTypeFilter = configTypeFilter;
 		this.syncOptionType = syncOptionType;
 		this.dynamic = dynamic;
+		this.ordinal = -1;
 	}
 
 	protected ForgeConfigSpec.Builder buildForgeSpec(ForgeConfigSpec.Builder builder) {
@@ -250,6 +252,14 @@ public class PlayerConfigOptionSpec<T extends Comparable<T>> implements IPlayerC
 		return dynamic;
 	}
 
+	public int getOrdinal() {
+		return ordinal;
+	}
+
+	void setOrdinal(int ordinal) {
+		this.ordinal = ordinal;
+	}
+
 	public abstract static class Builder<T extends Comparable<T>, B extends Builder<T, B>> {
 		
 		protected final B self;
@@ -36,6 +36,9 @@ public interface IPlayerConfigManagerAPI {
 	 * Gets the wilderness config if the specified UUID is null,
 	 * the server claims config if the UUID is {@link PlayerConfig#SERVER_CLAIM_UUID},
 	 * the expired claims config if the UUID is {@link PlayerConfig#EXPIRED_CLAIM_UUID}.
+	 * <p>
+	 * When lazy player config loading is enabled in the server config, the first call for a player might have to read
+	 * and parse the player's config files before returning.
 	 *
 	 * @param id  the UUID of the player, null for wilderness
 	 * @return the player config instance, not null
@@ -0,0 +1,115 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.player.config.io;
+
+import xaero.pac.OpenPartiesAndClaims;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the player config files that are stored in the format that isn't used (TOML or NBT), so that
+ * the loaded configs get saved in the used format and the files in the other format get deleted afterwards.
+ */
+public final class PlayerConfigFormatConversion<T> {
+
+	private final String textFileExtension;
+	private final String binaryFileExtension;
+	private final boolean binaryFormat;
+	private final Set<T> toConvert;
+	private final Consumer<Path> backupFunction;
+
+	public PlayerConfigFormatConversion(String textFileExtension, String binaryFileExtension, boolean binaryFormat, Consumer<Path> backupFunction) {
+		this.textFileExtension = textFileExtension;
+		this.binaryFileExtension = binaryFileExtension;
+		this.binaryFormat = binaryFormat;
+		this.toConvert = new HashSet<>();
+		this.backupFunction = backupFunction;
+	}
+
+	public boolean isBinaryFormat() {
+		return binaryFormat;
+	}
+
+	public String getExtension(boolean binary) {
+		return binary ? binaryFileExtension : textFileExtension;
+	}
+
+	public boolean isBinaryFile(Path file) {
+		return file.getFileName().toString().endsWith(binaryFileExtension);
+	}
+
+	/**
+	 * Gets the file that the same player config would have in the used format, if the specified file is in the other format.
+	 */
+	public Path getUsedFormatFile(Path file) {
+		return getFormatFile(file, binaryFormat);
+	}
+
+	/**
+	 * Gets the file that the same player config would have in the format that isn't used, if the specified file is in the used format.
+	 */
+	public Path getOtherFormatFile(Path file) {
+		return getFormatFile(file, !binaryFormat);
+	}
+
+	private Path getFormatFile(Path file, boolean binary) {
+		String fileName = file.getFileName().toString();
+		boolean binaryFile = fileName.endsWith(binaryFileExtension);
+		if(binaryFile == binary || !binaryFile && !fileName.endsWith(textFileExtension))
+			return null;
+		return file.resolveSibling(fileName.substring(0, fileName.lastIndexOf('.')) + getExtension(binary));
+	}
+
+	/**
+	 * When a player config file exists in both formats (e.g. a conversion was interrupted), only the file in the used format
+	 * is loaded, regardless of the order that the files are listed in. The file in the other format is backed up instead.
+	 */
+	public boolean skipIfShadowed(Path file) {
+		Path usedFormatFile = getUsedFormatFile(file);
+		if(usedFormatFile == null || !Files.exists(usedFormatFile))
+			return false;
+		OpenPartiesAndClaims.LOGGER.warn(String.format("Ignoring player config file %s because %s exists in the used format", file.getFileName().toString(), usedFormatFile.getFileName().toString()));
+		backupFunction.accept(file);
+		return true;
+	}
+
+	/**
+	 * @return whether the config was loaded from the format that isn't used and has to be saved to convert it
+	 */
+	public boolean onLoad(T object, Path file) {
+		if(isBinaryFile(file) == binaryFormat)
+			return false;
+		toConvert.add(object);
+		return true;
+	}
+
+	/**
+	 * Called when a config is saved in the used format or deleted.
+	 *
+	 * @return whether the file in the format that isn't used should be deleted now
+	 */
+	public boolean onSaveOrDelete(T object) {
+		return toConvert.remove(object);
+	}
+
+}
@@ -20,17 +20,23 @@ package xaero.pac.common.server.player.config.io;
 
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.toml.TomlFormat;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.level.storage.LevelResource;
 import xaero.pac.OpenPartiesAndClaims;
 import xaero.pac.common.platform.Services;
 import xaero.pac.common.server.claims.IServerClaimsManager;
+import xaero.pac.common.server.config.ServerConfig;
 import xaero.pac.common.server.io.FileIOHelper;
 import xaero.pac.common.server.io.FilePathConfig;
 import xaero.pac.common.server.io.IOThreadWorker;
 import xaero.pac.common.server.io.ObjectManagerIO;
 import xaero.pac.common.server.io.serialization.SerializationHandler;
 import xaero.pac.common.server.io.serialization.SerializedDataFileIO;
+import xaero.pac.common.server.io.serialization.SimpleSerializationHandler;
+import xaero.pac.common.server.io.serialization.nbt.SimpleNBTSerializedDataFileIO;
 import xaero.pac.common.server.parties.party.IServerParty;
 import xaero.pac.common.server.player.config.PlayerConfig;
 import xaero.pac.common.server.player.config.PlayerConfigManager;
@@ -38,13 +44,13 @@ import xaero.pac.common.server.player.config.api.PlayerConfigOptions;
 import xaero.pac.common.server.player.config.api.PlayerConfigType;
 import xaero.pac.common.server.player.config.io.serialization.PlayerConfigDeserializationInfo;
 import xaero.pac.common.server.player.config.io.serialization.PlayerConfigSerializationHandler;
+import xaero.pac.common.server.player.config.io.serialization.nbt.PlayerConfigNbtSerializer;
 import xaero.pac.common.server.player.config.sub.PlayerSubConfig;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedHashMap;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -53,20 +59,33 @@ public final class PlayerConfigIO
 	P extends IServerParty<?, ?, ?>, 
 	CM extends IServerClaimsManager<?, ?, ?>//needed in this class because of some weird compilation error when gradle building (not displayed by the IDE)
 > extends ObjectManagerIO<String, PlayerConfigDeserializationInfo, PlayerConfig<P>, PlayerConfigManager<P, CM>> {
+
+	public static final String BINARY_FILE_EXTENSION = ".nbt";
 	
 	private final Path configsPath;
 	private final Path configSubConfigPath;
+	private final FilePathConfig configsPathConfig;
+	private final FilePathConfig configSubConfigPathConfig;
 	private final FilePathConfig defaultConfigPathConfig;
 	private final FilePathConfig wildernessConfigPathConfig;
 	private final FilePathConfig serverClaimConfigPathConfig;
 	private final FilePathConfig expiredClaimConfigPathConfig;
 	private final Path defaultConfigs;
+	private Map<UUID, IndexedConfigFiles> configFileIndex;
+	private final SerializationHandler<CompoundTag, PlayerConfigDeserializationInfo, PlayerConfig<P>, PlayerConfigManager<P, CM>> binarySerializationHandler;
+	private final SerializedDataFileIO<CompoundTag, PlayerConfigDeserializationInfo> binarySerializedDataFileIO;
+	private PlayerConfigFormatConversion<PlayerConfig<P>> formatConversion;
 	
 	private PlayerConfigIO(SerializationHandler<String, PlayerConfigDeserializationInfo, PlayerConfig<P>, PlayerConfigManager<P, CM>> serializationHandler, SerializedDataFileIO<String, PlayerConfigDeserializationInfo> serializedDataFileIO, IOThreadWorker ioThreadWorker,
-			MinecraftServer server, String fileExtension, PlayerConfigManager<P, CM> manager, FileIOHelper fileIOHelper) {
+			MinecraftServer server, String fileExtension, PlayerConfigManager<P, CM> manager, FileIOHelper fileIOHelper,
+			SerializationHandler<CompoundTag, PlayerConfigDeserializationInfo, PlayerConfig<P>, PlayerConfigManager<P, CM>> binarySerializationHandler, SerializedDataFileIO<CompoundTag, PlayerConfigDeserializationInfo> binarySerializedDataFileIO) {
 		super(serializationHandler, serializedDataFileIO, ioThreadWorker, server, fileExtension, manager, fileIOHelper);
+		this.binarySerializationHandler = binarySerializationHandler;
+		this.binarySerializedDataFileIO = binarySerializedDataFileIO;
 		configsPath = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(OpenPartiesAndClaims.MOD_ID).resolve("player-configs");
 		configSubConfigPath = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(OpenPartiesAndClaims.MOD_ID).resolve("player-configs").resolve("sub-configs");
+		configsPathConfig = new FilePathConfig(configsPath, false);
+		configSubConfigPathConfig = new FilePathConfig(configSubConfigPath, true);
 
 		Path serverconfigPath = server.getWorldPath(LevelResource.ROOT).resolve("serverconfig");
 		defaultConfigPathConfig = new FilePathConfig(serverconfigPath.resolve(OpenPartiesAndClaims.MOD_ID + "-default-player-config.toml"), false);
@@ -78,12 +97,13 @@ public final class PlayerConfigIO
 
 	@Override
 	protected Stream<FilePathConfig> getObjectFolderPaths() {
-		return Stream.of(new FilePathConfig(configsPath, false), new FilePathConfig(configSubConfigPath, true));
+		return Stream.of(configsPathConfig, configSubConfigPathConfig);
 	}
 	
 	@Override
 	public void load() {
 		OpenPartiesAndClaims.LOGGER.info("Loading player configs...");
+		formatConversion = new PlayerConfigFormatConversion<>(this.fileExtension, BINARY_FILE_EXTENSION, ServerConfig.CONFIG.binaryPlayerConfigFiles.get(), this::backupFile);
 		loadGlobalConfig(PlayerConfigType.DEFAULT_PLAYER, defaultConfigPathConfig, manager::setDefaultConfig);
 		loadGlobalConfig(PlayerConfigType.WILDERNESS, wildernessConfigPathConfig, manager::setWildernessConfig);
 		loadGlobalConfig(PlayerConfigType.SERVER, serverClaimConfigPathConfig, manager::setServerClaimConfig);
@@ -93,11 +113,147 @@ public final class PlayerConfigIO
 		saveFile(manager.getServerClaimConfig(), serverClaimConfigPathConfig.getPath());//saves corrected config
 		saveFile(manager.getExpiredClaimConfig(), expiredClaimConfigPathConfig.getPath());//saves corrected config
 		
-		super.load();
+		if(ServerConfig.CONFIG.lazyPlayerConfigLoading.get())
+			indexConfigFiles();
+		else
+			super.load();
 		manager.onLoad();
 		OpenPartiesAndClaims.LOGGER.info("Loaded player configs!");
 	}
 
+	private void indexConfigFiles() {
+		OpenPartiesAndClaims.LOGGER.info("Indexing player config files for lazy loading...");
+		Map<UUID, IndexedConfigFiles> index = new HashMap<>();
+		try {
+			Files.createDirectories(configsPath);
+			try(Stream<Path> contents = Files.list(configsPath)) {
+				contents.forEach(fd -> {
+					String fileName = fd.getFileName().toString();
+					boolean binaryFile = fileName.endsWith(BINARY_FILE_EXTENSION);
+					if(Files.isDirectory(fd) || !binaryFile && !fileName.endsWith(this.fileExtension))
+						return;
+					if(formatConversion.skipIfShadowed(fd))
+						return;
+					UUID playerId;
+					try {
+						playerId = UUID.fromString(fileName.substring(0, fileName.lastIndexOf('.')));
+					} catch(IllegalArgumentException e) {
+						OpenPartiesAndClaims.LOGGER.error(String.format("Invalid player config file name %s", fileName));
+						backupFile(fd);//same as when the file is loaded eagerly
+						return;
+					}
+					index.computeIfAbsent(playerId, i -> new IndexedConfigFiles()).mainFile = fd;
+				});
+			}
+			Files.createDirectories(configSubConfigPath);
+			try(Stream<Path> contents = Files.list(configSubConfigPath)) {
+				contents.forEach(fd -> {
+					if(!Files.isDirectory(fd))
+						return;
+					UUID playerId;
+					try {
+						playerId = UUID.fromString(fd.getFileName().toString());
+					} catch(IllegalArgumentException e) {
+						OpenPartiesAndClaims.LOGGER.error(String.format("Ignoring player sub-config folder with an invalid name %s", fd.getFileName().toString()));
+						return;
+					}
+					if(Objects.equals(playerId, PlayerConfig.SERVER_CLAIM_UUID)) {
+						try {
+							loadSubConfigFiles(fd);//the server claim config is never loaded on demand
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					} else
+						index.computeIfAbsent(playerId, i -> new IndexedConfigFiles()).subConfigFolder = fd;
+				});
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		configFileIndex = index;
+		OpenPartiesAndClaims.LOGGER.info("Indexed player config files for " + index.size() + " players!");
+	}
+
+	public boolean isIndexed(UUID playerId) {
+		return configFileIndex != null && configFileIndex.containsKey(playerId);
+	}
+
+	/**
+	 * Checks whether a player config that hasn't been lazily loaded yet has a sub-config with a specific index,
+	 * based on the sub-config file names, without loading the config.
+	 * A sub-config file that exists but fails to load still counts.
+	 */
+	public boolean indexedSubConfigExists(UUID playerId, int subIndex) {
+		IndexedConfigFiles files = configFileIndex == null ? null : configFileIndex.get(playerId);
+		if(files == null || files.subConfigFolder == null)
+			return false;
+		if(files.subConfigIndices == null) {
+			IntSet subConfigIndices = new IntOpenHashSet();
+			try(Stream<Path> contents = Files.list(files.subConfigFolder)) {
+				contents.forEach(fd -> {
+					String fileName = fd.getFileName().toString();
+					int separatorIndex = fileName.indexOf('$');
+					int extensionIndex = fileName.lastIndexOf('.');
+					if(Files.isDirectory(fd) || separatorIndex == -1 || extensionIndex < separatorIndex)
+						return;
+					try {
+						subConfigIndices.add(Integer.parseInt(fileName.substring(separatorIndex + 1, extensionIndex)));
+					} catch(NumberFormatException e) {
+						//can't be loaded either
+					}
+				});
+			} catch (IOException e) {
+				OpenPartiesAndClaims.LOGGER.error(String.format("Exception listing sub-configs in %s", files.subConfigFolder), e);
+			}
+			files.subConfigIndices = subConfigIndices;
+		}
+		return files.subConfigIndices.contains(subIndex);
+	}
+
+	public void prefetch(UUID playerId) {
+		if(configFileIndex == null)
+			return;
+		IndexedConfigFiles files = configFileIndex.get(playerId);
+		if(files == null)
+			return;
+		if(files.mainFile != null)
+			prefetchFile(files.mainFile, configsPathConfig);
+		if(files.subConfigFolder != null) {
+			try(Stream<Path> contents = Files.list(files.subConfigFolder)) {
+				contents.forEach(fd -> {
+					if(!Files.isDirectory(fd))
+						prefetchFile(fd, configSubConfigPathConfig);
+				});
+			} catch (IOException e) {
+				//the folder is listed again when it's loaded, which handles the error
+			}
+		}
+	}
+
+	public void loadIndexed(UUID playerId) {
+		IndexedConfigFiles files = configFileIndex.remove(playerId);
+		if(files == null)
+			return;
+		if(files.mainFile != null)
+			loadFile(files.mainFile, configsPathConfig, true);
+		if(files.subConfigFolder != null) {
+			try {
+				loadSubConfigFiles(files.subConfigFolder);
+			} catch (IOException e) {
+				OpenPartiesAndClaims.LOGGER.error(String.format("Exception loading sub-configs from %s", files.subConfigFolder), e);
+			}
+		}
+	}
+
+	private void loadSubConfigFiles(Path folder) throws IOException {
+		try(Stream<Path> contents = Files.list(folder)) {
+			contents.forEach(fd -> {
+				if(!Files.isDirectory(fd))
+					loadFile(fd, configSubConfigPathConfig, true);
+			});
+		}
+	}
+
 	private void loadGlobalConfig(PlayerConfigType type, FilePathConfig filePathConfig, Consumer<PlayerConfig<P>> resultConsumer){
 		loadGlobalConfig(type, filePathConfig.getPath(), filePathConfig, resultConsumer);
 	}
@@ -188,16 +344,67 @@ public final class PlayerConfigIO
 
 	@Override
 	protected Path getFilePath(PlayerConfig<P> object, String fileName) {
+		String extension = formatConversion.getExtension(formatConversion.isBinaryFormat());
 		if(object instanceof PlayerSubConfig subConfig) {
 			Path folder = configSubConfigPath.resolve(fileName);
-			return folder.resolve(subConfig.getSubId() + "$" + subConfig.getSubIndex() + this.fileExtension);
+			return folder.resolve(subConfig.getSubId() + "$" + subConfig.getSubIndex() + extension);
 		}
-		return configsPath.resolve(fileName + this.fileExtension);
+		return configsPath.resolve(fileName + extension);
+	}
+
+	@Override
+	protected PlayerConfig<P> loadFile(Path file, FilePathConfig filePathConfig, boolean backupOnError) {
+		boolean playerConfigFile = filePathConfig == configsPathConfig || filePathConfig == configSubConfigPathConfig;
+		if(playerConfigFile && formatConversion.skipIfShadowed(file))
+			return null;
+		boolean binaryFile = formatConversion.isBinaryFile(file);
+		PlayerConfig<P> result = binaryFile ?
+				loadFile(file, filePathConfig, backupOnError, BINARY_FILE_EXTENSION, binarySerializationHandler, binarySerializedDataFileIO) :
+				super.loadFile(file, filePathConfig, backupOnError);
+		if(result != null && playerConfigFile && formatConversion.onLoad(result, file))
+			result.setDirty(true);//gets saved in the used format
+		return result;
+	}
+
+	@Override
+	protected void prefetchFile(Path file, FilePathConfig filePathConfig) {
+		Path usedFormatFile = formatConversion.getUsedFormatFile(file);
+		if(usedFormatFile != null && Files.exists(usedFormatFile))
+			return;//won't be loaded
+		if(formatConversion.isBinaryFile(file))
+			prefetchFile(file, filePathConfig, BINARY_FILE_EXTENSION, binarySerializedDataFileIO);
+		else
+			super.prefetchFile(file, filePathConfig);
+	}
+
+	@Override
+	protected void saveFile(PlayerConfig<P> object, Path filePath) {
+		if(formatConversion.isBinaryFile(filePath))
+			saveFile(object, filePath, binarySerializationHandler, binarySerializedDataFileIO);
+		else
+			super.saveFile(object, filePath);
+		if(formatConversion.onSaveOrDelete(object))
+			deleteFile(formatConversion.getOtherFormatFile(filePath));
+	}
+
+	@Override
+	public void delete(PlayerConfig<P> object) {
+		super.delete(object);
+		if(formatConversion.onSaveOrDelete(object))
+			deleteFile(formatConversion.getOtherFormatFile(getFilePath(object, object.getFileName())));
 	}
 
 	@Override
 	protected void onObjectLoad(PlayerConfig<P> loadedObject) {
 	}
+
+	private static final class IndexedConfigFiles {
+
+		private Path mainFile;
+		private Path subConfigFolder;
+		private IntSet subConfigIndices;
+
+	}
 	
 	public static final class Builder
 	<
@@ -222,7 +429,8 @@ public final class PlayerConfigIO
 
 		@Override
 		protected PlayerConfigIO<P, CM> buildInternally() {
-			PlayerConfigIO<P, CM> result = new PlayerConfigIO<>(serializationHandler, serializedDataFileIO, ioThreadWorker, server, fileExtension, manager, fileIOHelper);
+			PlayerConfigIO<P, CM> result = new PlayerConfigIO<>(serializationHandler, serializedDataFileIO, ioThreadWorker, server, fileExtension, manager, fileIOHelper,
+					new SimpleSerializationHandler<>(PlayerConfigNbtSerializer.Builder.<P, CM>begin().build()), new SimpleNBTSerializedDataFileIO<>());
 			manager.setIO(result);
 			return result;
 		}
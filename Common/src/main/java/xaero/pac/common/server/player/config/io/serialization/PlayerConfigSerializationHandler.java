@@ -43,12 +43,17 @@ public final class PlayerConfigSerializationHandler<
 
 	@Override
 	public PlayerConfig<P> deserialize(PlayerConfigDeserializationInfo info, PlayerConfigManager<P, CM> manager, String serializedData) {
+		PlayerConfig<P> targetConfig = getTargetConfig(info, manager);
+		if(targetConfig != null)
+			serializer.deserializeInto(targetConfig, serializedData);
+		return targetConfig;
+	}
+
+	public static <P extends IServerParty<?, ?, ?>> PlayerConfig<P> getTargetConfig(PlayerConfigDeserializationInfo info, PlayerConfigManager<P, ?> manager) {
 		PlayerConfig<P> config = info.getSubId() != null || info.getType() == PlayerConfigType.PLAYER ? manager.getConfig(info.getId()) : PlayerConfig.FinalBuilder.<P>begin().setType(info.getType()).setPlayerId(info.getId()).setManager(manager).build();
 		PlayerConfig<P> targetConfig = config;
 		if(info.getSubId() != null)
 			targetConfig = config.createSubConfig(info.getSubId(), info.getSubIndex());
-		if(targetConfig != null)
-			serializer.deserializeInto(targetConfig, serializedData);
 		return targetConfig;
 	}
 	
@@ -24,12 +24,16 @@ import com.electronwill.nightconfig.core.io.ParsingMode;
 import com.electronwill.nightconfig.toml.TomlFormat;
 import com.electronwill.nightconfig.toml.TomlParser;
 import com.electronwill.nightconfig.toml.TomlWriter;
+import net.minecraftforge.common.ForgeConfigSpec;
 import xaero.pac.common.misc.ConfigUtil;
 import xaero.pac.common.server.player.config.PlayerConfig;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
 import xaero.pac.common.server.player.config.sub.PlayerSubConfig;
 
 import java.util.LinkedHashMap;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class PlayerConfigSerializer {
 	
@@ -46,28 +50,38 @@ public class PlayerConfigSerializer {
 	}
 	
 	public void deserializeInto(PlayerConfig<?> config, String serializedData) {
+		ForgeConfigSpec spec = config instanceof PlayerSubConfig ? null : config.getManager().getPlayerConfigSpec();
+		boolean removeComments = config.getPlayerId() != null && !Objects.equals(config.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID) && !Objects.equals(config.getPlayerId(), PlayerConfig.EXPIRED_CLAIM_UUID);
+		config.setStorage(readStorage(parser, serializedData, spec, config.getManager().getAllOptionsStream(), o -> config.getDefaultRawValue(o), removeComments));
+	}
+
+	/**
+	 * Main configs are corrected with the config spec, which sub-configs aren't because their missing values are inherited.
+	 * Values of incorrect types are then replaced with the default values or removed if there are no defaults (sub-configs).
+	 */
+	public static Config readStorage(TomlParser parser, String serializedData, ForgeConfigSpec spec, Stream<? extends IPlayerConfigOptionSpecAPI<?>> options, Function<IPlayerConfigOptionSpecAPI<?>, Object> defaultValueGetter, boolean removeComments) {
 		CommentedConfig parsedData = CommentedConfig.of(LinkedHashMap::new, TomlFormat.instance());
 		parser.parse(serializedData, parsedData, ParsingMode.ADD);
-		if(!(config instanceof PlayerSubConfig))
-			config.getManager().getPlayerConfigSpec().correct(parsedData);
+		if(spec != null)
+			spec.correct(parsedData);
 		Config loadedConfig;
-		if(config.getPlayerId() != null && !Objects.equals(config.getPlayerId(), PlayerConfig.SERVER_CLAIM_UUID) && !Objects.equals(config.getPlayerId(), PlayerConfig.EXPIRED_CLAIM_UUID)) {
+		if(removeComments) {
 			loadedConfig = ConfigUtil.deepCopy(parsedData, LinkedHashMap::new);//removes comments
 		} else
 			loadedConfig = parsedData;
-		config.setStorage(loadedConfig);
 
 		//fixing incorrect value types
-		config.getManager().getAllOptionsStream().forEach(o -> {
+		options.forEach(o -> {
 			Object rawOptionValue = loadedConfig.get(o.getPath());
 			if(rawOptionValue != null && rawOptionValue.getClass() != o.getType()) {
-				Object defaultRawValue = config.getDefaultRawValue(o);
+				Object defaultRawValue = defaultValueGetter.apply(o);
 				if(defaultRawValue == null)
 					loadedConfig.remove(o.getPath());
 				else
 					loadedConfig.set(o.getPath(), defaultRawValue);
 			}
 		});
+		return loadedConfig;
 	}
 	
 }
@@ -0,0 +1,193 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.player.config.io.serialization.nbt;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.toml.TomlFormat;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraftforge.common.ForgeConfigSpec;
+import xaero.pac.common.misc.ConfigUtil;
+import xaero.pac.common.server.claims.IServerClaimsManager;
+import xaero.pac.common.server.io.serialization.SimpleSerializer;
+import xaero.pac.common.server.parties.party.IServerParty;
+import xaero.pac.common.server.player.config.PlayerConfig;
+import xaero.pac.common.server.player.config.PlayerConfigManager;
+import xaero.pac.common.server.player.config.api.IPlayerConfigOptionSpecAPI;
+import xaero.pac.common.server.player.config.io.serialization.PlayerConfigDeserializationInfo;
+import xaero.pac.common.server.player.config.io.serialization.PlayerConfigSerializationHandler;
+import xaero.pac.common.server.player.config.sub.PlayerSubConfig;
+
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
+
+public final class PlayerConfigNbtSerializer
+<
+	P extends IServerParty<?, ?, ?>,
+	CM extends IServerClaimsManager<?, ?, ?>//needed in this class because of some weird compilation error when gradle building (not displayed by the IDE)
+> implements SimpleSerializer<CompoundTag, PlayerConfigDeserializationInfo, PlayerConfig<P>, PlayerConfigManager<P, CM>> {
+
+	private ForgeConfigSpec defaultsSpec;
+	private Config defaults;
+
+	private PlayerConfigNbtSerializer() {
+		super();
+	}
+
+	@Override
+	public CompoundTag serialize(PlayerConfig<P> object) {
+		return writeStorage(object.getStorage(), object.getManager().getAllOptionsStream(), object instanceof PlayerSubConfig);
+	}
+
+	@Override
+	public PlayerConfig<P> deserialize(PlayerConfigDeserializationInfo id, PlayerConfigManager<P, CM> manager, CompoundTag nbt) {
+		PlayerConfig<P> targetConfig = PlayerConfigSerializationHandler.getTargetConfig(id, manager);
+		if(targetConfig != null)
+			deserializeInto(targetConfig, nbt);
+		return targetConfig;
+	}
+
+	private void deserializeInto(PlayerConfig<P> config, CompoundTag nbt) {
+		ForgeConfigSpec spec = config.getManager().getPlayerConfigSpec();
+		Config defaults = config instanceof PlayerSubConfig ? null : getDefaults(spec);
+		config.setStorage(readStorage(nbt, config.getManager().getAllOptionsStream(), spec, defaults));
+	}
+
+	private Config getDefaults(ForgeConfigSpec spec) {
+		if(defaultsSpec != spec) {//only built once per config manager
+			defaults = createDefaults(spec);
+			defaultsSpec = spec;
+		}
+		return defaults;
+	}
+
+	/**
+	 * Creates a main config storage with all values set to the defaults, same as a TOML file without any values
+	 * after it's corrected with the spec.
+	 */
+	public static Config createDefaults(ForgeConfigSpec spec) {
+		CommentedConfig defaults = CommentedConfig.of(LinkedHashMap::new, TomlFormat.instance());
+		spec.correct(defaults);
+		return ConfigUtil.deepCopy(defaults, LinkedHashMap::new);//removes comments
+	}
+
+	public static CompoundTag writeStorage(Config storage, Stream<? extends IPlayerConfigOptionSpecAPI<?>> options, boolean sub) {
+		CompoundTag nbt = new CompoundTag();
+		nbt.put("values", writeValues(storage, options, sub));
+		return nbt;
+	}
+
+	/**
+	 * Reads a main config on top of a copy of the defaults or a sub-config into an empty storage (when there are no defaults).
+	 */
+	public static Config readStorage(CompoundTag nbt, Stream<? extends IPlayerConfigOptionSpecAPI<?>> options, ForgeConfigSpec spec, Config defaults) {
+		Config storage = defaults == null ? Config.of(LinkedHashMap::new, TomlFormat.instance()) : ConfigUtil.deepCopy(defaults, LinkedHashMap::new);
+		readValues(nbt.getCompound("values"), options, spec, storage);
+		return storage;
+	}
+
+	/**
+	 * Only the values that differ from the defaults are written, keyed by the option IDs because the option ordinals
+	 * can change between server starts. Sub-configs have no defaults, so all of their explicit values are written,
+	 * including the ones that match the main config. Values of incorrect types are skipped, same as the TOML
+	 * deserializer replacing them with the default or removing them from sub-configs.
+	 */
+	static CompoundTag writeValues(Config storage, Stream<? extends IPlayerConfigOptionSpecAPI<?>> options, boolean sub) {
+		CompoundTag values = new CompoundTag();
+		options.forEach(o -> {
+			Object value = storage.get(o.getPath());
+			if(value != null && value.getClass() == o.getType() && (sub || !value.equals(o.getDefaultValue())))
+				writeValue(values, o.getId(), value);
+		});
+		return values;
+	}
+
+	/**
+	 * Values of unknown or removed options are ignored, as well as values of incorrect types. Values that the spec
+	 * doesn't accept are corrected with it (e.g. clamped to the range), same as in the TOML deserializer.
+	 */
+	static void readValues(CompoundTag values, Stream<? extends IPlayerConfigOptionSpecAPI<?>> options, ForgeConfigSpec spec, Config storage) {
+		options.forEach(o -> {
+			Object value = readValue(values, o);
+			if(value == null || !(spec.getSpec().<Object>get(o.getPath()) instanceof ForgeConfigSpec.ValueSpec valueSpec))
+				return;
+			storage.set(o.getPath(), valueSpec.test(value) ? value : valueSpec.correct(value));
+		});
+	}
+
+	static void writeValue(CompoundTag values, String key, Object value) {
+		if(value instanceof Boolean booleanValue)
+			values.putBoolean(key, booleanValue);
+		else if(value instanceof Integer intValue)
+			values.putInt(key, intValue);
+		else if(value instanceof Double doubleValue)
+			values.putDouble(key, doubleValue);
+		else if(value instanceof Float floatValue)
+			values.putFloat(key, floatValue);
+		else if(value instanceof String stringValue)
+			values.putString(key, stringValue);
+		else
+			throw new IllegalArgumentException("Unsupported player config value type " + value.getClass().getName() + " for option " + key);
+	}
+
+	private static Object readValue(CompoundTag values, IPlayerConfigOptionSpecAPI<?> option) {
+		String key = option.getId();
+		Class<?> type = option.getType();
+		if(type == Boolean.class)
+			return values.contains(key, Tag.TAG_BYTE) ? values.getBoolean(key) : null;
+		if(type == Integer.class)
+			return values.contains(key, Tag.TAG_INT) ? values.getInt(key) : null;
+		if(type == Double.class)
+			return values.contains(key, Tag.TAG_DOUBLE) ? values.getDouble(key) : null;
+		if(type == Float.class)
+			return values.contains(key, Tag.TAG_FLOAT) ? values.getFloat(key) : null;
+		if(type == String.class)
+			return values.contains(key, Tag.TAG_STRING) ? values.getString(key) : null;
+		return null;
+	}
+
+	public static final class Builder
+	<
+		P extends IServerParty<?, ?, ?>,
+		CM extends IServerClaimsManager<?, ?, ?>
+	> {
+
+		private Builder() {
+		}
+
+		private Builder<P, CM> setDefault() {
+			return this;
+		}
+
+		public PlayerConfigNbtSerializer<P, CM> build() {
+			return new PlayerConfigNbtSerializer<>();
+		}
+
+		public static
+		<
+			P extends IServerParty<?, ?, ?>,
+			CM extends IServerClaimsManager<?, ?, ?>
+		> Builder<P, CM> begin() {
+			return new Builder<P, CM>().setDefault();
+		}
+
+	}
+
+}
@@ -79,7 +79,7 @@ public class PlayerSubConfig
 	@Override
 	public Config getStorage() {
 		if(storage == null) {
-			setStorage(Config.of(LinkedHashMap::new, TomlFormat.instance()));
+			storage = Config.of(LinkedHashMap::new, TomlFormat.instance());//doesn't change any effective values
 			setDirty(true);
 		}
 		return storage;
@@ -87,17 +87,16 @@ public class PlayerSubConfig
 
 	@Override
 	public boolean isOptionAllowed(@Nonnull IPlayerConfigOptionSpecAPI<?> option) {
-		return super.isOptionAllowed(option) && manager.getOverridableOptions().contains(option);
+		return super.isOptionAllowed(option) && manager.isOverridable(option);
 	}
 
 	private <T extends Comparable<T>> T getInner(IPlayerConfigOptionSpecAPI<T> o, boolean inherit){
 		PlayerConfigOptionSpec<T> option = (PlayerConfigOptionSpec<T>) o;
-		if(!manager.getOverridableOptions().contains(option))
+		if(!manager.isOverridable(option))
 			return inherit ? mainConfig.getFromEffectiveConfig(option) : null;
 		if(isOptionDefaulted(option))
 			return inherit ? manager.getDefaultConfig().getFromEffectiveConfig(option) : null;
-		Config storage = getStorage();
-		T overrideValue = storage.get(option.getPath());
+		T overrideValue = get(option);
 		if(overrideValue == null && inherit)
 			return mainConfig.getFromEffectiveConfig(option);
 		return overrideValue;
@@ -109,6 +108,11 @@ public class PlayerSubConfig
 		return getInner(o, true);
 	}
 
+	@Override
+	protected int getEffectiveValuesVersion() {
+		return Math.max(super.getEffectiveValuesVersion(), mainConfig.getValuesVersion());
+	}
+
 	public boolean isInherited(IPlayerConfigOptionSpecAPI<?> o){
 		return getInner(o, false) == null;
 	}
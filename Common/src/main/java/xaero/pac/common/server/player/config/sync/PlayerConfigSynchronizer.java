@@ -64,15 +64,15 @@ public class PlayerConfigSynchronizer implements IPlayerConfigSynchronizer {
 		boolean mutable = isOp && syncedConfig.getType() != PlayerConfigType.PLAYER;
 		boolean defaulted = !mutable && syncedConfig.getType() == PlayerConfigType.PLAYER;
 		if(defaulted) {
-			mutable = PlayerConfig.isPlayerConfigurable(option);
+			mutable = configManager.isPlayerConfigurable(option);
 			defaulted = !mutable;
 			if(defaulted) {
-				defaulted = !PlayerConfig.isOptionOPConfigurable(option);
+				defaulted = !configManager.isOptionOPConfigurable(option);
 				mutable = !defaulted && isOp;
 			}
 		}
 		T value = syncedConfig.getRaw(option);
-		if(mutable && syncedConfig instanceof PlayerSubConfig && !configManager.getOverridableOptions().contains(option)) {
+		if(mutable && syncedConfig instanceof PlayerSubConfig && !configManager.isOverridable(option)) {
 			mutable = false;
 			value = null;
 		}
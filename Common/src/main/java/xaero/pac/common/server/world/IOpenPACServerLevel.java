@@ -16,34 +16,13 @@
  * If not, see <https://www.gnu.org/licenses/>.
  */
 
-package xaero.pac.common.claims;
+package xaero.pac.common.server.world;
 
-import xaero.pac.common.claims.player.PlayerChunkClaim;
+import xaero.pac.common.server.claims.ServerDimensionClaimsLookup;
 
-public class PlayerChunkClaimHolder {
-	
-	private final PlayerChunkClaim claim;
-	private short count;
-	
-	public PlayerChunkClaimHolder(PlayerChunkClaim claim) {
-		super();
-		this.claim = claim;
-	}
-	
-	public int getCount() {
-		return count & 0xFFFF;
-	}
-	
-	public void increment() {
-		count++;
-	}
-	
-	public void decrement() {
-		count--;
-	}
-	
-	public PlayerChunkClaim getClaim() {
-		return claim;
-	}
+public interface IOpenPACServerLevel {
+
+	public ServerDimensionClaimsLookup getXaero_OPAC_claimsLookup();
+	public void setXaero_OPAC_claimsLookup(ServerDimensionClaimsLookup claimsLookup);
 
 }
@@ -0,0 +1,260 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.player.config.io;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.toml.TomlParser;
+import com.electronwill.nightconfig.toml.TomlWriter;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xaero.pac.common.server.io.serialization.nbt.SimpleNBTSerializedDataFileIO;
+import xaero.pac.common.server.player.config.PlayerConfig;
+import xaero.pac.common.server.player.config.PlayerConfigOptionCategory;
+import xaero.pac.common.server.player.config.PlayerConfigOptionSpec;
+import xaero.pac.common.server.player.config.PlayerConfigRangedOptionSpec;
+import xaero.pac.common.server.player.config.io.serialization.PlayerConfigSerializer;
+import xaero.pac.common.server.player.config.io.serialization.nbt.PlayerConfigNbtSerializer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Switches player config files between the TOML and the NBT format the same way that {@link PlayerConfigIO} does when
+ * the used format is changed: load the file in the old format, save it in the used format and delete the old file.
+ */
+public class PlayerConfigFormatConversionTest {
+
+	private static final String TOML = ".toml";
+	private static final Map<String, PlayerConfigOptionSpec<?>> OPTIONS = new LinkedHashMap<>();
+	private static final PlayerConfigOptionSpec<Boolean> FLAG = PlayerConfigOptionSpec.FinalBuilder.begin(Boolean.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testFlag")
+			.setDefaultValue(true)
+			.setComment("Test flag.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.build(OPTIONS);
+	private static final PlayerConfigRangedOptionSpec<Integer> LIMIT = PlayerConfigRangedOptionSpec.Builder.begin(Integer.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testLimit")
+			.setDefaultValue(5)
+			.setMinValue(0)
+			.setMaxValue(10)
+			.setComment("Test limit.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.build(OPTIONS);
+	private static final PlayerConfigOptionSpec<String> NAME = PlayerConfigOptionSpec.FinalBuilder.begin(String.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "testName")
+			.setDefaultValue("abc")
+			.setComment("Test name.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.setValueValidator(s -> true)
+			.build(OPTIONS);
+	private static final ForgeConfigSpec SPEC = createSpec();
+	private static final Config DEFAULTS = PlayerConfigNbtSerializer.createDefaults(SPEC);
+
+	@TempDir
+	Path folder;
+	private final List<Path> backedUp = new ArrayList<>();
+
+	private static ForgeConfigSpec createSpec() {
+		ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+		OPTIONS.values().forEach(o -> o.applyToForgeSpec(builder));
+		return builder.build();
+	}
+
+	private PlayerConfigFormatConversion<LoadedConfig> createConversion(boolean binaryFormat) {
+		return new PlayerConfigFormatConversion<>(TOML, PlayerConfigIO.BINARY_FILE_EXTENSION, binaryFormat, backedUp::add);
+	}
+
+	private Path getFile(PlayerConfigFormatConversion<LoadedConfig> conversion, boolean binary) {
+		return folder.resolve(UUID.nameUUIDFromBytes(new byte[0]) + conversion.getExtension(binary));
+	}
+
+	private static void writeToml(Path file, Config storage) throws IOException {
+		Files.writeString(file, new TomlWriter().writeToString(storage));
+	}
+
+	private static void writeNbt(Path file, Config storage, boolean sub) throws IOException {
+		CompoundTag nbt = PlayerConfigNbtSerializer.writeStorage(storage, OPTIONS.values().stream(), sub);
+		try(BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(file.toFile()))) {
+			new SimpleNBTSerializedDataFileIO<UUID>().write(output, nbt);
+		}
+	}
+
+	private static Config readNbt(Path file, boolean sub) throws IOException {
+		CompoundTag nbt;
+		try(BufferedInputStream input = new BufferedInputStream(new FileInputStream(file.toFile()))) {
+			nbt = new SimpleNBTSerializedDataFileIO<UUID>().read(null, input);
+		}
+		return PlayerConfigNbtSerializer.readStorage(nbt, OPTIONS.values().stream(), SPEC, sub ? null : DEFAULTS);
+	}
+
+	private static Config readToml(Path file, boolean sub) throws IOException {
+		return PlayerConfigSerializer.readStorage(new TomlParser(), Files.readString(file), sub ? null : SPEC, OPTIONS.values().stream(), o -> sub ? null : o.getDefaultValue(), true);
+	}
+
+	private LoadedConfig load(PlayerConfigFormatConversion<LoadedConfig> conversion, Path file, boolean sub) throws IOException {
+		if(conversion.skipIfShadowed(file))
+			return null;
+		LoadedConfig loaded = new LoadedConfig(conversion.isBinaryFile(file) ? readNbt(file, sub) : readToml(file, sub));
+		loaded.dirty = conversion.onLoad(loaded, file);
+		return loaded;
+	}
+
+	private void save(PlayerConfigFormatConversion<LoadedConfig> conversion, LoadedConfig loaded, Path file, boolean sub) throws IOException {
+		if(conversion.isBinaryFile(file))
+			writeNbt(file, loaded.storage, sub);
+		else
+			writeToml(file, loaded.storage);
+		if(conversion.onSaveOrDelete(loaded))
+			Files.delete(conversion.getOtherFormatFile(file));
+	}
+
+	private static void assertSameValues(Config expected, Config actual) {
+		for(PlayerConfigOptionSpec<?> option : OPTIONS.values())
+			assertEquals((Object) expected.get(option.getPath()), actual.get(option.getPath()), option.getId());
+	}
+
+	private void testConversion(boolean toBinary, boolean sub, Config values) throws IOException {
+		PlayerConfigFormatConversion<LoadedConfig> conversion = createConversion(toBinary);
+		Path oldFile = getFile(conversion, !toBinary);
+		if(toBinary)
+			writeToml(oldFile, values);
+		else
+			writeNbt(oldFile, values, sub);
+
+		LoadedConfig loaded = load(conversion, oldFile, sub);
+		assertNotNull(loaded);
+		assertTrue(loaded.dirty);
+		Path newFile = conversion.getUsedFormatFile(oldFile);
+		assertEquals(getFile(conversion, toBinary), newFile);
+		save(conversion, loaded, newFile, sub);
+		assertFalse(Files.exists(oldFile));
+		assertTrue(Files.exists(newFile));
+		assertTrue(backedUp.isEmpty());
+
+		//the next save doesn't delete anything anymore
+		assertFalse(conversion.onSaveOrDelete(loaded));
+
+		LoadedConfig reloaded = load(createConversion(toBinary), newFile, sub);
+		assertNotNull(reloaded);
+		assertFalse(reloaded.dirty);
+		assertSameValues(loaded.storage, reloaded.storage);
+		assertSameValues(values, reloaded.storage);
+	}
+
+	private static Config createValues(boolean sub) {
+		Config values = Config.inMemory();
+		values.set(FLAG.getPath(), false);
+		values.set(NAME.getPath(), "xyz");
+		if(!sub)
+			values.set(LIMIT.getPath(), 7);
+		return values;
+	}
+
+	@Test
+	public void testTomlToNbtConversion() throws IOException {
+		testConversion(true, false, createValues(false));
+	}
+
+	@Test
+	public void testNbtToTomlConversion() throws IOException {
+		testConversion(false, false, createValues(false));
+	}
+
+	@Test
+	public void testSubConfigConversionKeepsInheritedValues() throws IOException {
+		testConversion(true, true, createValues(true));
+		Files.delete(getFile(createConversion(true), true));
+		testConversion(false, true, createValues(true));
+	}
+
+	@Test
+	public void testShadowedFileIsBackedUpAndNotConverted() throws IOException {
+		PlayerConfigFormatConversion<LoadedConfig> conversion = createConversion(true);
+		Path tomlFile = getFile(conversion, false);
+		Path nbtFile = getFile(conversion, true);
+		Config tomlValues = createValues(false);
+		Config nbtValues = createValues(false);
+		nbtValues.set(LIMIT.getPath(), 3);
+		writeToml(tomlFile, tomlValues);
+		writeNbt(nbtFile, nbtValues, false);
+
+		//the order of the files doesn't matter
+		assertNull(load(conversion, tomlFile, false));
+		LoadedConfig loaded = load(conversion, nbtFile, false);
+		assertNotNull(loaded);
+		assertFalse(loaded.dirty);
+		assertEquals(List.of(tomlFile), backedUp);
+		assertEquals(3, loaded.storage.<Integer>get(LIMIT.getPath()));
+
+		save(conversion, loaded, nbtFile, false);
+		assertTrue(Files.exists(tomlFile));//deleted by the backup instead
+	}
+
+	@Test
+	public void testMissingNbtValuesLoadAsDefaults() throws IOException {
+		PlayerConfigFormatConversion<LoadedConfig> conversion = createConversion(true);
+		Path nbtFile = getFile(conversion, true);
+		writeNbt(nbtFile, Config.inMemory(), false);
+		assertSameValues(DEFAULTS, load(conversion, nbtFile, false).storage);
+		assertEquals(5, DEFAULTS.<Integer>get(LIMIT.getPath()));
+	}
+
+	@Test
+	public void testOutOfRangeValuesAreClampedInBothFormats() throws IOException {
+		PlayerConfigFormatConversion<LoadedConfig> conversion = createConversion(true);
+		Path tomlFile = getFile(conversion, false);
+		Path nbtFile = getFile(conversion, true);
+		Config values = Config.inMemory();
+		values.set(LIMIT.getPath(), 50);
+		writeToml(tomlFile, values);
+		CompoundTag nbt = new CompoundTag();
+		CompoundTag nbtValues = new CompoundTag();
+		nbtValues.putInt(LIMIT.getId(), 50);
+		nbt.put("values", nbtValues);
+		try(BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(nbtFile.toFile()))) {
+			new SimpleNBTSerializedDataFileIO<UUID>().write(output, nbt);
+		}
+
+		assertEquals(10, readToml(tomlFile, false).<Integer>get(LIMIT.getPath()));
+		assertEquals(10, readNbt(nbtFile, false).<Integer>get(LIMIT.getPath()));
+		assertEquals(10, readNbt(nbtFile, true).<Integer>get(LIMIT.getPath()));
+	}
+
+	private static final class LoadedConfig {
+
+		private final Config storage;
+		private boolean dirty;
+
+		private LoadedConfig(Config storage) {
+			this.storage = storage;
+		}
+
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Open Parties and Claims - adds chunk claims and player parties to Minecraft
+ * Copyright (C) 2022-2023, Xaero <xaero1996@gmail.com> and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of version 3 of the GNU Lesser General Public License
+ * (LGPL-3.0-only) as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received copies of the GNU Lesser General Public License
+ * and the GNU General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xaero.pac.common.server.player.config.io.serialization.nbt;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.toml.TomlFormat;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.junit.jupiter.api.Test;
+import xaero.pac.common.server.player.config.PlayerConfig;
+import xaero.pac.common.server.player.config.PlayerConfigOptionCategory;
+import xaero.pac.common.server.player.config.PlayerConfigOptionSpec;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trips player configs from TOML to NBT and back to TOML, the same way a format switch converts the config files.
+ */
+public class PlayerConfigNbtSerializerTest {
+
+	private static final Map<String, PlayerConfigOptionSpec<?>> OPTIONS = new LinkedHashMap<>();
+	private static final PlayerConfigOptionSpec<Boolean> FLAG = PlayerConfigOptionSpec.FinalBuilder.begin(Boolean.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testFlag")
+			.setDefaultValue(true)
+			.setComment("Test flag.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.build(OPTIONS);
+	private static final PlayerConfigOptionSpec<Integer> COUNT = PlayerConfigOptionSpec.FinalBuilder.begin(Integer.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testCount")
+			.setDefaultValue(5)
+			.setComment("Test count.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.build(OPTIONS);
+	private static final PlayerConfigOptionSpec<Double> RATIO = PlayerConfigOptionSpec.FinalBuilder.begin(Double.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testRatio")
+			.setDefaultValue(0.5)
+			.setComment("Test ratio.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.build(OPTIONS);
+	private static final PlayerConfigOptionSpec<String> NAME = PlayerConfigOptionSpec.FinalBuilder.begin(String.class)
+			.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "testName")
+			.setDefaultValue("abc")
+			.setComment("Test name.")
+			.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+			.setValueValidator(s -> true)
+			.build(OPTIONS);
+
+	private static final ForgeConfigSpec SPEC = createSpec();
+
+	private static ForgeConfigSpec createSpec() {
+		ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+		OPTIONS.values().forEach(o -> o.applyToForgeSpec(builder));
+		return builder.build();
+	}
+
+	private static Config parseToml(String toml) {
+		return TomlFormat.instance().createParser().parse(toml);
+	}
+
+	private static Config createStorage(boolean sub) {
+		if(!sub)
+			return PlayerConfigNbtSerializer.createDefaults(SPEC);
+		return Config.of(LinkedHashMap::new, TomlFormat.instance());
+	}
+
+	private static CompoundTag writeAndReadFile(CompoundTag nbt) throws IOException {
+		ByteArrayOutputStream byteOutput = new ByteArrayOutputStream();
+		try(DataOutputStream dataOutput = new DataOutputStream(byteOutput)) {
+			NbtIo.write(nbt, dataOutput);
+		}
+		try(DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(byteOutput.toByteArray()))) {
+			return NbtIo.read(dataInput);
+		}
+	}
+
+	private static Config readNbt(CompoundTag values, boolean sub) {
+		Config storage = createStorage(sub);
+		PlayerConfigNbtSerializer.readValues(values, OPTIONS.values().stream(), SPEC, storage);
+		return parseToml(TomlFormat.instance().createWriter().writeToString(storage));
+	}
+
+	private static Config roundTrip(Config toml, boolean sub) throws IOException {
+		return readNbt(writeAndReadFile(PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), sub)), sub);
+	}
+
+	@Test
+	public void testMainConfigRoundTrip() throws IOException {
+		Config toml = parseToml("""
+				[playerConfig]
+				testName = "xyz"
+				[playerConfig.claims]
+				testFlag = false
+				testCount = 5
+				testRatio = 0.75
+				""");
+		CompoundTag values = PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), false);
+		assertFalse(values.contains(COUNT.getId()));//same as the default
+		assertEquals(3, values.size());
+
+		Config result = roundTrip(toml, false);
+		for(PlayerConfigOptionSpec<?> option : OPTIONS.values())
+			assertEquals((Object) toml.get(option.getPath()), result.get(option.getPath()), option.getId());
+	}
+
+	@Test
+	public void testMainConfigMissingValuesRoundTripAsDefaults() throws IOException {
+		Config result = roundTrip(parseToml("""
+				[playerConfig.claims]
+				testFlag = false
+				"""), false);
+		assertEquals(false, result.<Boolean>get(FLAG.getPath()));
+		assertEquals(COUNT.getDefaultValue(), result.<Integer>get(COUNT.getPath()));
+		assertEquals(RATIO.getDefaultValue(), result.<Double>get(RATIO.getPath()));
+		assertEquals(NAME.getDefaultValue(), result.<String>get(NAME.getPath()));
+	}
+
+	@Test
+	public void testSubConfigKeepsExplicitValuesThatMatchTheDefaults() throws IOException {
+		Config toml = parseToml("""
+				[playerConfig.claims]
+				testFlag = true
+				testCount = 5
+				""");
+		CompoundTag values = PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), true);
+		assertTrue(values.contains(FLAG.getId()));
+		assertTrue(values.contains(COUNT.getId()));
+
+		Config result = roundTrip(toml, true);
+		assertEquals(true, result.<Boolean>get(FLAG.getPath()));
+		assertEquals(5, result.<Integer>get(COUNT.getPath()));
+		//inherited values stay inherited instead of becoming explicit defaults
+		assertFalse(result.contains(RATIO.getPath()));
+		assertFalse(result.contains(NAME.getPath()));
+	}
+
+	@Test
+	public void testWrongTypeValuesAreDropped() throws IOException {
+		Config toml = parseToml("""
+				[playerConfig]
+				testName = 3
+				[playerConfig.claims]
+				testFlag = "yes"
+				testCount = 1.5
+				testRatio = 2
+				""");
+		assertEquals(0, PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), false).size());
+		assertEquals(0, PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), true).size());
+
+		Config mainResult = roundTrip(toml, false);
+		for(PlayerConfigOptionSpec<?> option : OPTIONS.values())
+			assertEquals((Object) option.getDefaultValue(), mainResult.get(option.getPath()), option.getId());
+		Config subResult = roundTrip(toml, true);
+		for(PlayerConfigOptionSpec<?> option : OPTIONS.values())
+			assertFalse(subResult.contains(option.getPath()), option.getId());
+	}
+
+	@Test
+	public void testWrongTypeTagsAreIgnored() {
+		CompoundTag values = new CompoundTag();
+		values.putString(FLAG.getId(), "yes");
+		values.putDouble(COUNT.getId(), 7);
+		values.putInt(NAME.getId(), 3);
+		Config result = readNbt(values, true);
+		assertFalse(result.contains(FLAG.getPath()));
+		assertFalse(result.contains(COUNT.getPath()));
+		assertFalse(result.contains(NAME.getPath()));
+	}
+
+	@Test
+	public void testUnknownOptionsAreIgnored() throws IOException {
+		CompoundTag values = new CompoundTag();
+		values.putInt(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.removedOption", 3);
+		values.putBoolean(FLAG.getId(), false);
+		Config result = readNbt(writeAndReadFile(values), false);
+		assertFalse(result.contains(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.removedOption"));
+		assertEquals(false, result.<Boolean>get(FLAG.getPath()));
+		assertEquals(COUNT.getDefaultValue(), result.<Integer>get(COUNT.getPath()));
+
+		Config toml = parseToml("""
+				[playerConfig.claims]
+				removedOption = 3
+				testCount = 8
+				""");
+		CompoundTag written = PlayerConfigNbtSerializer.writeValues(toml, OPTIONS.values().stream(), true);
+		assertEquals(1, written.size());
+		assertEquals(8, written.getInt(COUNT.getId()));
+	}
+
+	@Test
+	public void testUnsupportedValueTypeThrows() {
+		Map<String, PlayerConfigOptionSpec<?>> options = new LinkedHashMap<>();
+		PlayerConfigOptionSpec<Long> longOption = PlayerConfigOptionSpec.FinalBuilder.begin(Long.class)
+				.setId(PlayerConfig.PLAYER_CONFIG_ROOT_DOT + "claims.testLong")
+				.setDefaultValue(0L)
+				.setComment("Test long.")
+				.setCategory(PlayerConfigOptionCategory.GENERAL_CLAIMS)
+				.setCommandInputReader(Long::parseLong)
+				.build(options);
+		Config storage = createStorage(true);
+		storage.set(longOption.getPath(), 1L);
+		assertThrows(IllegalArgumentException.class, () -> PlayerConfigNbtSerializer.writeValues(storage, options.values().stream(), true));
+		assertThrows(IllegalArgumentException.class, () -> PlayerConfigNbtSerializer.writeValue(new CompoundTag(), longOption.getId(), 1L));
+	}
+
+}
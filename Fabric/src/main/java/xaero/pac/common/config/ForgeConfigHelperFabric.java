@@ -19,6 +19,7 @@
 package xaero.pac.common.config;
 
 import net.minecraftforge.api.ModLoadingContext;
+import net.minecraftforge.api.fml.event.config.ModConfigEvent;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.config.ModConfig;
 import xaero.pac.OpenPartiesAndClaims;
@@ -40,4 +41,12 @@ public class ForgeConfigHelperFabric implements IForgeConfigHelper {
 		ModLoadingContext.registerConfig(OpenPartiesAndClaims.MOD_ID, ModConfig.Type.COMMON, spec);
 	}
 
+	@Override
+	public void addReloadListener(ForgeConfigSpec spec, Runnable listener) {
+		ModConfigEvent.RELOADING.register(config -> {
+			if(config.getSpec() == spec)
+				listener.run();
+		});
+	}
+
 }
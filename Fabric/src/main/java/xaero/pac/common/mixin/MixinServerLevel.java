@@ -29,16 +29,19 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xaero.pac.common.server.claims.ServerDimensionClaimsLookup;
 import xaero.pac.common.server.core.ServerCore;
 import xaero.pac.common.server.core.ServerCoreFabric;
+import xaero.pac.common.server.world.IOpenPACServerLevel;
 import xaero.pac.common.server.world.IServerLevel;
 
 import java.util.function.BooleanSupplier;
 
 @Mixin(value = ServerLevel.class, priority = 1000001)
-public class MixinServerLevel implements IServerLevel {
+public class MixinServerLevel implements IServerLevel, IOpenPACServerLevel {
 
 	private LongSet xaero_OPAC_forceloadTickets;
+	private ServerDimensionClaimsLookup xaero_OPAC_claimsLookup;
 
 	@Override
 	public LongSet getXaero_OPAC_forceloadTickets() {
@@ -47,6 +50,16 @@ public class MixinServerLevel implements IServerLevel {
 		return xaero_OPAC_forceloadTickets;
 	}
 
+	@Override
+	public ServerDimensionClaimsLookup getXaero_OPAC_claimsLookup() {
+		return xaero_OPAC_claimsLookup;
+	}
+
+	@Override
+	public void setXaero_OPAC_claimsLookup(ServerDimensionClaimsLookup claimsLookup) {
+		xaero_OPAC_claimsLookup = claimsLookup;
+	}
+
 	@Inject(method = "isNaturalSpawningAllowed(Lnet/minecraft/world/level/ChunkPos;)Z", at = @At("HEAD"), cancellable = true)
 	public void onIsNaturalSpawningAllowed(ChunkPos chunkPos, CallbackInfoReturnable<Boolean> infoReturnable){
 		LongSet forceloadTickets = getXaero_OPAC_forceloadTickets();
@@ -21,6 +21,8 @@ package xaero.pac.common.config;
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 
 public class ForgeConfigHelperForge implements IForgeConfigHelper {
 
@@ -39,4 +41,12 @@ public class ForgeConfigHelperForge implements IForgeConfigHelper {
 		ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, spec);
 	}
 
+	@Override
+	public void addReloadListener(ForgeConfigSpec spec, Runnable listener) {
+		FMLJavaModLoadingContext.get().getModEventBus().addListener((ModConfigEvent.Reloading event) -> {
+			if(event.getConfig().getSpec() == spec)
+				listener.run();
+		});
+	}
+
 }
@@ -324,6 +324,21 @@ function initializeCoreMod() {
 				return classNode
 			}
 		},
+		'xaero_pac_serverlevelclass': {
+			'target' : {
+				'type' : 'CLASS',
+				'name' : 'net.minecraft.server.level.ServerLevel'
+			},
+			'transformer' : function(classNode){
+				var fields = classNode.fields
+				classNode.interfaces.add("xaero/pac/common/server/world/IOpenPACServerLevel")
+				fields.add(new FieldNode(Opcodes.ACC_PRIVATE, "xaero_OPAC_claimsLookup", "Lxaero/pac/common/server/claims/ServerDimensionClaimsLookup;", null, null))
+				addGetter(classNode, "xaero_OPAC_claimsLookup", "Lxaero/pac/common/server/claims/ServerDimensionClaimsLookup;")
+				addSetter(classNode, "xaero_OPAC_claimsLookup", "Lxaero/pac/common/server/claims/ServerDimensionClaimsLookup;")
+
+				return classNode
+			}
+		},
 		'xaero_pac_entity': {
 			'target' : {
 				'type' : 'CLASS',